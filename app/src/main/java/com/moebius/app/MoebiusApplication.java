@@ -3,18 +3,26 @@ package com.moebius.app;
 import com.moebius.backend.domain.commons.Exchange;
 import com.moebius.backend.service.kafka.consumer.UpbitKafkaConsumer;
 import com.moebius.backend.service.market.MarketService;
+import com.moebius.backend.service.order.OrderBookService;
+import com.moebius.backend.service.order.OrderStatusPollingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
 
+import java.time.Duration;
 import java.util.Arrays;
 
 @SpringBootApplication
 @RequiredArgsConstructor
 public class MoebiusApplication implements ApplicationListener<ApplicationReadyEvent> {
+    private static final Duration ORDER_BOOK_LOAD_FIRST_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration ORDER_BOOK_LOAD_MAX_BACKOFF = Duration.ofMinutes(1);
+
     private final MarketService marketService;
+    private final OrderBookService orderBookService;
+    private final OrderStatusPollingService orderStatusPollingService;
     private final UpbitKafkaConsumer upbitKafkaConsumer;
 
     public static void main(String[] args) {
@@ -26,6 +34,10 @@ public class MoebiusApplication implements ApplicationListener<ApplicationReadyE
         Arrays.stream(Exchange.values())
             .filter(exchange -> exchange == Exchange.UPBIT) // TODO : Remove condition after integrating other external exchanges
             .forEach(exchange -> marketService.updateMarkets(exchange).subscribe());
-        upbitKafkaConsumer.consumeMessages();
+        orderStatusPollingService.loadInProgressOrders().subscribe();
+        // Trades are consumed only after the order books are loaded, the load is retried until it succeeds.
+        orderBookService.loadReadyOrders()
+            .retryBackoff(Long.MAX_VALUE, ORDER_BOOK_LOAD_FIRST_BACKOFF, ORDER_BOOK_LOAD_MAX_BACKOFF)
+            .subscribe(count -> upbitKafkaConsumer.consumeMessages());
     }
 }
@@ -3,6 +3,8 @@ package com.moebius.app;
 import com.moebius.backend.domain.commons.Exchange;
 import com.moebius.backend.service.kafka.consumer.UpbitKafkaConsumer;
 import com.moebius.backend.service.market.MarketService;
+import com.moebius.backend.service.order.OrderBookService;
+import com.moebius.backend.service.order.OrderStatusPollingService;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -13,6 +15,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -24,6 +29,10 @@ public class MoebiusApplicationTests {
 	@Mock
 	private MarketService marketService;
 	@Mock
+	private OrderBookService orderBookService;
+	@Mock
+	private OrderStatusPollingService orderStatusPollingService;
+	@Mock
 	private UpbitKafkaConsumer upbitKafkaConsumer;
 	@Mock
 	private ApplicationReadyEvent applicationReadyEvent;
@@ -35,10 +44,29 @@ public class MoebiusApplicationTests {
 	@Test
 	public void initializeOnApplicationEvent() {
 		when(marketService.updateMarkets(any(Exchange.class))).thenReturn(Mono.just(ResponseEntity.ok().build()));
+		when(orderBookService.loadReadyOrders()).thenReturn(Mono.just(0L));
+		when(orderStatusPollingService.loadInProgressOrders()).thenReturn(Mono.just(0L));
 
 		moebiusApplication.onApplicationEvent(applicationReadyEvent);
 
 		verify(marketService, times(1)).updateMarkets(any(Exchange.class));
+		verify(orderBookService, times(1)).loadReadyOrders();
+		verify(orderStatusPollingService, times(1)).loadInProgressOrders();
 		verify(upbitKafkaConsumer, times(1)).consumeMessages();
 	}
+
+	@Test
+	public void consumeMessagesOnlyAfterOrderBooksAreLoaded() {
+		AtomicInteger loadCount = new AtomicInteger();
+		when(marketService.updateMarkets(any(Exchange.class))).thenReturn(Mono.just(ResponseEntity.ok().build()));
+		when(orderStatusPollingService.loadInProgressOrders()).thenReturn(Mono.just(0L));
+		when(orderBookService.loadReadyOrders()).thenReturn(Mono.defer(() -> loadCount.getAndIncrement() == 0 ?
+			Mono.error(new IllegalStateException()) : Mono.just(0L)));
+
+		moebiusApplication.onApplicationEvent(applicationReadyEvent);
+
+		verify(upbitKafkaConsumer, never()).consumeMessages();
+		verify(upbitKafkaConsumer, timeout(5000).times(1)).consumeMessages();
+		assertEquals(2, loadCount.get());
+	}
 }
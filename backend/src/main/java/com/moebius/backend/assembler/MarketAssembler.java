@@ -57,6 +57,21 @@ public class MarketAssembler {
 			.collect(Collectors.toMap(market -> orderUtil.getTargetCurrencyBySymbol(market.getSymbol()), Market::getCurrentPrice));
 	}
 
+	public Market assembleSnapshot(Market market) {
+		Market snapshot = new Market();
+		snapshot.setId(market.getId());
+		snapshot.setExchange(market.getExchange());
+		snapshot.setSymbol(market.getSymbol());
+		snapshot.setCurrentPrice(market.getCurrentPrice());
+		snapshot.setChangeRate(market.getChangeRate());
+		snapshot.setAccumulatedTradePrice(market.getAccumulatedTradePrice());
+		snapshot.setAccumulatedTradeVolume(market.getAccumulatedTradeVolume());
+		snapshot.setCreatedAt(market.getCreatedAt());
+		snapshot.setUpdatedAt(market.getUpdatedAt());
+
+		return snapshot;
+	}
+
 	public Market assembleUpdatedMarket(Market market, TradeDto tradeDto, UpbitTradeMetaDto tradeMetaDto) {
 		if (tradeDto == null || tradeMetaDto == null) {
 			return market;
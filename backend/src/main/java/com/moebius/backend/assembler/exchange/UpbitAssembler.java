@@ -15,6 +15,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -28,6 +29,7 @@ public class UpbitAssembler implements ExchangeAssembler {
 	private static final String ORDER_TYPE_PRICE = "price";
 	private static final String ORDER_TYPE_MARKET = "market";
 	private static final String WAIT_STATE = "wait";
+	private static final String DONE_STATES_PARAMETERS = "states[]=done&states[]=cancel";
 
 	private final ObjectMapper objectMapper;
 
@@ -61,6 +63,16 @@ public class UpbitAssembler implements ExchangeAssembler {
 			.collect(Collectors.joining("&"));
 	}
 
+	/**
+	 * Upbit does not allow to query wait states together with done or cancel states,
+	 * so only finished orders among the identifiers are queried.
+	 */
+	public String assembleDoneOrdersParameters(List<String> orderIds) {
+		return orderIds.stream()
+			.map(orderId -> "identifiers[]=" + orderId)
+			.collect(Collectors.joining("&", StringUtils.EMPTY, "&" + DONE_STATES_PARAMETERS));
+	}
+
 	private String parseOrderPosition(OrderPosition orderPosition) {
 		if (orderPosition == OrderPosition.PURCHASE) {
 			return ORDER_POSITION_BID;
@@ -0,0 +1,40 @@
+package com.moebius.backend.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connection pools of the web clients per destination, clients without their own spec use the default spec.
+ * Every destination owns its pool, so a slow destination only exhausts its own connections.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "moebius.http-client")
+public class HttpClientProperties {
+	private HttpClientSpec defaults = new HttpClientSpec();
+	private Map<String, HttpClientSpec> clients = new HashMap<>();
+
+	public HttpClientSpec getSpec(String clientName) {
+		return clients.getOrDefault(clientName, defaults);
+	}
+
+	@Getter
+	@Setter
+	public static class HttpClientSpec {
+		private int maxConnections = 50;
+		// Requests waiting for a connection over the max connections fail after the acquire timeout.
+		private Duration acquireTimeout = Duration.ofSeconds(2);
+		private Duration connectTimeout = Duration.ofSeconds(3);
+		// Time until the response headers arrive.
+		private Duration responseTimeout = Duration.ofSeconds(5);
+		private boolean keepAlive = true;
+		// Connections opened to the warm up uri on startup, so that the first requests skip the tcp and tls handshakes.
+		private String warmUpUri;
+		private int warmUpConnections = 0;
+	}
+}
@@ -0,0 +1,23 @@
+package com.moebius.backend.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * Windows of a batched kafka consumer. Records of a rail are drained into a window until it is full or its time is over,
+ * and the window is processed at once. While the consumer lags behind over the catch up lag, the catch up bounds apply instead,
+ * so that stale records are conflated more aggressively until the consumer has caught up.
+ */
+@Getter
+@Setter
+public class KafkaBatchProperties {
+	private boolean enabled = false;
+	private Duration window = Duration.ofMillis(20);
+	private int maxSize = 256;
+	// Lag is the age of a record from its kafka timestamp.
+	private Duration catchUpLag = Duration.ofSeconds(5);
+	private Duration catchUpWindow = Duration.ofSeconds(1);
+	private int catchUpMaxSize = 10000;
+}
@@ -1,5 +1,6 @@
 package com.moebius.backend.configuration;
 
+import com.moebius.backend.service.kafka.serializer.TradeDtoSerializer;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -9,16 +10,17 @@ import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
 @RequiredArgsConstructor
-@EnableConfigurationProperties(KafkaProperties.class)
+@EnableConfigurationProperties({KafkaProperties.class, KafkaProducerProperties.class, TradePipelineProperties.class})
 public class KafkaConfiguration {
 	private final KafkaProperties kafkaProperties;
+	private final KafkaProducerProperties kafkaProducerProperties;
+	private final TradePipelineProperties tradePipelineProperties;
 	private static final String SECURITY_PROTOCOL = "SASL_PLAINTEXT";
 	private static final String SASL_MECHANISM = "PLAIN";
 
@@ -29,9 +31,13 @@ public class KafkaConfiguration {
 		senderDefaultProperties.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, String.join(",", kafkaProperties.getBootstrapServers()));
 		senderDefaultProperties.put(ProducerConfig.CLIENT_ID_CONFIG, kafkaProperties.getProducer().getClientId());
 		senderDefaultProperties.put(ProducerConfig.ACKS_CONFIG, kafkaProperties.getProducer().getAcks());
+		senderDefaultProperties.put(ProducerConfig.LINGER_MS_CONFIG, String.valueOf(kafkaProducerProperties.getLinger().toMillis()));
+		senderDefaultProperties.put(ProducerConfig.BATCH_SIZE_CONFIG, String.valueOf(kafkaProducerProperties.getBatchSize()));
+		senderDefaultProperties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, kafkaProducerProperties.getCompressionType());
 		senderDefaultProperties.put(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, SECURITY_PROTOCOL);
 		senderDefaultProperties.put(SaslConfigs.SASL_MECHANISM, SASL_MECHANISM);
 		senderDefaultProperties.put(SaslConfigs.SASL_JAAS_CONFIG, getJaasConfig());
+		senderDefaultProperties.put(TradeDtoSerializer.FORMAT_CONFIG, tradePipelineProperties.getFormat());
 
 		return senderDefaultProperties;
 	}
@@ -43,7 +49,6 @@ public class KafkaConfiguration {
 		receiverDefaultProperties.put(ConsumerConfig.CLIENT_ID_CONFIG, kafkaProperties.getConsumer().getClientId());
 		receiverDefaultProperties.put(ConsumerConfig.GROUP_ID_CONFIG, kafkaProperties.getConsumer().getGroupId());
 		receiverDefaultProperties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, kafkaProperties.getConsumer().getAutoOffsetReset());
-		receiverDefaultProperties.put(JsonDeserializer.TRUSTED_PACKAGES, "com.moebius.backend.dto.trade");
 		receiverDefaultProperties.put(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, SECURITY_PROTOCOL);
 		receiverDefaultProperties.put(SaslConfigs.SASL_MECHANISM, SASL_MECHANISM);
 		receiverDefaultProperties.put(SaslConfigs.SASL_JAAS_CONFIG, getJaasConfig());
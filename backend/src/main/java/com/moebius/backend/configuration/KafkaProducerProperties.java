@@ -0,0 +1,24 @@
+package com.moebius.backend.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Batching of every kafka producer in moebius, and the outbox which accepts records without waiting for the broker.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "moebius.kafka.producer")
+public class KafkaProducerProperties {
+	// Time a record waits for the other records of its partition, so that a burst of records is sent in a single request.
+	private Duration linger = Duration.ofMillis(5);
+	// Max bytes of a batch per partition.
+	private int batchSize = 64 * 1024;
+	// none, gzip, snappy, lz4 or zstd, zstd needs brokers of 2.1 or later.
+	private String compressionType = "lz4";
+	// Records accepted by the outbox and not yet acknowledged by the broker, records over it are rejected.
+	private int outboxCapacity = 10000;
+}
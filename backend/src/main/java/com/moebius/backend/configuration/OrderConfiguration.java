@@ -0,0 +1,9 @@
+package com.moebius.backend.configuration;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(OrderStatusPollingProperties.class)
+public class OrderConfiguration {
+}
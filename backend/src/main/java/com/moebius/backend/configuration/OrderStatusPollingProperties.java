@@ -0,0 +1,24 @@
+package com.moebius.backend.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Bounds of polling the statuses of in-progress orders from exchanges.
+ * An order is polled after the initial interval, the interval doubles on every poll up to the max interval.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "moebius.order.status-polling")
+public class OrderStatusPollingProperties {
+	// Milliseconds between polls of due orders, read by the scheduler itself.
+	private long pollInterval = 500;
+	private Duration initialInterval = Duration.ofSeconds(1);
+	private Duration maxInterval = Duration.ofMinutes(1);
+	// Order ids queried in a single request to an exchange.
+	private int batchSize = 100;
+	private int maxInFlight = 8;
+}
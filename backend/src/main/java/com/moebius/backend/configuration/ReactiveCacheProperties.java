@@ -0,0 +1,34 @@
+package com.moebius.backend.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounds of the reactive caches, caches without their own spec use the default spec.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "moebius.cache")
+public class ReactiveCacheProperties {
+	private CacheSpec defaults = new CacheSpec();
+	private Map<String, CacheSpec> caches = new HashMap<>();
+
+	public CacheSpec getSpec(String cacheName) {
+		return caches.getOrDefault(cacheName, defaults);
+	}
+
+	@Getter
+	@Setter
+	public static class CacheSpec {
+		private int maxSize = 1000;
+		// A value is loaded again on get once it is older than the ttl.
+		private Duration ttl = Duration.ofMinutes(10);
+		// A value older than the refresh time is still served, and reloaded in background.
+		private Duration refreshAfter = Duration.ofMinutes(5);
+	}
+}
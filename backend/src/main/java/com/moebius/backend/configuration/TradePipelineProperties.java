@@ -0,0 +1,30 @@
+package com.moebius.backend.configuration;
+
+import com.moebius.backend.service.kafka.serializer.TradeDtoSerializer;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * Bounds of the trade processing pipeline fed by kafka.
+ * Max in-flight of a stage applies per rail, so the total in-flight of a stage is rails * max in-flight.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "moebius.trade.pipeline")
+public class TradePipelineProperties {
+	// Trades of the same symbol are always processed in order on the same rail.
+	private int rails = Schedulers.DEFAULT_POOL_SIZE;
+	// Records fetched ahead of processing, the kafka receiver is paused when they are not consumed.
+	private int prefetch = 64;
+	private int orderRequestMaxInFlight = 16;
+	// Trades of a symbol are not validated again by the same aggregated trade validator during the cooldown after an alert.
+	private Duration alertCooldown = Duration.ofMinutes(5);
+	// Format of produced trades, json or binary. Binary should be set only once every consumer of the topic reads it.
+	private String format = TradeDtoSerializer.JSON_FORMAT;
+	// Trades of a window are reduced per symbol, so that every stage runs once per symbol in a window.
+	private KafkaBatchProperties batch = new KafkaBatchProperties();
+}
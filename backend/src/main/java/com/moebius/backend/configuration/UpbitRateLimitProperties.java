@@ -0,0 +1,24 @@
+package com.moebius.backend.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Request limits of upbit exchange api per access key.
+ * Requests rejected with too many requests are retried with a jittered exponential backoff.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "exchange.upbit.rate-limit")
+public class UpbitRateLimitProperties {
+	private int orderRequestsPerSecond = 8;
+	private int defaultRequestsPerSecond = 30;
+	private int maxRetries = 3;
+	private Duration firstBackoff = Duration.ofMillis(100);
+	private Duration maxBackoff = Duration.ofSeconds(1);
+	// Ratio of a backoff which is randomly taken off, so that retries of concurrent requests are spread.
+	private double jitterFactor = 0.5;
+}
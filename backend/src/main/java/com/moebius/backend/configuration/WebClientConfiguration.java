@@ -1,25 +1,72 @@
 package com.moebius.backend.configuration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moebius.backend.service.trade.codec.AggregatedTradeHistoriesDecoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.ClientCodecConfigurer;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.socket.WebSocketSession;
 import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
 import org.springframework.web.reactive.socket.client.WebSocketClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+/**
+ * Web clients per destination, each of them with its own connection pool bounded by {@link HttpClientProperties}.
+ * The requests in flight of each client are exported next to its max connections, and the time to get a connection,
+ * either from the pool or by a new handshake, as the acquire timer.
+ */
+@Slf4j
 @Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties({UpbitRateLimitProperties.class, HttpClientProperties.class})
 public class WebClientConfiguration {
+	private static final String UPBIT = "upbit";
+	private static final String DATA_API = "data-api";
+	private static final String SLACK = "slack";
+
+	private final HttpClientProperties httpClientProperties;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, WebClient> webClients = new ConcurrentHashMap<>();
+
 	@Bean
-	public WebClient webClient() {
-		ClientHttpConnector connector = new ReactorClientHttpConnector();
+	public WebClient upbitWebClient() {
+		return buildWebClient(UPBIT);
+	}
 
-		return WebClient.builder().clientConnector(connector).build();
+	/**
+	 * Aggregated trade histories are decoded by a streaming decoder instead of the jackson builder deserializer.
+	 */
+	@Bean
+	public WebClient dataApiWebClient() {
+		return buildWebClient(DATA_API, codecs -> codecs.customCodecs().decoder(new AggregatedTradeHistoriesDecoder()));
+	}
+
+	@Bean
+	public WebClient slackWebClient() {
+		return buildWebClient(SLACK);
 	}
 
 	@Bean
@@ -36,4 +83,70 @@ public class WebClientConfiguration {
 	public ObjectMapper objectMapper() {
 		return new ObjectMapper();
 	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUpWebClients() {
+		webClients.forEach((clientName, webClient) -> {
+			HttpClientProperties.HttpClientSpec spec = httpClientProperties.getSpec(clientName);
+			if (StringUtils.isBlank(spec.getWarmUpUri()) || spec.getWarmUpConnections() <= 0) {
+				return;
+			}
+
+			Flux.range(0, spec.getWarmUpConnections())
+				.flatMap(index -> webClient.head()
+					.uri(spec.getWarmUpUri())
+					.exchange()
+					.flatMap(ClientResponse::releaseBody)
+					.onErrorResume(exception -> {
+						log.warn("[WebClient] Failed to warm up connection of {}.", clientName, exception);
+						return Mono.empty();
+					}))
+				.then()
+				.doOnSuccess(aVoid -> log.info("[WebClient] Connections of {} have been warmed up.", clientName))
+				.subscribe();
+		});
+	}
+
+	private WebClient buildWebClient(String clientName) {
+		return buildWebClient(clientName, codecs -> {
+		});
+	}
+
+	private WebClient buildWebClient(String clientName, Consumer<ClientCodecConfigurer> codecsConfigurer) {
+		HttpClientProperties.HttpClientSpec spec = httpClientProperties.getSpec(clientName);
+		AtomicInteger inFlightRequests = new AtomicInteger();
+		Timer acquireTimer = Timer.builder("http.client.pool.acquire")
+			.tag("client", clientName)
+			.register(meterRegistry);
+		Gauge.builder("http.client.requests.in-flight", inFlightRequests, AtomicInteger::get)
+			.tag("client", clientName)
+			.register(meterRegistry);
+		Gauge.builder("http.client.pool.max", spec, HttpClientProperties.HttpClientSpec::getMaxConnections)
+			.tag("client", clientName)
+			.register(meterRegistry);
+
+		HttpClient httpClient = HttpClient.create(ConnectionProvider.fixed(clientName, spec.getMaxConnections(), spec.getAcquireTimeout().toMillis()))
+			.keepAlive(spec.isKeepAlive())
+			.tcpConfiguration(tcpClient -> tcpClient
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) spec.getConnectTimeout().toMillis())
+				.option(ChannelOption.SO_KEEPALIVE, spec.isKeepAlive()))
+			.mapConnect((connection, bootstrap) -> Mono.defer(() -> {
+				long acquireStartTime = System.nanoTime();
+				return connection.doOnNext(acquiredConnection -> acquireTimer.record(System.nanoTime() - acquireStartTime, TimeUnit.NANOSECONDS));
+			}));
+
+		WebClient webClient = WebClient.builder()
+			.clientConnector(new ReactorClientHttpConnector(httpClient))
+			.codecs(codecsConfigurer)
+			.filter((request, next) -> Mono.defer(() -> {
+				inFlightRequests.incrementAndGet();
+				return next.exchange(request)
+					.timeout(spec.getResponseTimeout())
+					.doFinally(signalType -> inFlightRequests.decrementAndGet());
+			}))
+			.build();
+		webClients.put(clientName, webClient);
+
+		return webClient;
+	}
 }
@@ -8,7 +8,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface MarketRepository extends ReactiveMongoRepository<Market, ObjectId> {
+public interface MarketRepository extends ReactiveMongoRepository<Market, ObjectId>, MarketRepositoryCustom {
 	Flux<Market> findAllByExchange(Exchange exchange);
 
 	Mono<Market> findByExchangeAndSymbol(Exchange exchange, String symbol);
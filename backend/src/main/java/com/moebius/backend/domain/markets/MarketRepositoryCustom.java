@@ -0,0 +1,9 @@
+package com.moebius.backend.domain.markets;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface MarketRepositoryCustom {
+	Mono<Integer> updateAllMarketPrices(Collection<Market> markets);
+}
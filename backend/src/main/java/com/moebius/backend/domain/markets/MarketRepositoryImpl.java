@@ -0,0 +1,68 @@
+package com.moebius.backend.domain.markets;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class MarketRepositoryImpl implements MarketRepositoryCustom {
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	/**
+	 * Writes price fields of the markets with a single unordered bulk write of field-level updates,
+	 * so that the other fields of the market documents are never overwritten.
+	 * Markets are never created by the updates, a market deleted since its snapshot was updated stays deleted.
+	 */
+	@Override
+	public Mono<Integer> updateAllMarketPrices(Collection<Market> markets) {
+		if (markets.isEmpty()) {
+			return Mono.just(0);
+		}
+
+		List<UpdateOneModel<Document>> priceUpdates = markets.stream()
+			.map(this::getPriceUpdate)
+			.collect(Collectors.toList());
+
+		return Mono.from(mongoTemplate.getCollection(mongoTemplate.getCollectionName(Market.class))
+			.bulkWrite(priceUpdates, new BulkWriteOptions().ordered(false)))
+			.map(BulkWriteResult::getModifiedCount);
+	}
+
+	private UpdateOneModel<Document> getPriceUpdate(Market market) {
+		return new UpdateOneModel<>(
+			Filters.and(
+				Filters.eq("exchange", market.getExchange().name()),
+				Filters.eq("symbol", market.getSymbol())),
+			Updates.combine(
+				Updates.set("currentPrice", market.getCurrentPrice()),
+				Updates.set("changeRate", market.getChangeRate()),
+				Updates.set("accumulatedTradePrice", market.getAccumulatedTradePrice()),
+				Updates.set("accumulatedTradeVolume", market.getAccumulatedTradeVolume()),
+				Updates.set("updatedAt", toDate(market.getUpdatedAt()))),
+			new UpdateOptions().upsert(false));
+	}
+
+	private Date toDate(LocalDateTime localDateTime) {
+		LocalDateTime dateTime = localDateTime == null ? LocalDateTime.now() : localDateTime;
+
+		return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+	}
+}
@@ -34,4 +34,7 @@ public class Order extends Base {
     private double price;
     private double volume;
     private int level;
+    // Token of the claim which has moved the order to IN_PROGRESS, so that the claimed orders can be read back at once.
+    @Indexed(sparse = true)
+    private ObjectId claimToken;
 }
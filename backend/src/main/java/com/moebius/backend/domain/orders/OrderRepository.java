@@ -11,5 +11,7 @@ public interface OrderRepository extends ReactiveMongoRepository<Order, ObjectId
 
 	Flux<Order> findAllByApiKeyIdAndOrderStatusNot(ObjectId apiKeyId, OrderStatus orderStatus);
 
+	Flux<Order> findAllByOrderStatus(OrderStatus orderStatus);
+
 	Mono<Long> countBySymbolAndExchangeAndOrderStatus(String symbol, Exchange exchange, OrderStatus orderStatus);
 }
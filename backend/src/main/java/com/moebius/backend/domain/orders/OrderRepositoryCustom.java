@@ -5,9 +5,18 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface OrderRepositoryCustom {
-	Flux<Order> findAndUpdateAllByAskCondition(Exchange exchange, String symbol, OrderPosition orderPosition, double price);
+	Flux<Order> findAllByOrderStatusCondition(OrderStatusCondition orderStatusCondition);
 
-	Flux<Order> findAndUpdateAllByBidCondition(Exchange exchange, String symbol, OrderPosition orderPosition, double price);
+	Flux<Order> findAllByOrderStatusFromPrimary(OrderStatus orderStatus);
 
-	Flux<Order> findAllByOrderStatusCondition(OrderStatusCondition orderStatusCondition);
+	/**
+	 * Moves the READY orders of the position triggered by the price to IN_PROGRESS,
+	 * and returns the orders which have been claimed by this call.
+	 */
+	Flux<Order> claimTriggeredOrders(Exchange exchange, String symbol, OrderPosition orderPosition, double price);
+
+	/**
+	 * Moves an order claimed by {@link #claimTriggeredOrders} to the given status, and returns whether it has been moved.
+	 */
+	Mono<Boolean> releaseClaimedOrder(Order order, OrderStatus orderStatus);
 }
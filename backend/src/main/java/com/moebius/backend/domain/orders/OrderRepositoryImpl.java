@@ -1,8 +1,15 @@
 package com.moebius.backend.domain.orders;
 
 import com.moebius.backend.domain.commons.Exchange;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import com.mongodb.reactivestreams.client.MongoCollection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
@@ -10,7 +17,7 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
+import java.util.Date;
 
 @Slf4j
 @Repository
@@ -19,41 +26,87 @@ public class OrderRepositoryImpl implements OrderRepositoryCustom {
 	private final ReactiveMongoTemplate mongoTemplate;
 
 	@Override
-	public Flux<Order> findAndUpdateAllByAskCondition(Exchange exchange, String symbol, OrderPosition orderPosition, double price) {
-		Query query = new Query(Criteria.where("price").lte(price)
-			.and("symbol").is(symbol)
-			.and("orderPosition").is(orderPosition)
-			.and("orderStatus").is(OrderStatus.IN_PROGRESS)
-			.and("exchange").is(exchange));
+	public Flux<Order> findAllByOrderStatusCondition(OrderStatusCondition orderStatusCondition) {
+		Query query = new Query(Criteria.where("symbol").is(orderStatusCondition.getSymbol())
+			.and("exchange").is(orderStatusCondition.getExchange())
+			.and("orderStatus").is(orderStatusCondition.getOrderStatus()));
 
-		return mongoTemplate.find(query, Order.class)
-			.flatMap(this::updateOrderStatusToDone);
+		return mongoTemplate.find(query, Order.class);
 	}
 
+	/**
+	 * Mongo decides which orders are triggered, the READY orders matching the trigger condition are moved to IN_PROGRESS
+	 * by a single conditional update tagged with a claim token, and read back by the token.
+	 * The condition is checked per order by the update, so an order is claimed only once however many trades
+	 * or instances trigger it concurrently, and the claim costs two round trips whatever the number of orders.
+	 */
 	@Override
-	public Flux<Order> findAndUpdateAllByBidCondition(Exchange exchange, String symbol, OrderPosition orderPosition, double price) {
-		Query query = new Query(Criteria.where("price").gte(price)
-			.and("symbol").is(symbol)
-			.and("orderPosition").is(orderPosition)
-			.and("orderStatus").is(OrderStatus.IN_PROGRESS)
-			.and("exchange").is(exchange));
+	public Flux<Order> claimTriggeredOrders(Exchange exchange, String symbol, OrderPosition orderPosition, double price) {
+		ObjectId claimToken = ObjectId.get();
+		Bson claim = Updates.combine(
+			Updates.set("orderStatus", OrderStatus.IN_PROGRESS.name()),
+			Updates.set("claimToken", claimToken),
+			Updates.set("updatedAt", new Date()));
 
-		return mongoTemplate.find(query, Order.class)
-			.flatMap(this::updateOrderStatusToDone);
+		return Mono.from(getOrderCollection().updateMany(getTriggerFilter(exchange, symbol, orderPosition, price), claim))
+			.filter(updateResult -> updateResult.getModifiedCount() > 0)
+			.flatMapMany(updateResult -> findClaimedOrders(claimToken));
 	}
 
+	/**
+	 * The order is moved only if it is still IN_PROGRESS by the claim which has returned it,
+	 * so an order which has been claimed again, polled or changed since is left as it is.
+	 */
 	@Override
-	public Flux<Order> findAllByOrderStatusCondition(OrderStatusCondition orderStatusCondition) {
-		Query query = new Query(Criteria.where("symbol").is(orderStatusCondition.getSymbol())
-			.and("exchange").is(orderStatusCondition.getExchange())
-			.and("orderStatus").is(orderStatusCondition.getOrderStatus()));
+	public Mono<Boolean> releaseClaimedOrder(Order order, OrderStatus orderStatus) {
+		Bson release = Updates.combine(
+			Updates.set("orderStatus", orderStatus.name()),
+			Updates.unset("claimToken"),
+			Updates.set("updatedAt", new Date()));
 
-		return mongoTemplate.find(query, Order.class);
+		return Mono.from(getOrderCollection().updateOne(Filters.and(
+			Filters.eq("_id", order.getId()),
+			Filters.eq("orderStatus", OrderStatus.IN_PROGRESS.name()),
+			Filters.eq("claimToken", order.getClaimToken())), release))
+			.map(updateResult -> updateResult.getModifiedCount() > 0);
+	}
+
+	/**
+	 * Bid side orders (PURCHASE, STOPLOSS) are triggered by trades at or below their price,
+	 * ask side orders (SALE) by trades at or above their price, the same as {@link com.moebius.backend.service.order.book.OrderBook}.
+	 */
+	static Bson getTriggerFilter(Exchange exchange, String symbol, OrderPosition orderPosition, double price) {
+		return Filters.and(
+			Filters.eq("symbol", symbol),
+			Filters.eq("exchange", exchange.name()),
+			Filters.eq("orderPosition", orderPosition.name()),
+			Filters.eq("orderStatus", OrderStatus.READY.name()),
+			orderPosition == OrderPosition.SALE ? Filters.lte("price", price) : Filters.gte("price", price));
+	}
+
+	/**
+	 * Orders are read from the primary, because a secondary might not have replicated the orders just created or claimed yet.
+	 */
+	@Override
+	public Flux<Order> findAllByOrderStatusFromPrimary(OrderStatus orderStatus) {
+		return findFromPrimary(Filters.eq("orderStatus", orderStatus.name()));
+	}
+
+	/**
+	 * Claimed orders are read from the primary, because a secondary might not have replicated the claim yet.
+	 */
+	private Flux<Order> findClaimedOrders(ObjectId claimToken) {
+		return findFromPrimary(Filters.eq("claimToken", claimToken));
+	}
+
+	private Flux<Order> findFromPrimary(Bson filter) {
+		return Flux.from(getOrderCollection()
+			.withReadPreference(ReadPreference.primary())
+			.find(filter))
+			.map(document -> mongoTemplate.getConverter().read(Order.class, document));
 	}
 
-	private Mono<Order> updateOrderStatusToDone(Order order) {
-		order.setOrderStatus(OrderStatus.DONE);
-		order.setUpdatedAt(LocalDateTime.now());
-		return mongoTemplate.save(order);
+	private MongoCollection<Document> getOrderCollection() {
+		return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Order.class));
 	}
 }
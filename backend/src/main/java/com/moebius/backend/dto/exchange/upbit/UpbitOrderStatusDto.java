@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
 import lombok.*;
+import org.springframework.lang.Nullable;
 
 @Getter
 @Builder(builderClassName = "UpbitOrderStatusDtoBuilder", toBuilder = true)
@@ -11,6 +12,8 @@ import lombok.*;
 @JsonDeserialize(builder = UpbitOrderStatusDto.UpbitOrderStatusDtoBuilder.class)
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class UpbitOrderStatusDto {
+	@Nullable
+	private String identifier;
 	private String state;
 
 	@JsonPOJOBuilder(withPrefix = "")
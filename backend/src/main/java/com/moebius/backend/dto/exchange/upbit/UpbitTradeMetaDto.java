@@ -13,6 +13,8 @@ import lombok.ToString;
 @JsonDeserialize(builder = UpbitTradeMetaDto.UpbitTradeMetaDtoBuilder.class)
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class UpbitTradeMetaDto {
+	@JsonProperty("code")
+	private String code;
 	@JsonProperty("accTradePrice")
 	private double accumulatedTradePrice;
 	@JsonProperty("accTradeVolume")
@@ -0,0 +1,62 @@
+package com.moebius.backend.dto.trade;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Trades of a symbol in a window of the batched consumption, reduced to the trades of the extreme and the last prices.
+ * The trades are kept in the traded order, so that they are aggregated by their own time even if the window spans minutes of trades.
+ */
+@Getter
+@ToString(exclude = "trades")
+public class ConflatedTradeDto {
+	private final List<TradeDto> trades = new ArrayList<>();
+	private TradeDto lowestTrade;
+	private TradeDto highestTrade;
+	private TradeDto lastTrade;
+	// Trade of the largest amount, price * volume.
+	private TradeDto largestTrade;
+	private int lowestTradeIndex;
+	private int highestTradeIndex;
+
+	public void add(TradeDto tradeDto) {
+		int tradeIndex = trades.size();
+		if (lowestTrade == null || tradeDto.getPrice() < lowestTrade.getPrice()) {
+			lowestTrade = tradeDto;
+			lowestTradeIndex = tradeIndex;
+		}
+		if (highestTrade == null || tradeDto.getPrice() > highestTrade.getPrice()) {
+			highestTrade = tradeDto;
+			highestTradeIndex = tradeIndex;
+		}
+		if (largestTrade == null || getAmount(tradeDto) > getAmount(largestTrade)) {
+			largestTrade = tradeDto;
+		}
+		lastTrade = tradeDto;
+		trades.add(tradeDto);
+	}
+
+	public int getTradeCount() {
+		return trades.size();
+	}
+
+	/**
+	 * Trades of the lowest and the highest prices in the traded order, a single trade if the price has not changed.
+	 */
+	public List<TradeDto> getExtremeTrades() {
+		if (lowestTrade == highestTrade) {
+			return Collections.singletonList(lowestTrade);
+		}
+
+		return lowestTradeIndex < highestTradeIndex ? Arrays.asList(lowestTrade, highestTrade) : Arrays.asList(highestTrade, lowestTrade);
+	}
+
+	private double getAmount(TradeDto tradeDto) {
+		return tradeDto.getPrice() * tradeDto.getVolume();
+	}
+}
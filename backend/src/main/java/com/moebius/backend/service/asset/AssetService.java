@@ -16,8 +16,6 @@ import reactor.core.publisher.Mono;
 import java.util.List;
 import java.util.Map;
 
-import static com.moebius.backend.utils.ThreadScheduler.COMPUTE;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -28,14 +26,12 @@ public class AssetService {
 
 	public Mono<ResponseEntity<AssetResponseDto>> getAssetResponse(String memberId, Exchange exchange) {
 		return getAssets(memberId, exchange)
-			.subscribeOn(COMPUTE.scheduler())
 			.map(assetAssembler::assembleResponse)
 			.map(ResponseEntity::ok);
 	}
 
 	public Mono<Map<String, AssetDto>> getCurrencyAssetMap(String memberId, Exchange exchange) {
 		return getAssets(memberId, exchange)
-			.subscribeOn(COMPUTE.scheduler())
 			.map(assetAssembler::assembleCurrencyAssets);
 	}
 
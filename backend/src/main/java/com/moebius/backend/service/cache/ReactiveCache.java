@@ -0,0 +1,187 @@
+package com.moebius.backend.service.cache;
+
+import com.moebius.backend.configuration.ReactiveCacheProperties;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of values resolved by a reactive loader.
+ *
+ * Only loaded values are cached, so errors and empty results are loaded again on the next get.
+ * Concurrent gets of the same key share a single load, a value older than the refresh time is served while it is reloaded in background,
+ * and a value older than the ttl is not served at all. Least recently used values are evicted over the max size.
+ * A load which has started before an eviction or a clear does not cache its value, so an evicted value is never put back.
+ */
+@Slf4j
+public class ReactiveCache<K, V> {
+	@Getter
+	private final String name;
+	private final Function<K, Mono<V>> loader;
+	private final Scheduler scheduler;
+	private final long ttl;
+	private final long refreshAfter;
+	private final Map<K, CachedValue<V>> cachedValues;
+	private final Map<K, Mono<V>> inFlightLoads = new ConcurrentHashMap<>();
+	// Incremented by every eviction and clear, guarded by the lock of the cached values.
+	private long invalidationCount;
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder loadSuccessCount = new LongAdder();
+	private final LongAdder loadFailureCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+
+	ReactiveCache(String name, ReactiveCacheProperties.CacheSpec cacheSpec, Function<K, Mono<V>> loader, Scheduler scheduler) {
+		this.name = name;
+		this.loader = loader;
+		this.scheduler = scheduler;
+		this.ttl = cacheSpec.getTtl().toMillis();
+		this.refreshAfter = cacheSpec.getRefreshAfter().toMillis();
+
+		int maxSize = cacheSpec.getMaxSize();
+		this.cachedValues = Collections.synchronizedMap(new LinkedHashMap<K, CachedValue<V>>(16, 0.75F, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+				if (size() > maxSize) {
+					evictionCount.increment();
+					return true;
+				}
+				return false;
+			}
+		});
+	}
+
+	public Mono<V> get(K key) {
+		long now = scheduler.now(TimeUnit.MILLISECONDS);
+		CachedValue<V> cachedValue = cachedValues.get(key);
+		if (cachedValue != null && now - cachedValue.getLoadedTime() < ttl) {
+			hitCount.increment();
+			if (now - cachedValue.getLoadedTime() >= refreshAfter) {
+				refresh(key);
+			}
+			return Mono.just(cachedValue.getValue());
+		}
+
+		missCount.increment();
+		return load(key);
+	}
+
+	/**
+	 * Gets the cached value without loading it, so that the caller can load the missing values at once.
+	 *
+	 * @return null if the value is not cached or older than the ttl
+	 */
+	public V getIfPresent(K key) {
+		CachedValue<V> cachedValue = cachedValues.get(key);
+		if (cachedValue != null && scheduler.now(TimeUnit.MILLISECONDS) - cachedValue.getLoadedTime() < ttl) {
+			hitCount.increment();
+			return cachedValue.getValue();
+		}
+
+		missCount.increment();
+		return null;
+	}
+
+	public void put(K key, V value) {
+		cachedValues.put(key, new CachedValue<>(value, scheduler.now(TimeUnit.MILLISECONDS)));
+	}
+
+	public void evict(K key) {
+		synchronized (cachedValues) {
+			invalidationCount++;
+			cachedValues.remove(key);
+		}
+	}
+
+	public void clear() {
+		synchronized (cachedValues) {
+			invalidationCount++;
+			cachedValues.clear();
+		}
+	}
+
+	public int size() {
+		return cachedValues.size();
+	}
+
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	public long getLoadSuccessCount() {
+		return loadSuccessCount.sum();
+	}
+
+	public long getLoadFailureCount() {
+		return loadFailureCount.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
+	private void refresh(K key) {
+		if (inFlightLoads.containsKey(key)) {
+			return;
+		}
+
+		load(key).subscribe(
+			value -> log.debug("[Cache] Refreshed {} of {}.", key, name),
+			exception -> log.warn("[Cache] Failed to refresh {} of {}.", key, name, exception));
+	}
+
+	private Mono<V> load(K key) {
+		return inFlightLoads.computeIfAbsent(key, loadKey -> createLoad(loadKey, getInvalidationCount()));
+	}
+
+	private Mono<V> createLoad(K key, long loadInvalidationCount) {
+		return Mono.defer(() -> loader.apply(key))
+			.doOnNext(value -> putIfNotInvalidated(key, value, loadInvalidationCount))
+			.doOnSuccess(value -> {
+				if (value != null) {
+					loadSuccessCount.increment();
+				} else {
+					loadFailureCount.increment();
+				}
+			})
+			.doOnError(exception -> loadFailureCount.increment())
+			.doFinally(signalType -> inFlightLoads.remove(key))
+			.cache();
+	}
+
+	private long getInvalidationCount() {
+		synchronized (cachedValues) {
+			return invalidationCount;
+		}
+	}
+
+	private void putIfNotInvalidated(K key, V value, long loadInvalidationCount) {
+		synchronized (cachedValues) {
+			if (invalidationCount == loadInvalidationCount) {
+				put(key, value);
+			}
+		}
+	}
+
+	@Getter
+	@RequiredArgsConstructor
+	private static class CachedValue<V> {
+		private final V value;
+		private final long loadedTime;
+	}
+}
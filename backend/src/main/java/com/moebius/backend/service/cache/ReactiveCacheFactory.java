@@ -0,0 +1,51 @@
+package com.moebius.backend.service.cache;
+
+import com.moebius.backend.configuration.ReactiveCacheProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Creates reactive caches bounded by {@link ReactiveCacheProperties}.
+ * Statistics of every cache are exported with the same meter names as the cache metrics of spring boot actuator.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReactiveCacheFactory {
+	private final ReactiveCacheProperties reactiveCacheProperties;
+	private final MeterRegistry meterRegistry;
+
+	public <K, V> ReactiveCache<K, V> createCache(String name, Function<K, Mono<V>> loader) {
+		ReactiveCache<K, V> cache = new ReactiveCache<>(name, reactiveCacheProperties.getSpec(name), loader, Schedulers.parallel());
+		bindMetrics(cache);
+		return cache;
+	}
+
+	private void bindMetrics(ReactiveCache<?, ?> cache) {
+		registerCounter(cache, "cache.gets", "hit", ReactiveCache::getHitCount);
+		registerCounter(cache, "cache.gets", "miss", ReactiveCache::getMissCount);
+		registerCounter(cache, "cache.load", "success", ReactiveCache::getLoadSuccessCount);
+		registerCounter(cache, "cache.load", "failure", ReactiveCache::getLoadFailureCount);
+
+		FunctionCounter.builder("cache.evictions", cache, ReactiveCache::getEvictionCount)
+			.tag("cache", cache.getName())
+			.register(meterRegistry);
+		Gauge.builder("cache.size", cache, ReactiveCache::size)
+			.tag("cache", cache.getName())
+			.register(meterRegistry);
+	}
+
+	private void registerCounter(ReactiveCache<?, ?> cache, String meterName, String result, ToDoubleFunction<ReactiveCache<?, ?>> count) {
+		FunctionCounter.builder(meterName, cache, count)
+			.tag("cache", cache.getName())
+			.tag("result", result)
+			.register(meterRegistry);
+	}
+}
@@ -5,10 +5,13 @@ import com.moebius.backend.domain.commons.Exchange;
 import com.moebius.backend.domain.orders.Order;
 import com.moebius.backend.dto.order.OrderStatusDto;
 import com.moebius.backend.dto.exchange.AssetDto;
+import org.bson.types.ObjectId;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface ExchangeService {
 	Exchange getExchange();
 
@@ -23,4 +26,14 @@ public interface ExchangeService {
 	Mono<ClientResponse> cancelOrder(ApiKey apiKey, String orderId);
 
 	Mono<OrderStatusDto> getCurrentOrderStatus(ApiKey apiKey, String orderId);
+
+	/**
+	 * Returns the statuses of only the finished orders among the order ids, in as few requests as the exchange allows.
+	 */
+	Flux<OrderStatusDto> getDoneOrderStatuses(ApiKey apiKey, List<String> orderIds);
+
+	/**
+	 * Evicts everything kept for the api key, called when the api key is deleted.
+	 */
+	void evictApiKey(ObjectId apiKeyId);
 }
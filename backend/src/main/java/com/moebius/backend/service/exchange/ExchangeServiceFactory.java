@@ -3,6 +3,7 @@ package com.moebius.backend.service.exchange;
 import com.moebius.backend.domain.commons.Exchange;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -20,4 +21,8 @@ public class ExchangeServiceFactory {
 	public ExchangeService getService(Exchange exchange) {
 		return exchangeServiceMap.get(exchange);
 	}
+
+	public Collection<ExchangeService> getServices() {
+		return exchangeServiceMap.values();
+	}
 }
@@ -0,0 +1,34 @@
+package com.moebius.backend.service.exchange;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+
+/**
+ * Hashes query strings of upbit requests into lower case hex.
+ * It reuses its digest and buffers, so an instance must be confined to a single thread.
+ */
+final class UpbitQueryHasher {
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final MessageDigest messageDigest;
+	private final byte[] digestBuffer;
+	private final char[] hexBuffer;
+
+	UpbitQueryHasher(MessageDigest messageDigest) {
+		this.messageDigest = messageDigest;
+		this.digestBuffer = new byte[messageDigest.getDigestLength()];
+		this.hexBuffer = new char[digestBuffer.length * 2];
+	}
+
+	String hash(byte[] query) throws DigestException {
+		messageDigest.reset();
+		messageDigest.update(query);
+		messageDigest.digest(digestBuffer, 0, digestBuffer.length);
+
+		for (int index = 0; index < digestBuffer.length; index++) {
+			hexBuffer[index * 2] = HEX_DIGITS[(digestBuffer[index] >> 4) & 0x0f];
+			hexBuffer[index * 2 + 1] = HEX_DIGITS[digestBuffer[index] & 0x0f];
+		}
+		return new String(hexBuffer);
+	}
+}
@@ -0,0 +1,142 @@
+package com.moebius.backend.service.exchange;
+
+import com.moebius.backend.configuration.UpbitRateLimitProperties;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Governs upbit exchange api requests per access key and request group.
+ * Order requests have a group of their own, so that they never wait behind other requests,
+ * the other requests share the default group in the priority of their request types.
+ * Buckets follow the Remaining-Req header of responses, and requests rejected with too many requests are retried.
+ */
+@Slf4j
+@Component
+public class UpbitRateLimiter {
+	private static final String REMAINING_REQUESTS_HEADER = "Remaining-Req";
+
+	private final UpbitRateLimitProperties upbitRateLimitProperties;
+	private final Scheduler scheduler;
+	private final Map<BucketKey, UpbitRequestBucket> buckets = new ConcurrentHashMap<>();
+
+	@Autowired
+	public UpbitRateLimiter(UpbitRateLimitProperties upbitRateLimitProperties) {
+		this(upbitRateLimitProperties, Schedulers.parallel());
+	}
+
+	UpbitRateLimiter(UpbitRateLimitProperties upbitRateLimitProperties, Scheduler scheduler) {
+		this.upbitRateLimitProperties = upbitRateLimitProperties;
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * The request is subscribed again on every retry, so it should sign itself with a new nonce.
+	 */
+	Mono<ClientResponse> limit(String accessKey, UpbitRequestType requestType, Supplier<Mono<ClientResponse>> request) {
+		return Mono.defer(() -> getBucket(accessKey, requestType.getGroup()).acquire(requestType))
+			.then(Mono.defer(request))
+			.doOnNext(clientResponse -> syncRemainingRequests(accessKey, clientResponse))
+			.flatMap(clientResponse -> rejectIfTooManyRequests(accessKey, requestType, clientResponse))
+			.retryWhen(exceptions -> exceptions.index()
+				.concatMap(indexedException -> retryIfTooManyRequests(requestType, indexedException.getT2(), indexedException.getT1())));
+	}
+
+	@Scheduled(fixedDelay = 60 * 1000, initialDelay = 60 * 1000)
+	public void evictIdleBuckets() {
+		buckets.values().removeIf(UpbitRequestBucket::isIdle);
+	}
+
+	private Mono<ClientResponse> rejectIfTooManyRequests(String accessKey, UpbitRequestType requestType, ClientResponse clientResponse) {
+		if (clientResponse.rawStatusCode() != 429) {
+			return Mono.just(clientResponse);
+		}
+
+		getBucket(accessKey, requestType.getGroup()).syncRemainingRequests(0);
+		return clientResponse.createException().flatMap(Mono::error);
+	}
+
+	private Mono<Long> retryIfTooManyRequests(UpbitRequestType requestType, Throwable exception, long retries) {
+		if (!(exception instanceof WebClientResponseException.TooManyRequests) || retries >= upbitRateLimitProperties.getMaxRetries()) {
+			return Mono.error(exception);
+		}
+
+		Duration backoff = getBackoff(retries);
+		log.warn("[Upbit] Too many requests, retry after {}ms. [requestType : {}, retries : {}]", backoff.toMillis(), requestType, retries);
+		return Mono.delay(backoff, scheduler);
+	}
+
+	private Duration getBackoff(long retries) {
+		long backoff = Math.min(upbitRateLimitProperties.getFirstBackoff().toMillis() << Math.min(retries, 30),
+			upbitRateLimitProperties.getMaxBackoff().toMillis());
+		double jitter = ThreadLocalRandom.current().nextDouble() * upbitRateLimitProperties.getJitterFactor();
+
+		return Duration.ofMillis((long) (backoff * (1 - jitter)));
+	}
+
+	/**
+	 * The header looks like "group=default; min=1799; sec=29", no request is left when either of min and sec is 0.
+	 */
+	private void syncRemainingRequests(String accessKey, ClientResponse clientResponse) {
+		String remainingRequests = clientResponse.headers().asHttpHeaders().getFirst(REMAINING_REQUESTS_HEADER);
+		if (StringUtils.isBlank(remainingRequests)) {
+			return;
+		}
+
+		UpbitRequestGroup requestGroup = null;
+		int remainingPerSecond = -1;
+		boolean minuteExhausted = false;
+		for (String field : StringUtils.split(remainingRequests, ';')) {
+			String name = StringUtils.substringBefore(field, "=").trim();
+			String value = StringUtils.substringAfter(field, "=").trim();
+
+			if ("group".equals(name)) {
+				requestGroup = UpbitRequestGroup.getBy(value);
+			} else if ("sec".equals(name)) {
+				remainingPerSecond = NumberUtils.toInt(value, -1);
+			} else if ("min".equals(name)) {
+				minuteExhausted = NumberUtils.toInt(value, -1) == 0;
+			}
+		}
+
+		if (requestGroup == null || remainingPerSecond < 0) {
+			return;
+		}
+		getBucket(accessKey, requestGroup).syncRemainingRequests(minuteExhausted ? 0 : remainingPerSecond);
+	}
+
+	private UpbitRequestBucket getBucket(String accessKey, UpbitRequestGroup requestGroup) {
+		return buckets.computeIfAbsent(new BucketKey(accessKey, requestGroup),
+			key -> new UpbitRequestBucket(getRequestsPerSecond(requestGroup), scheduler));
+	}
+
+	private int getRequestsPerSecond(UpbitRequestGroup requestGroup) {
+		if (requestGroup == UpbitRequestGroup.ORDER) {
+			return upbitRateLimitProperties.getOrderRequestsPerSecond();
+		}
+		return upbitRateLimitProperties.getDefaultRequestsPerSecond();
+	}
+
+	@EqualsAndHashCode
+	@RequiredArgsConstructor
+	private static class BucketKey {
+		private final String accessKey;
+		private final UpbitRequestGroup requestGroup;
+	}
+}
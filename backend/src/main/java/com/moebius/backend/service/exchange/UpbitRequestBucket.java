@@ -0,0 +1,156 @@
+package com.moebius.backend.service.exchange;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket of an upbit request group of an access key, refilled continuously up to the requests allowed per second.
+ * Requests which cannot take a token wait in the order of their type and arrival,
+ * and are released by a drain scheduled for when the first of them can take a token.
+ */
+class UpbitRequestBucket {
+	private final double capacity;
+	private final double tokensPerMillisecond;
+	private final Scheduler scheduler;
+	private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+	private double tokens;
+	private long refilledAt;
+	private long sequence;
+	private long drainAt = Long.MAX_VALUE;
+
+	UpbitRequestBucket(int requestsPerSecond, Scheduler scheduler) {
+		this.capacity = requestsPerSecond;
+		this.tokensPerMillisecond = requestsPerSecond / 1000D;
+		this.scheduler = scheduler;
+		this.tokens = capacity;
+		this.refilledAt = now();
+	}
+
+	Mono<Void> acquire(UpbitRequestType requestType) {
+		return Mono.create(sink -> {
+			Waiter waiter = new Waiter(requestType, sink);
+			sink.onCancel(() -> waiter.cancelled = true);
+
+			boolean acquired;
+			synchronized (this) {
+				refill();
+				acquired = waiters.isEmpty() && tryTake(requestType);
+				if (!acquired) {
+					waiter.sequence = sequence++;
+					waiters.offer(waiter);
+				}
+			}
+
+			if (acquired) {
+				sink.success();
+			} else {
+				scheduleDrain();
+			}
+		});
+	}
+
+	/**
+	 * Lowers the tokens to the requests which upbit reports to be remaining, it never raises them.
+	 */
+	synchronized void syncRemainingRequests(int remainingRequests) {
+		refill();
+		tokens = Math.min(tokens, remainingRequests);
+	}
+
+	synchronized boolean isIdle() {
+		refill();
+		return waiters.isEmpty() && tokens >= capacity;
+	}
+
+	private void drain() {
+		List<MonoSink<Void>> releasedSinks = new ArrayList<>();
+
+		synchronized (this) {
+			drainAt = Long.MAX_VALUE;
+			refill();
+
+			Waiter waiter;
+			while ((waiter = peekWaiter()) != null && tryTake(waiter.requestType)) {
+				waiters.poll();
+				releasedSinks.add(waiter.sink);
+			}
+		}
+
+		releasedSinks.forEach(MonoSink::success);
+		scheduleDrain();
+	}
+
+	private void scheduleDrain() {
+		long delay;
+
+		synchronized (this) {
+			Waiter waiter = peekWaiter();
+			if (waiter == null) {
+				return;
+			}
+
+			double missingTokens = 1 + getReservedTokens(waiter.requestType) - tokens;
+			delay = missingTokens <= 0 ? 0 : (long) Math.ceil(missingTokens / tokensPerMillisecond);
+			long scheduledAt = now() + delay;
+			if (scheduledAt >= drainAt) {
+				return;
+			}
+			drainAt = scheduledAt;
+		}
+
+		scheduler.schedule(this::drain, delay, TimeUnit.MILLISECONDS);
+	}
+
+	private Waiter peekWaiter() {
+		while (!waiters.isEmpty() && waiters.peek().cancelled) {
+			waiters.poll();
+		}
+		return waiters.peek();
+	}
+
+	private boolean tryTake(UpbitRequestType requestType) {
+		if (tokens < 1 + getReservedTokens(requestType)) {
+			return false;
+		}
+		tokens--;
+		return true;
+	}
+
+	private double getReservedTokens(UpbitRequestType requestType) {
+		return Math.min(requestType.getReservedRatio() * capacity, capacity - 1);
+	}
+
+	private void refill() {
+		long now = now();
+		tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerMillisecond);
+		refilledAt = now;
+	}
+
+	private long now() {
+		return scheduler.now(TimeUnit.MILLISECONDS);
+	}
+
+	private static class Waiter implements Comparable<Waiter> {
+		private final UpbitRequestType requestType;
+		private final MonoSink<Void> sink;
+		private long sequence;
+		private volatile boolean cancelled;
+
+		private Waiter(UpbitRequestType requestType, MonoSink<Void> sink) {
+			this.requestType = requestType;
+			this.sink = sink;
+		}
+
+		@Override
+		public int compareTo(Waiter waiter) {
+			int comparison = requestType.compareTo(waiter.requestType);
+			return comparison != 0 ? comparison : Long.compare(sequence, waiter.sequence);
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.moebius.backend.service.exchange;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * Groups of upbit exchange api sharing a request limit, named as in the Remaining-Req header.
+ */
+@Getter
+@RequiredArgsConstructor
+enum UpbitRequestGroup {
+	ORDER("order"),
+	DEFAULT("default");
+
+	private final String headerName;
+
+	static UpbitRequestGroup getBy(String headerName) {
+		return Arrays.stream(values())
+			.filter(group -> group.headerName.equals(headerName))
+			.findFirst()
+			.orElse(null);
+	}
+}
@@ -0,0 +1,21 @@
+package com.moebius.backend.service.exchange;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Lanes of upbit requests in the order of priority.
+ * A lower priority request leaves the reserved ratio of its group's bucket to higher priority requests,
+ * so that bursts of status polls or asset reads cannot use up the requests allowed for cancels.
+ */
+@Getter
+@RequiredArgsConstructor
+enum UpbitRequestType {
+	ORDER(UpbitRequestGroup.ORDER, 0D),
+	CANCEL(UpbitRequestGroup.DEFAULT, 0D),
+	STATUS(UpbitRequestGroup.DEFAULT, 0.2D),
+	ASSET(UpbitRequestGroup.DEFAULT, 0.4D);
+
+	private final UpbitRequestGroup group;
+	private final double reservedRatio;
+}
@@ -2,6 +2,7 @@ package com.moebius.backend.service.exchange;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.moebius.backend.assembler.exchange.UpbitAssembler;
 import com.moebius.backend.domain.apikeys.ApiKey;
 import com.moebius.backend.domain.commons.Exchange;
@@ -13,11 +14,14 @@ import com.moebius.backend.dto.exchange.upbit.UpbitTradeMetaDto;
 import com.moebius.backend.dto.order.OrderStatusDto;
 import com.moebius.backend.exception.ExceptionTypes;
 import com.moebius.backend.exception.WrongDataException;
+import com.moebius.backend.service.cache.ReactiveCache;
+import com.moebius.backend.service.cache.ReactiveCacheFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
@@ -27,17 +31,23 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.UnsupportedEncodingException;
-import java.math.BigInteger;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.moebius.backend.utils.ThreadScheduler.COMPUTE;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UpbitService implements ExchangeService {
+	private static final String TRADE_META_CACHE = "upbitTradeMeta";
+	private static final String CRIX_CODE_PREFIX = "CRIX.UPBIT.";
+
 	@Value("${exchange.upbit.rest.public-uri}")
 	private String publicUri;
 	@Value("${exchange.upbit.rest.secret-uri}")
@@ -59,6 +69,18 @@ public class UpbitService implements ExchangeService {
 
 	private final WebClient webClient;
 	private final UpbitAssembler upbitAssembler;
+	private final UpbitRateLimiter upbitRateLimiter;
+	private final Map<ObjectId, SigningKey> signingKeys = new ConcurrentHashMap<>();
+	private final ThreadLocal<UpbitQueryHasher> queryHashers = new ThreadLocal<>();
+	private final ReactiveCache<String, UpbitTradeMetaDto> tradeMetas;
+
+	public UpbitService(@Qualifier("upbitWebClient") WebClient webClient, UpbitAssembler upbitAssembler, UpbitRateLimiter upbitRateLimiter,
+		ReactiveCacheFactory reactiveCacheFactory) {
+		this.webClient = webClient;
+		this.upbitAssembler = upbitAssembler;
+		this.upbitRateLimiter = upbitRateLimiter;
+		this.tradeMetas = reactiveCacheFactory.createCache(TRADE_META_CACHE, this::requestTradeMeta);
+	}
 
 	@Override
 	public Exchange getExchange() {
@@ -80,21 +102,21 @@ public class UpbitService implements ExchangeService {
 
 	@Override
 	public Flux<? extends AssetDto> getAssets(String authToken) {
-		return webClient.get()
+		return upbitRateLimiter.limit(getAccessKey(authToken), UpbitRequestType.ASSET, () -> webClient.get()
 			.uri(publicUri + assetUri)
 			.headers(httpHeaders -> httpHeaders.setBearerAuth(authToken))
-			.retrieve()
-			.bodyToFlux(UpbitAssetDto.class);
+			.exchange())
+			.flatMapMany(clientResponse -> bodyToFlux(clientResponse, UpbitAssetDto.class));
 	}
 
 	@Override
 	public Mono<ClientResponse> checkHealth(String authToken) {
 		log.info("[Upbit] Start to do health check. [authToken: {}]", authToken);
 
-		return webClient.get()
+		return upbitRateLimiter.limit(getAccessKey(authToken), UpbitRequestType.ASSET, () -> webClient.get()
 			.uri(publicUri + assetUri)
 			.headers(httpHeaders -> httpHeaders.setBearerAuth(authToken))
-			.exchange()
+			.exchange())
 			.doOnSuccess(clientResponse -> log.info("[Upbit] Succeeded to request to health check [Response code : {}, message : {}]",
 				clientResponse.statusCode(), clientResponse.bodyToMono(String.class)))
 			.filter(clientResponse -> clientResponse.statusCode() == HttpStatus.OK)
@@ -105,49 +127,80 @@ public class UpbitService implements ExchangeService {
 	@Override
 	public Mono<ClientResponse> requestOrder(ApiKey apiKey, Order order) {
 		String queryParameters = upbitAssembler.assembleOrderParameters(order);
-		String token = getAuthTokenWithParameter(apiKey, queryParameters);
 
 		log.info("[Upbit] Start to request order. [{}]", order);
-		return webClient.post()
+		return upbitRateLimiter.limit(apiKey.getAccessKey(), UpbitRequestType.ORDER, () -> webClient.post()
 			.uri(publicUri + ordersUri)
 			.contentType(MediaType.APPLICATION_JSON)
-			.headers(httpHeaders -> httpHeaders.setBearerAuth(token))
+			.headers(httpHeaders -> httpHeaders.setBearerAuth(getAuthTokenWithParameter(apiKey, queryParameters)))
 			.bodyValue(upbitAssembler.assembleOrder(order))
-			.exchange()
+			.exchange())
 			.doOnError(exception -> log.error("[Upbit] Failed to request order.", exception))
 			.doOnSuccess(clientResponse -> log.info("[Upbit] Succeeded to request order. [Response code : {}]", clientResponse.statusCode()));
 	}
 
 	@Override
 	public Mono<ClientResponse> cancelOrder(ApiKey apiKey, String orderId) {
-		String token = getAuthTokenWithParameter(apiKey, identifierUri + orderId);
-
 		log.info("[Upbit] Start to cancel order. [orderId : {}]", orderId);
-		return webClient.delete()
+		return upbitRateLimiter.limit(apiKey.getAccessKey(), UpbitRequestType.CANCEL, () -> webClient.delete()
 			.uri(publicUri + orderUri + identifierUri + orderId)
-			.headers(httpHeaders -> httpHeaders.setBearerAuth(token))
-			.exchange()
+			.headers(httpHeaders -> httpHeaders.setBearerAuth(getAuthTokenWithParameter(apiKey, identifierUri + orderId)))
+			.exchange())
 			.doOnError(exception -> log.error("[Upbit] Failed to cancel order.", exception))
 			.doOnSuccess(clientResponse -> log.info("[Upbit] Succeeded to cancel order. [Response code : {}]", clientResponse.statusCode()));
 	}
 
 	@Override
 	public Mono<OrderStatusDto> getCurrentOrderStatus(ApiKey apiKey, String orderId) {
-		String token = getAuthTokenWithParameter(apiKey, identifierUri + orderId);
-
 		log.info("[Upbit] Start to get current order status. [orderId : {}])", orderId);
-		return webClient.get()
+		return upbitRateLimiter.limit(apiKey.getAccessKey(), UpbitRequestType.STATUS, () -> webClient.get()
 			.uri(publicUri + orderUri + identifierUri + orderId)
-			.headers(httpHeaders -> httpHeaders.setBearerAuth(token))
-			.retrieve()
-			.onStatus(HttpStatus.UNAUTHORIZED::equals,
-				response -> Mono.error(new WrongDataException(ExceptionTypes.UNVERIFIED_DATA.getMessage("Auth token (" + apiKey + ")"))))
-			.bodyToMono(UpbitOrderStatusDto.class)
+			.headers(httpHeaders -> httpHeaders.setBearerAuth(getAuthTokenWithParameter(apiKey, identifierUri + orderId)))
+			.exchange())
+			.flatMapMany(clientResponse -> authorizedBodyToFlux(apiKey, clientResponse, UpbitOrderStatusDto.class))
+			.next()
 			.map(upbitOrderStatusDto -> upbitAssembler.assembleOrderStatus(orderId, upbitOrderStatusDto));
 	}
 
-	@Cacheable(value = "upbitTradeMeta", key = "{'UPBIT', #symbol}")
+	@Override
+	public Flux<OrderStatusDto> getDoneOrderStatuses(ApiKey apiKey, List<String> orderIds) {
+		if (orderIds.isEmpty()) {
+			return Flux.empty();
+		}
+
+		String queryParameters = upbitAssembler.assembleDoneOrdersParameters(orderIds);
+
+		log.debug("[Upbit] Start to get done order statuses. [orderIds : {}]", orderIds);
+		return upbitRateLimiter.limit(apiKey.getAccessKey(), UpbitRequestType.STATUS, () -> webClient.get()
+			.uri(publicUri + ordersUri + "?" + queryParameters)
+			.headers(httpHeaders -> httpHeaders.setBearerAuth(getAuthTokenWithParameter(apiKey, queryParameters)))
+			.exchange())
+			.flatMapMany(clientResponse -> authorizedBodyToFlux(apiKey, clientResponse, UpbitOrderStatusDto.class))
+			.filter(upbitOrderStatusDto -> upbitOrderStatusDto.getIdentifier() != null)
+			.map(upbitOrderStatusDto -> upbitAssembler.assembleOrderStatus(upbitOrderStatusDto.getIdentifier(), upbitOrderStatusDto));
+	}
+
 	public Mono<UpbitTradeMetaDto> getTradeMeta(String symbol) {
+		return tradeMetas.get(symbol);
+	}
+
+	/**
+	 * Gets the trade metas of all the given symbols with a single request, the result is keyed by symbol.
+	 */
+	public Mono<Map<String, UpbitTradeMetaDto>> getTradeMetas(List<String> symbols) {
+		if (symbols.isEmpty()) {
+			return Mono.just(Collections.emptyMap());
+		}
+
+		return webClient.get()
+			.uri(secretUri + recentUri + String.join("," + CRIX_CODE_PREFIX, symbols))
+			.retrieve()
+			.bodyToFlux(UpbitTradeMetaDto.class)
+			.filter(tradeMetaDto -> StringUtils.startsWith(tradeMetaDto.getCode(), CRIX_CODE_PREFIX))
+			.collectMap(tradeMetaDto -> tradeMetaDto.getCode().substring(CRIX_CODE_PREFIX.length()));
+	}
+
+	private Mono<UpbitTradeMetaDto> requestTradeMeta(String symbol) {
 		return webClient.get()
 			.uri(secretUri + recentUri + symbol)
 			.retrieve()
@@ -156,28 +209,89 @@ public class UpbitService implements ExchangeService {
 			.next();
 	}
 
+	@Override
+	public void evictApiKey(ObjectId apiKeyId) {
+		signingKeys.remove(apiKeyId);
+	}
+
+	private <T> Flux<T> authorizedBodyToFlux(ApiKey apiKey, ClientResponse clientResponse, Class<T> bodyType) {
+		if (clientResponse.statusCode() == HttpStatus.UNAUTHORIZED) {
+			return clientResponse.releaseBody()
+				.thenMany(Flux.error(new WrongDataException(ExceptionTypes.UNVERIFIED_DATA.getMessage("Auth token (" + apiKey + ")"))));
+		}
+		return bodyToFlux(clientResponse, bodyType);
+	}
+
+	private <T> Flux<T> bodyToFlux(ClientResponse clientResponse, Class<T> bodyType) {
+		if (clientResponse.statusCode().isError()) {
+			return clientResponse.createException().flatMapMany(Flux::error);
+		}
+		return clientResponse.bodyToFlux(bodyType);
+	}
+
+	/**
+	 * Requests signed with the same access key share request limits, the access key is read back from the auth token.
+	 */
+	private String getAccessKey(String authToken) {
+		try {
+			return StringUtils.defaultString(JWT.decode(authToken).getClaim("access_key").asString());
+		} catch (JWTDecodeException e) {
+			return StringUtils.EMPTY;
+		}
+	}
+
 	private String getAuthTokenWithParameter(ApiKey apiKey, String query) {
-		MessageDigest messageDigest;
+		String queryHash;
 		try {
-			messageDigest = MessageDigest.getInstance(messageDigestHashAlgorithm);
-			messageDigest.update(query.getBytes(messageDigestCharset));
+			queryHash = getQueryHasher().hash(query.getBytes(messageDigestCharset));
 		} catch (NoSuchAlgorithmException e) {
 			log.error("[Upbit] Cannot find message digest hash algorithm.", e);
 			return StringUtils.EMPTY;
 		} catch (UnsupportedEncodingException e) {
 			log.error("[Upbit] Cannot support encoding.", e);
 			return StringUtils.EMPTY;
+		} catch (DigestException e) {
+			log.error("[Upbit] Failed to hash query.", e);
+			return StringUtils.EMPTY;
 		}
 
-		String queryHash = String.format("%0128x", new BigInteger(1, messageDigest.digest()));
-
-		Algorithm algorithm = Algorithm.HMAC256(apiKey.getSecretKey());
-
 		return JWT.create()
 			.withClaim("access_key", apiKey.getAccessKey())
 			.withClaim("nonce", UUID.randomUUID().toString())
 			.withClaim("query_hash", queryHash)
 			.withClaim("query_hash_alg", "SHA512")
-			.sign(algorithm);
+			.sign(getSigningAlgorithm(apiKey));
+	}
+
+	private UpbitQueryHasher getQueryHasher() throws NoSuchAlgorithmException {
+		UpbitQueryHasher queryHasher = queryHashers.get();
+		if (queryHasher == null) {
+			queryHasher = new UpbitQueryHasher(MessageDigest.getInstance(messageDigestHashAlgorithm));
+			queryHashers.set(queryHasher);
+		}
+		return queryHasher;
+	}
+
+	/**
+	 * Signing algorithms are kept per api key until the api key is deleted,
+	 * an algorithm is created again only if the secret key of the api key has been changed.
+	 */
+	private Algorithm getSigningAlgorithm(ApiKey apiKey) {
+		if (apiKey.getId() == null) {
+			return Algorithm.HMAC256(apiKey.getSecretKey());
+		}
+
+		SigningKey signingKey = signingKeys.get(apiKey.getId());
+		if (signingKey == null || !signingKey.secretKey.equals(apiKey.getSecretKey())) {
+			signingKey = new SigningKey(apiKey.getSecretKey(), Algorithm.HMAC256(apiKey.getSecretKey()));
+			signingKeys.put(apiKey.getId(), signingKey);
+		}
+		return signingKey.algorithm;
+	}
+
+	@RequiredArgsConstructor
+	private static class SigningKey {
+		private final String secretKey;
+		private final Algorithm algorithm;
 	}
 }
@@ -1,23 +1,45 @@
 package com.moebius.backend.service.kafka.consumer;
 
+import com.moebius.backend.configuration.KafkaBatchProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
-import org.apache.kafka.clients.consumer.ConsumerRecord;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.kafka.receiver.KafkaReceiver;
 import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverPartition;
 import reactor.kafka.receiver.ReceiverRecord;
+import reactor.util.concurrent.Queues;
 
 import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
-import static com.moebius.backend.utils.ThreadScheduler.COMPUTE;
+import static com.moebius.backend.utils.ThreadScheduler.TRADE;
 
+/**
+ * Base kafka message consumer for concrete consumer in moebius.
+ * Records are spread over rails by group key, records of the same group key are processed in the received order.
+ * The offset of a record is committed only after the record and all previous records of the partition have been processed.
+ * In batched consumption, records of a rail are drained into windows bounded by {@link KafkaBatchProperties}, and a window is processed at once.
+ * A failure of the receive pipeline resubscribes the receiver with a backoff, uncommitted records are received again.
+ *
+ * @param <K> Message key
+ * @param <V> Message value
+ */
 @Slf4j
 public abstract class KafkaConsumer<K, V> {
+	private static final Duration RETRY_FIRST_BACKOFF = Duration.ofSeconds(1);
+	private static final Duration RETRY_MAX_BACKOFF = Duration.ofMinutes(1);
+
 	private final KafkaReceiver<K, V> receiver;
+	private final ReceiverOffsetTracker offsetTracker = new ReceiverOffsetTracker();
 
 	public KafkaConsumer(Map<String, String> receiverDefaultProperties) {
 		Map<String, Object> properties = new HashMap<>(receiverDefaultProperties);
@@ -27,23 +49,113 @@ public abstract class KafkaConsumer<K, V> {
 		ReceiverOptions<K, V> receiverOptions = ReceiverOptions.create(properties);
 		receiverOptions.subscription(Collections.singleton(getTopic()))
 			.addAssignListener(partitions -> log.debug("[Kafka] onPartitionsAssigned {}", partitions))
-			.addRevokeListener(partitions -> log.debug("[Kafka] onPartitionsRevoked {}", partitions));
+			.addRevokeListener(partitions -> {
+				log.debug("[Kafka] onPartitionsRevoked {}", partitions);
+				offsetTracker.revoke(partitions.stream()
+					.map(ReceiverPartition::topicPartition)
+					.collect(Collectors.toList()));
+			});
 
 		receiver = KafkaReceiver.create(receiverOptions);
 	}
 
 	public abstract String getTopic();
 
-	public abstract void processRecord(ReceiverRecord<K, V> record);
+	public abstract Mono<Void> processRecord(ReceiverRecord<K, V> record);
 
 	protected abstract Class<?> getKeyDeserializerClass();
 
 	protected abstract Class<?> getValueDeserializerClass();
 
+	/**
+	 * Records which have the same group key are processed in order on the same rail.
+	 * Default group key is the partition of the record.
+	 */
+	protected Object getGroupKey(ReceiverRecord<K, V> record) {
+		return record.receiverOffset().topicPartition();
+	}
+
+	protected int getConcurrency() {
+		return Schedulers.DEFAULT_POOL_SIZE;
+	}
+
+	protected int getPrefetch() {
+		return Queues.SMALL_BUFFER_SIZE;
+	}
+
+	/**
+	 * Records are processed one by one unless batched consumption is enabled.
+	 */
+	protected KafkaBatchProperties getBatchProperties() {
+		return new KafkaBatchProperties();
+	}
+
+	/**
+	 * Processes a window of records of a rail in batched consumption, records are processed in order by default.
+	 */
+	protected Mono<Void> processRecords(List<ReceiverRecord<K, V>> records) {
+		return Flux.fromIterable(records)
+			.concatMap(record -> processRecord(record)
+				.doOnError(exception -> log.error("[Kafka] Failed to process record. [{}]", record.receiverOffset(), exception))
+				.onErrorResume(exception -> Mono.empty()))
+			.then();
+	}
+
 	public void consumeMessages() {
 		log.info("[Kafka] Start to read messages. [{}]", getTopic());
+		int concurrency = getConcurrency();
+
+		KafkaBatchProperties batchProperties = getBatchProperties();
+
 		receiver.receive()
-			.publishOn(COMPUTE.scheduler())
-			.subscribe(this::processRecord);
+			.doOnNext(record -> offsetTracker.register(record.receiverOffset()))
+			.groupBy(record -> Math.floorMod(Objects.hashCode(getGroupKey(record)), concurrency), getPrefetch())
+			.flatMap(rail -> batchProperties.isEnabled()
+				? processWindows(rail, batchProperties)
+				: rail.publishOn(TRADE.scheduler()).concatMap(this::processAndAcknowledge), concurrency)
+			.doOnError(exception -> {
+				log.error("[Kafka] Failed to read messages, resubscribing. [{}]", getTopic(), exception);
+				offsetTracker.clear();
+			})
+			.retryBackoff(Long.MAX_VALUE, RETRY_FIRST_BACKOFF, RETRY_MAX_BACKOFF)
+			.subscribe(null, exception -> log.error("[Kafka] Stopped reading messages. [{}]", getTopic(), exception));
+	}
+
+	/**
+	 * Windows are closed on demand, a single window ahead at most, so a rail is paused, not overflown, while its previous window is in process.
+	 * Ticks are merged into the rail only to close the window of an idle rail, and are dropped while a window is in process.
+	 */
+	private Flux<Void> processWindows(Flux<ReceiverRecord<K, V>> rail, KafkaBatchProperties batchProperties) {
+		RecordWindow recordWindow = new RecordWindow(batchProperties, getTopic());
+		Flux<Optional<ReceiverRecord<K, V>>> ticks = Flux.interval(batchProperties.getWindow(), TRADE.scheduler())
+			.onBackpressureDrop()
+			.map(tick -> Optional.empty());
+
+		return rail.map(Optional::of)
+			.mergeWith(ticks)
+			.bufferUntil(item -> recordWindow.closesBy(item.orElse(null)))
+			.map(items -> items.stream()
+				.filter(Optional::isPresent)
+				.map(Optional::get)
+				.collect(Collectors.toList()))
+			.filter(records -> !records.isEmpty())
+			.publishOn(TRADE.scheduler(), 1)
+			.concatMap(this::processAndAcknowledgeAll, 1);
+	}
+
+	private Flux<Void> processAndAcknowledge(ReceiverRecord<K, V> record) {
+		return Mono.defer(() -> processRecord(record))
+			.doOnError(exception -> log.error("[Kafka] Failed to process record. [{}]", record.receiverOffset(), exception))
+			.onErrorResume(exception -> Mono.empty())
+			.doFinally(signalType -> offsetTracker.complete(record.receiverOffset()))
+			.flux();
+	}
+
+	private Flux<Void> processAndAcknowledgeAll(List<ReceiverRecord<K, V>> records) {
+		return Mono.defer(() -> processRecords(records))
+			.doOnError(exception -> log.error("[Kafka] Failed to process {} records. [{}]", records.size(), getTopic(), exception))
+			.onErrorResume(exception -> Mono.empty())
+			.doFinally(signalType -> records.forEach(record -> offsetTracker.complete(record.receiverOffset())))
+			.flux();
 	}
 }
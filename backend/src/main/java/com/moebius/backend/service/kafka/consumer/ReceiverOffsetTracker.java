@@ -0,0 +1,66 @@
+package com.moebius.backend.service.kafka.consumer;
+
+import org.apache.kafka.common.TopicPartition;
+import reactor.kafka.receiver.ReceiverOffset;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Receiver offsets of a partition can be completed out of order when records are processed on several rails.
+ * This tracker acknowledges only the highest offset of which all previous offsets have been completed,
+ * so a committed offset never skips a record which is still in process.
+ */
+public class ReceiverOffsetTracker {
+	private final Map<TopicPartition, PartitionOffsets> partitionOffsets = new ConcurrentHashMap<>();
+
+	public void register(ReceiverOffset receiverOffset) {
+		partitionOffsets.computeIfAbsent(receiverOffset.topicPartition(), topicPartition -> new PartitionOffsets())
+			.register(receiverOffset);
+	}
+
+	public void complete(ReceiverOffset receiverOffset) {
+		PartitionOffsets offsets = partitionOffsets.get(receiverOffset.topicPartition());
+		if (offsets != null) {
+			offsets.complete(receiverOffset);
+		}
+	}
+
+	public void revoke(Collection<TopicPartition> topicPartitions) {
+		topicPartitions.forEach(partitionOffsets::remove);
+	}
+
+	/**
+	 * Forgets every pending offset, when the records in process are abandoned to be received again.
+	 */
+	public void clear() {
+		partitionOffsets.clear();
+	}
+
+	private static class PartitionOffsets {
+		private final NavigableMap<Long, ReceiverOffset> pendingOffsets = new TreeMap<>();
+		private final Set<Long> completedOffsets = new HashSet<>();
+
+		synchronized void register(ReceiverOffset receiverOffset) {
+			pendingOffsets.put(receiverOffset.offset(), receiverOffset);
+		}
+
+		synchronized void complete(ReceiverOffset receiverOffset) {
+			completedOffsets.add(receiverOffset.offset());
+
+			ReceiverOffset acknowledgeableOffset = null;
+			while (!pendingOffsets.isEmpty() && completedOffsets.remove(pendingOffsets.firstKey())) {
+				acknowledgeableOffset = pendingOffsets.pollFirstEntry().getValue();
+			}
+
+			if (acknowledgeableOffset != null) {
+				acknowledgeableOffset.acknowledge();
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.moebius.backend.service.kafka.consumer;
+
+import com.moebius.backend.configuration.KafkaBatchProperties;
+import lombok.extern.slf4j.Slf4j;
+import reactor.kafka.receiver.ReceiverRecord;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Window of the records of a rail in batched consumption, which decides when the window closes.
+ * A window closes when it is full or its time is over, checked on every record and on every tick of the rail,
+ * so an idle rail closes its window by the next tick.
+ * The consumer is catching up while the lag of the received records is over the catch up lag, and leaves it
+ * once the lag is below half of it, so that it does not flap around the threshold.
+ * Windows are not thread safe, a window is used by the serialized signals of a single rail.
+ */
+@Slf4j
+class RecordWindow {
+	private final KafkaBatchProperties batchProperties;
+	private final String topic;
+	private final LongSupplier clock;
+	private int size;
+	private long openedTime;
+	private boolean catchingUp;
+
+	RecordWindow(KafkaBatchProperties batchProperties, String topic) {
+		this(batchProperties, topic, System::currentTimeMillis);
+	}
+
+	RecordWindow(KafkaBatchProperties batchProperties, String topic, LongSupplier clock) {
+		this.batchProperties = batchProperties;
+		this.topic = topic;
+		this.clock = clock;
+	}
+
+	/**
+	 * @param record received record, or null on a tick
+	 * @return true if the window including the record closes
+	 */
+	boolean closesBy(ReceiverRecord<?, ?> record) {
+		long now = clock.getAsLong();
+		if (record != null) {
+			if (size++ == 0) {
+				openedTime = now;
+			}
+			updateCatchingUp(record, now);
+		}
+
+		if (size == 0) {
+			return true;
+		}
+		if (size >= getMaxSize() || now - openedTime >= getWindowMillis()) {
+			size = 0;
+			return true;
+		}
+		return false;
+	}
+
+	boolean isCatchingUp() {
+		return catchingUp;
+	}
+
+	private void updateCatchingUp(ReceiverRecord<?, ?> record, long now) {
+		if (record.timestamp() <= 0) {
+			return;
+		}
+
+		long lag = now - record.timestamp();
+		long catchUpLag = batchProperties.getCatchUpLag().toMillis();
+		if (!catchingUp && lag >= catchUpLag) {
+			catchingUp = true;
+			log.info("[Kafka] Start to catch up. [{}, lag : {}ms]", topic, lag);
+		} else if (catchingUp && lag < catchUpLag / 2) {
+			catchingUp = false;
+			log.info("[Kafka] Caught up. [{}, lag : {}ms]", topic, lag);
+		}
+	}
+
+	private int getMaxSize() {
+		return catchingUp ? batchProperties.getCatchUpMaxSize() : batchProperties.getMaxSize();
+	}
+
+	private long getWindowMillis() {
+		return (catchingUp ? batchProperties.getCatchUpWindow() : batchProperties.getWindow()).toMillis();
+	}
+}
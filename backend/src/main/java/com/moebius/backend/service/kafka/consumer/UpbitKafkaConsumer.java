@@ -1,36 +1,49 @@
 package com.moebius.backend.service.kafka.consumer;
 
+import com.moebius.backend.configuration.KafkaBatchProperties;
+import com.moebius.backend.configuration.TradePipelineProperties;
+import com.moebius.backend.dto.trade.ConflatedTradeDto;
 import com.moebius.backend.dto.trade.TradeDto;
+import com.moebius.backend.service.kafka.serializer.TradeDtoDeserializer;
 import com.moebius.backend.service.market.MarketService;
 import com.moebius.backend.service.order.ExchangeOrderService;
-import com.moebius.backend.service.order.InternalOrderService;
+import com.moebius.backend.service.trade.TradePipelineMetrics;
 import com.moebius.backend.service.trade.TradeService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.serialization.StringDeserializer;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.stereotype.Component;
-import reactor.kafka.receiver.ReceiverOffset;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.kafka.receiver.ReceiverRecord;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+
+import static com.moebius.backend.service.trade.TradePipelineMetrics.ALERT_STAGE;
+import static com.moebius.backend.service.trade.TradePipelineMetrics.MARKET_STAGE;
+import static com.moebius.backend.service.trade.TradePipelineMetrics.ORDER_STAGE;
 
 @Slf4j
 @Component
 public class UpbitKafkaConsumer extends KafkaConsumer<String, TradeDto> {
 	private static final String TRADE_KAFKA_TOPIC = "moebius.trade.upbit";
+	private final TradePipelineProperties tradePipelineProperties;
 	private final ExchangeOrderService exchangeOrderService;
-	private final InternalOrderService internalOrderService;
 	private final MarketService marketService;
 	private final TradeService tradeService;
+	private final TradePipelineMetrics tradePipelineMetrics;
 
-	public UpbitKafkaConsumer(Map<String, String> receiverDefaultProperties, ExchangeOrderService exchangeOrderService,
-		InternalOrderService internalOrderService, MarketService marketService,
-		TradeService tradeService) {
+	public UpbitKafkaConsumer(Map<String, String> receiverDefaultProperties, TradePipelineProperties tradePipelineProperties,
+		ExchangeOrderService exchangeOrderService, MarketService marketService, TradeService tradeService,
+		TradePipelineMetrics tradePipelineMetrics) {
 		super(receiverDefaultProperties);
+		this.tradePipelineProperties = tradePipelineProperties;
 		this.exchangeOrderService = exchangeOrderService;
-		this.internalOrderService = internalOrderService;
 		this.marketService = marketService;
 		this.tradeService = tradeService;
+		this.tradePipelineMetrics = tradePipelineMetrics;
 	}
 
 	@Override
@@ -38,18 +51,76 @@ public class UpbitKafkaConsumer extends KafkaConsumer<String, TradeDto> {
 		return TRADE_KAFKA_TOPIC;
 	}
 
+	/**
+	 * Records without a value, tombstones or trades which could not be deserialized, are skipped and acknowledged.
+	 */
 	@Override
-	public void processRecord(ReceiverRecord<String, TradeDto> record) {
-		ReceiverOffset offset = record.receiverOffset();
-		TradeDto tradeDto = record.value();
+	public Mono<Void> processRecord(ReceiverRecord<String, TradeDto> record) {
+		return Mono.defer(() -> {
+			TradeDto tradeDto = record.value();
+			if (tradeDto == null) {
+				log.warn("[Kafka] Skipped record without trade. [{}]", record.receiverOffset());
+				return Mono.empty();
+			}
+			tradePipelineMetrics.recordReceived(tradeDto, record.timestamp());
+
+			return Mono.when(
+				processStage(ALERT_STAGE, tradeDto, () -> tradeService.notifyIfValidTrade(tradeDto)),
+				processStage(ORDER_STAGE, tradeDto, () -> exchangeOrderService.orderByTrade(tradeDto)),
+				processStage(MARKET_STAGE, tradeDto, () -> marketService.updateMarketPrice(tradeDto))
+			);
+		});
+	}
 
-		tradeService.notifyIfValidTrade(tradeDto);
-		// TODO : update order status by exchange's order
-		internalOrderService.updateOrderStatusByTrade(tradeDto);
-		exchangeOrderService.orderByTrade(tradeDto);
-		marketService.updateMarketPrice(tradeDto);
+	/**
+	 * Trades of a window are reduced per symbol, so every stage runs once per symbol in a window:
+	 * orders are triggered by the trades of the lowest and the highest prices, the market is updated by the last trade,
+	 * and the alerts are validated after aggregating the trades at once.
+	 */
+	@Override
+	protected Mono<Void> processRecords(List<ReceiverRecord<String, TradeDto>> records) {
+		Map<String, ConflatedTradeDto> conflatedTrades = new LinkedHashMap<>();
+		records.forEach(record -> {
+			TradeDto tradeDto = record.value();
+			if (tradeDto == null) {
+				return;
+			}
+			tradePipelineMetrics.recordReceived(tradeDto, record.timestamp());
+			conflatedTrades.computeIfAbsent(tradeDto.getSymbol(), symbol -> new ConflatedTradeDto())
+				.add(tradeDto);
+		});
+		tradePipelineMetrics.recordConflation(records.size(), conflatedTrades.size());
 
-		offset.acknowledge();
+		return Flux.fromIterable(conflatedTrades.values())
+			.flatMap(this::processConflatedTrade)
+			.then();
+	}
+
+	/**
+	 * Trades of the same symbol should be processed in order, so that order triggers are not reordered.
+	 * Records without a value are grouped by the record key, which is the symbol, or by the partition without a key.
+	 */
+	@Override
+	protected Object getGroupKey(ReceiverRecord<String, TradeDto> record) {
+		if (record.value() != null) {
+			return record.value().getSymbol();
+		}
+		return record.key() != null ? record.key() : super.getGroupKey(record);
+	}
+
+	@Override
+	protected int getConcurrency() {
+		return tradePipelineProperties.getRails();
+	}
+
+	@Override
+	protected int getPrefetch() {
+		return tradePipelineProperties.getPrefetch();
+	}
+
+	@Override
+	protected KafkaBatchProperties getBatchProperties() {
+		return tradePipelineProperties.getBatch();
 	}
 
 	@Override
@@ -59,6 +130,28 @@ public class UpbitKafkaConsumer extends KafkaConsumer<String, TradeDto> {
 
 	@Override
 	protected Class<?> getValueDeserializerClass() {
-		return JsonDeserializer.class;
+		return TradeDtoDeserializer.class;
+	}
+
+	private Mono<Void> processConflatedTrade(ConflatedTradeDto conflatedTradeDto) {
+		TradeDto lastTrade = conflatedTradeDto.getLastTrade();
+
+		return Mono.when(
+			processStage(ALERT_STAGE, lastTrade, () -> tradeService.notifyIfValidTrades(conflatedTradeDto)),
+			processStage(ORDER_STAGE, lastTrade, () -> Flux.fromIterable(conflatedTradeDto.getExtremeTrades())
+				.concatMap(exchangeOrderService::orderByTrade)
+				.then()),
+			processStage(MARKET_STAGE, lastTrade, () -> marketService.updateMarketPrice(lastTrade))
+		);
+	}
+
+	/**
+	 * A failed stage is logged and completed, so that it neither cancels the other stages nor stops the consumer.
+	 * Every stage is timed whether it has succeeded or not.
+	 */
+	private Mono<Void> processStage(String stage, TradeDto tradeDto, Supplier<Mono<Void>> handler) {
+		return tradePipelineMetrics.time(stage, Mono.defer(handler))
+			.doOnError(exception -> log.warn("[Kafka] Failed to process {} stage. [{}]", stage, tradeDto, exception))
+			.onErrorResume(exception -> Mono.empty());
 	}
 }
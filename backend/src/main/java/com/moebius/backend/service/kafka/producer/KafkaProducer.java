@@ -1,10 +1,16 @@
 package com.moebius.backend.service.kafka.producer;
 
+import com.moebius.backend.configuration.KafkaProducerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.UnicastProcessor;
 import reactor.kafka.sender.KafkaSender;
 import reactor.kafka.sender.SenderOptions;
 import reactor.kafka.sender.SenderRecord;
@@ -12,10 +18,19 @@ import reactor.kafka.sender.SenderResult;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Base kafka message producer for concrete producer in moebius.
  * Topic, KeySerializerClass, ValueSerializerClass should be determined by concrete producer.
+ * <p>
+ * Besides {@link #produceMessages(Object)} for the callers which need the result of a message, messages can be sent by {@link #send(Object)}
+ * without waiting for the broker. Sent messages are queued in a bounded outbox drained by a single send of the kafka sender,
+ * so that a burst of messages is batched by linger.ms of the producer instead of a request per message.
+ * Messages over the capacity of the outbox are rejected, and results of the outbox are reported by metrics tagged with the topic.
+ * An outbox terminated by the kafka sender is replaced by a new one on the next message, its records without results are reported as failed.
  *
  * @param <K> Message key
  * @param <V> Message value
@@ -23,16 +38,35 @@ import java.util.Map;
  */
 @Slf4j
 public abstract class KafkaProducer<K, V, T> {
+	private static final String OUTBOX_RECORDS_METRIC = "moebius.kafka.producer.outbox.records";
+	private static final String OUTBOX_SIZE_METRIC = "moebius.kafka.producer.outbox.size";
+
 	private final KafkaSender<K, V> sender;
+	private final AtomicReference<Outbox> currentOutbox = new AtomicReference<>();
+	private final AtomicInteger outboxSize = new AtomicInteger();
+	private final int outboxCapacity;
+	private final Counter sentCounter;
+	private final Counter failedCounter;
+	private final Counter rejectedCounter;
 
-	public KafkaProducer(Map<String, String> senderDefaultProperties) {
+	public KafkaProducer(Map<String, String> senderDefaultProperties, KafkaProducerProperties producerProperties, MeterRegistry meterRegistry) {
 		Map<String, Object> properties = new HashMap<>(senderDefaultProperties);
 		properties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, getKeySerializerClass());
 		properties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, getValueSerializerClass());
 
-		SenderOptions<K, V> senderOptions = SenderOptions.create(properties);
+		// A failed record is reported by its result, not by terminating the outbox.
+		SenderOptions<K, V> senderOptions = SenderOptions.<K, V>create(properties)
+			.stopOnError(false);
 
 		sender = KafkaSender.create(senderOptions);
+		outboxCapacity = producerProperties.getOutboxCapacity();
+
+		Gauge.builder(OUTBOX_SIZE_METRIC, outboxSize, AtomicInteger::get)
+			.tag("topic", getTopic())
+			.register(meterRegistry);
+		sentCounter = buildOutboxCounter(meterRegistry, "sent");
+		failedCounter = buildOutboxCounter(meterRegistry, "failed");
+		rejectedCounter = buildOutboxCounter(meterRegistry, "rejected");
 	}
 
 	public abstract String getTopic();
@@ -50,7 +84,116 @@ public abstract class KafkaProducer<K, V, T> {
 	}
 
 	public Flux<SenderResult<T>> produceMessages(V message) {
-		return sender.send(
-			Mono.just(SenderRecord.create(new ProducerRecord<>(getTopic(), getKey(message), message), getCorrelationMetadata(message))));
+		return sender.send(Mono.just(createRecord(message)));
+	}
+
+	/**
+	 * Queues the message in the outbox without blocking the caller.
+	 *
+	 * @return false if the outbox is full or terminated and the message is rejected
+	 */
+	public boolean send(V message) {
+		SenderRecord<K, V, T> record = createRecord(message);
+		if (outboxSize.incrementAndGet() > outboxCapacity) {
+			outboxSize.decrementAndGet();
+			rejectedCounter.increment();
+			log.debug("[Kafka] Outbox is full, rejected message. [{}, capacity : {}]", getTopic(), outboxCapacity);
+			return false;
+		}
+
+		// An outbox terminated meanwhile is replaced once, a message is not retried against a sender which keeps terminating.
+		if (!getOutbox().offer(record) && !getOutbox().offer(record)) {
+			outboxSize.decrementAndGet();
+			failedCounter.increment();
+			log.warn("[Kafka] Outbox is terminated, failed message. [{}]", getTopic());
+			return false;
+		}
+		return true;
+	}
+
+	private SenderRecord<K, V, T> createRecord(V message) {
+		return SenderRecord.create(new ProducerRecord<>(getTopic(), getKey(message), message), getCorrelationMetadata(message));
+	}
+
+	private Outbox getOutbox() {
+		Outbox outbox = currentOutbox.get();
+		if (outbox != null && !outbox.isTerminated()) {
+			return outbox;
+		}
+
+		Outbox newOutbox = new Outbox();
+		if (!currentOutbox.compareAndSet(outbox, newOutbox)) {
+			return currentOutbox.get();
+		}
+		sender.send(newOutbox.processor)
+			.subscribe(senderResult -> onOutboxResult(newOutbox, senderResult),
+				exception -> {
+					log.error("[Kafka] Outbox is terminated, it will be replaced on the next message. [{}]", getTopic(), exception);
+					onOutboxTerminated(newOutbox);
+				},
+				() -> onOutboxTerminated(newOutbox));
+		return newOutbox;
+	}
+
+	private void onOutboxResult(Outbox outbox, SenderResult<T> senderResult) {
+		outbox.complete();
+		outboxSize.decrementAndGet();
+		if (Objects.isNull(senderResult.exception())) {
+			sentCounter.increment();
+			return;
+		}
+
+		failedCounter.increment();
+		log.warn("[Kafka] Failed to send message. [{}]", senderResult.correlationMetadata(), senderResult.exception());
+	}
+
+	private void onOutboxTerminated(Outbox outbox) {
+		int lostCount = outbox.terminate();
+		outboxSize.addAndGet(-lostCount);
+		failedCounter.increment(lostCount);
+	}
+
+	private Counter buildOutboxCounter(MeterRegistry meterRegistry, String result) {
+		return Counter.builder(OUTBOX_RECORDS_METRIC)
+			.tag("topic", getTopic())
+			.tag("result", result)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * A single subscription of the kafka sender, which counts the records offered and not yet resulted.
+	 * A terminated outbox takes no more records, so that every record is either resulted or counted as lost.
+	 */
+	private class Outbox {
+		private final UnicastProcessor<SenderRecord<K, V, T>> processor = UnicastProcessor.create();
+		private final FluxSink<SenderRecord<K, V, T>> sink = processor.sink();
+		private int pendingCount;
+		private boolean terminated;
+
+		private boolean offer(SenderRecord<K, V, T> record) {
+			synchronized (this) {
+				if (terminated) {
+					return false;
+				}
+				pendingCount++;
+			}
+			sink.next(record);
+			return true;
+		}
+
+		private synchronized void complete() {
+			pendingCount--;
+		}
+
+		private synchronized int terminate() {
+			terminated = true;
+			int lostCount = pendingCount;
+			pendingCount = 0;
+			return lostCount;
+		}
+
+		private synchronized boolean isTerminated() {
+			return terminated;
+		}
 	}
 }
@@ -1,28 +1,34 @@
 package com.moebius.backend.service.kafka.producer;
 
+import com.moebius.backend.configuration.KafkaProducerProperties;
 import com.moebius.backend.dto.message.MessageSendRequestDto;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.stereotype.Component;
 
-import java.time.Instant;
 import java.util.Map;
 
 @Component
 public class MessageKafkaProducer extends KafkaProducer<String, MessageSendRequestDto<?>, String> {
     private static final String MESSAGE_SEND_TOPIC = "moebius.message.send";
-    private static final String MESSAGE_KEY_FORMAT = "%s.%s.%s";
-    private static final String CORRELATION_META_DATA_FORMAT = "%s.%s.%d";
+    private static final char DELIMITER = '.';
 
+    /**
+     * Key of {dedupStrategy}.{recipientType}.{title}, built without String.format as it is built twice for every message.
+     */
     @Override
     protected String getKey(MessageSendRequestDto<?> message) {
-        return String.format(MESSAGE_KEY_FORMAT,
-            message.getDedupStrategy(), message.getRecipientType(), message.getTitle()
-        );
+        return new StringBuilder()
+                .append(message.getDedupStrategy()).append(DELIMITER)
+                .append(message.getRecipientType()).append(DELIMITER)
+                .append(message.getTitle())
+                .toString();
     }
 
-    public MessageKafkaProducer(Map<String, String> senderDefaultProperties) {
-        super(senderDefaultProperties);
+    public MessageKafkaProducer(Map<String, String> senderDefaultProperties, KafkaProducerProperties producerProperties,
+                                MeterRegistry meterRegistry) {
+        super(senderDefaultProperties, producerProperties, meterRegistry);
     }
 
     @Override
@@ -30,13 +36,17 @@ public class MessageKafkaProducer extends KafkaProducer<String, MessageSendReque
         return MESSAGE_SEND_TOPIC;
     }
 
+    /**
+     * Correlation meta data of {topic}.{key}.{epochSecond}.
+     */
     @Override
     protected String getCorrelationMetadata(MessageSendRequestDto<?> message) {
-        long epochSecond = Instant.now().getEpochSecond();
+        long epochSecond = System.currentTimeMillis() / 1000;
 
-        return String.format(CORRELATION_META_DATA_FORMAT,
-                MESSAGE_SEND_TOPIC, getKey(message), epochSecond
-        );
+        return new StringBuilder(MESSAGE_SEND_TOPIC).append(DELIMITER)
+                .append(getKey(message)).append(DELIMITER)
+                .append(epochSecond)
+                .toString();
     }
 
     @Override
@@ -1,8 +1,10 @@
 package com.moebius.backend.service.kafka.producer;
 
+import com.moebius.backend.configuration.KafkaProducerProperties;
 import com.moebius.backend.dto.trade.TradeDto;
+import com.moebius.backend.service.kafka.serializer.TradeDtoSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.common.serialization.StringSerializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.kafka.sender.SenderResult;
@@ -13,8 +15,9 @@ import java.util.Map;
 public class TradeKafkaProducer extends KafkaProducer<String, TradeDto, String> {
 	private static final String TRADE_KAFKA_TOPIC = "moebius.trade.upbit";
 
-	public TradeKafkaProducer(Map<String, String> senderDefaultProperties) {
-		super(senderDefaultProperties);
+	public TradeKafkaProducer(Map<String, String> senderDefaultProperties, KafkaProducerProperties producerProperties,
+		MeterRegistry meterRegistry) {
+		super(senderDefaultProperties, producerProperties, meterRegistry);
 	}
 
 	@Override
@@ -29,7 +32,7 @@ public class TradeKafkaProducer extends KafkaProducer<String, TradeDto, String>
 
 	@Override
 	protected Class<?> getValueSerializerClass() {
-		return JsonSerializer.class;
+		return TradeDtoSerializer.class;
 	}
 
 	@Override
@@ -0,0 +1,134 @@
+package com.moebius.backend.service.kafka.serializer;
+
+import com.moebius.backend.domain.commons.Change;
+import com.moebius.backend.domain.commons.Exchange;
+import com.moebius.backend.domain.commons.TradeType;
+import com.moebius.backend.dto.trade.TradeDto;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed layout binary codec of {@link TradeDto}, version 1.
+ *
+ * <pre>
+ * flags(1) exchange(1) tradeType(1) [change(1)] symbolLength(1) symbol [idLength(2) id]
+ * price(8) volume(8) prevClosingPrice(8) changePrice(8) [createdAtSecond(8) createdAtNano(4)] receivedTime(8)
+ * </pre>
+ *
+ * Bracketed fields are written only if the matching flag is set. Enums are written as their index in the tables below,
+ * which are append only, so that reordering an enum never changes the meaning of a written record.
+ * A change of the layout itself needs a new version.
+ */
+final class TradeDtoBinaryCodec {
+	static final byte VERSION = 1;
+
+	private static final List<Exchange> EXCHANGES = Arrays.asList(Exchange.UPBIT, Exchange.BITHUMB, Exchange.BINANCE);
+	private static final List<TradeType> TRADE_TYPES = Arrays.asList(TradeType.ASK, TradeType.BID);
+	private static final List<Change> CHANGES = Arrays.asList(Change.RISE, Change.EVEN, Change.FALL);
+
+	private static final int ID_FLAG = 1;
+	private static final int CHANGE_FLAG = 1 << 1;
+	private static final int CREATED_AT_FLAG = 1 << 2;
+	private static final int FIXED_SIZE = 3 + 1 + 4 * Double.BYTES + Long.BYTES;
+
+	private TradeDtoBinaryCodec() {
+	}
+
+	static byte[] encode(TradeDto tradeDto) {
+		byte[] symbol = tradeDto.getSymbol().getBytes(StandardCharsets.UTF_8);
+		byte[] id = tradeDto.getId() == null ? null : tradeDto.getId().getBytes(StandardCharsets.UTF_8);
+		if (symbol.length > 0xFF || (id != null && id.length > 0xFFFF)) {
+			throw new SerializationException("[Kafka] Symbol or id is too long to encode. [" + tradeDto + "]");
+		}
+
+		int flags = (id != null ? ID_FLAG : 0)
+			| (tradeDto.getChange() != null ? CHANGE_FLAG : 0)
+			| (tradeDto.getCreatedAt() != null ? CREATED_AT_FLAG : 0);
+		int size = FIXED_SIZE + symbol.length
+			+ (id != null ? Short.BYTES + id.length : 0)
+			+ (tradeDto.getChange() != null ? 1 : 0)
+			+ (tradeDto.getCreatedAt() != null ? Long.BYTES + Integer.BYTES : 0);
+
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.put((byte) flags);
+		buffer.put(indexOf(EXCHANGES, tradeDto.getExchange()));
+		buffer.put(indexOf(TRADE_TYPES, tradeDto.getTradeType()));
+		if (tradeDto.getChange() != null) {
+			buffer.put(indexOf(CHANGES, tradeDto.getChange()));
+		}
+		buffer.put((byte) symbol.length);
+		buffer.put(symbol);
+		if (id != null) {
+			buffer.putShort((short) id.length);
+			buffer.put(id);
+		}
+		buffer.putDouble(tradeDto.getPrice());
+		buffer.putDouble(tradeDto.getVolume());
+		buffer.putDouble(tradeDto.getPrevClosingPrice());
+		buffer.putDouble(tradeDto.getChangePrice());
+		if (tradeDto.getCreatedAt() != null) {
+			buffer.putLong(tradeDto.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+			buffer.putInt(tradeDto.getCreatedAt().getNano());
+		}
+		buffer.putLong(tradeDto.getReceivedTime());
+
+		return buffer.array();
+	}
+
+	static TradeDto decode(byte[] data) {
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(data);
+			int flags = buffer.get();
+			TradeDto tradeDto = new TradeDto();
+			tradeDto.setExchange(valueOf(EXCHANGES, buffer.get()));
+			tradeDto.setTradeType(valueOf(TRADE_TYPES, buffer.get()));
+			if ((flags & CHANGE_FLAG) != 0) {
+				tradeDto.setChange(valueOf(CHANGES, buffer.get()));
+			}
+			tradeDto.setSymbol(readString(buffer, buffer.get() & 0xFF));
+			if ((flags & ID_FLAG) != 0) {
+				tradeDto.setId(readString(buffer, buffer.getShort() & 0xFFFF));
+			}
+			tradeDto.setPrice(buffer.getDouble());
+			tradeDto.setVolume(buffer.getDouble());
+			tradeDto.setPrevClosingPrice(buffer.getDouble());
+			tradeDto.setChangePrice(buffer.getDouble());
+			if ((flags & CREATED_AT_FLAG) != 0) {
+				tradeDto.setCreatedAt(LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC));
+			}
+			tradeDto.setReceivedTime(buffer.getLong());
+
+			return tradeDto;
+		} catch (BufferUnderflowException | IndexOutOfBoundsException exception) {
+			throw new SerializationException("[Kafka] Trade of " + data.length + " bytes is truncated or malformed.", exception);
+		}
+	}
+
+	private static <E extends Enum<E>> byte indexOf(List<E> values, E value) {
+		int index = values.indexOf(value);
+		if (index < 0) {
+			throw new SerializationException("[Kafka] " + value + " is not encodable in version " + VERSION + ".");
+		}
+		return (byte) index;
+	}
+
+	private static <E extends Enum<E>> E valueOf(List<E> values, byte index) {
+		if (index < 0 || index >= values.size()) {
+			throw new SerializationException("[Kafka] Unknown enum index " + index + " in version " + VERSION + ".");
+		}
+		return values.get(index);
+	}
+
+	private static String readString(ByteBuffer buffer, int length) {
+		String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return value;
+	}
+}
@@ -0,0 +1,50 @@
+package com.moebius.backend.service.kafka.serializer;
+
+import com.moebius.backend.dto.trade.TradeDto;
+import com.moebius.backend.service.trade.TradePipelineMetrics;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads trades written by {@link TradeDtoSerializer}, the binary layout by the version header and json for records without it.
+ * Json is read by the streaming {@link TradeDtoJsonDecoder}, type headers are ignored.
+ * Deserialization is timed as a stage of the trade pipeline.
+ * Kafka instantiates deserializers by class, so the timer is registered on the global registry which spring boot also publishes.
+ */
+public class TradeDtoDeserializer implements Deserializer<TradeDto> {
+	private final Timer deserializeTimer = TradePipelineMetrics.stageTimer(TradePipelineMetrics.DESERIALIZE_STAGE)
+		.register(Metrics.globalRegistry);
+
+	@Override
+	public TradeDto deserialize(String topic, Headers headers, byte[] data) {
+		long startTime = System.nanoTime();
+		try {
+			if (data == null) {
+				return null;
+			}
+			Header versionHeader = headers == null ? null : headers.lastHeader(TradeDtoSerializer.VERSION_HEADER);
+			if (versionHeader == null) {
+				return TradeDtoJsonDecoder.decode(data);
+			}
+
+			byte[] version = versionHeader.value();
+			if (version == null || version.length != 1 || version[0] != TradeDtoBinaryCodec.VERSION) {
+				throw new SerializationException("[Kafka] Unsupported trade version of topic " + topic + ".");
+			}
+			return TradeDtoBinaryCodec.decode(data);
+		} finally {
+			deserializeTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	@Override
+	public TradeDto deserialize(String topic, byte[] data) {
+		return deserialize(topic, null, data);
+	}
+}
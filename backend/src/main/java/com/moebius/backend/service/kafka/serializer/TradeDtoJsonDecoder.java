@@ -0,0 +1,112 @@
+package com.moebius.backend.service.kafka.serializer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.moebius.backend.domain.commons.Change;
+import com.moebius.backend.domain.commons.Exchange;
+import com.moebius.backend.domain.commons.TradeType;
+import com.moebius.backend.dto.trade.TradeDto;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+
+/**
+ * Streaming json decoder of {@link TradeDto}, reading fields straight from the parser tokens without databind.
+ * createdAt is read either as the array written by LocalDateTimeSerializer or as an ISO local date time, the same as LocalDateTimeDeserializer.
+ * Unknown fields are skipped.
+ */
+final class TradeDtoJsonDecoder {
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private TradeDtoJsonDecoder() {
+	}
+
+	static TradeDto decode(byte[] data) {
+		try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new SerializationException("[Kafka] Trade is not a json object.");
+			}
+
+			TradeDto tradeDto = new TradeDto();
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String fieldName = parser.getCurrentName();
+				JsonToken token = parser.nextToken();
+				if (token == JsonToken.VALUE_NULL) {
+					continue;
+				}
+				readField(parser, fieldName, tradeDto);
+			}
+
+			return tradeDto;
+		} catch (IOException | IllegalArgumentException | DateTimeException exception) {
+			throw new SerializationException("[Kafka] Failed to decode trade of " + data.length + " bytes.", exception);
+		}
+	}
+
+	private static void readField(JsonParser parser, String fieldName, TradeDto tradeDto) throws IOException {
+		switch (fieldName) {
+			case "id":
+				tradeDto.setId(parser.getValueAsString());
+				break;
+			case "exchange":
+				tradeDto.setExchange(Exchange.valueOf(parser.getText()));
+				break;
+			case "symbol":
+				tradeDto.setSymbol(parser.getText());
+				break;
+			case "tradeType":
+				tradeDto.setTradeType(TradeType.valueOf(parser.getText()));
+				break;
+			case "change":
+				tradeDto.setChange(Change.valueOf(parser.getText()));
+				break;
+			case "price":
+				tradeDto.setPrice(parser.getValueAsDouble());
+				break;
+			case "volume":
+				tradeDto.setVolume(parser.getValueAsDouble());
+				break;
+			case "prevClosingPrice":
+				tradeDto.setPrevClosingPrice(parser.getValueAsDouble());
+				break;
+			case "changePrice":
+				tradeDto.setChangePrice(parser.getValueAsDouble());
+				break;
+			case "createdAt":
+				tradeDto.setCreatedAt(readLocalDateTime(parser));
+				break;
+			case "receivedTime":
+				tradeDto.setReceivedTime(parser.getValueAsLong());
+				break;
+			default:
+				parser.skipChildren();
+		}
+	}
+
+	private static LocalDateTime readLocalDateTime(JsonParser parser) throws IOException {
+		if (parser.currentToken() == JsonToken.VALUE_STRING) {
+			return LocalDateTime.parse(parser.getText());
+		}
+		if (parser.currentToken() != JsonToken.START_ARRAY) {
+			throw new SerializationException("[Kafka] Unexpected token of createdAt. [" + parser.currentToken() + "]");
+		}
+
+		// [year, month, day, hour, minute(, second(, nano))]
+		int[] values = new int[7];
+		int length = 0;
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			if (length == values.length) {
+				throw new SerializationException("[Kafka] createdAt has too many elements.");
+			}
+			values[length++] = parser.getIntValue();
+		}
+		if (length < 5) {
+			throw new SerializationException("[Kafka] createdAt has too few elements.");
+		}
+
+		return LocalDateTime.of(values[0], values[1], values[2], values[3], values[4], values[5], values[6]);
+	}
+}
@@ -0,0 +1,57 @@
+package com.moebius.backend.service.kafka.serializer;
+
+import com.moebius.backend.dto.trade.TradeDto;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Writes trades in the binary layout of {@link TradeDtoBinaryCodec} with its version in the {@link #VERSION_HEADER} header
+ * when {@link #FORMAT_CONFIG} is binary. Trades are written as json otherwise, so that a producer switches to the binary layout
+ * only once all consumers of the topic can read it.
+ */
+public class TradeDtoSerializer implements Serializer<TradeDto> {
+	public static final String VERSION_HEADER = "moebius.trade.version";
+	public static final String FORMAT_CONFIG = "moebius.trade.format";
+	public static final String BINARY_FORMAT = "binary";
+	public static final String JSON_FORMAT = "json";
+
+	private static final byte[] VERSION = {TradeDtoBinaryCodec.VERSION};
+
+	private final JsonSerializer<TradeDto> jsonSerializer = new JsonSerializer<>();
+	private boolean binary;
+
+	@Override
+	public void configure(Map<String, ?> configs, boolean isKey) {
+		binary = BINARY_FORMAT.equals(configs.get(FORMAT_CONFIG));
+		jsonSerializer.configure(configs, isKey);
+	}
+
+	@Override
+	public byte[] serialize(String topic, Headers headers, TradeDto data) {
+		if (data == null) {
+			return null;
+		}
+		if (!binary || headers == null) {
+			return jsonSerializer.serialize(topic, headers, data);
+		}
+
+		headers.add(VERSION_HEADER, VERSION);
+		return TradeDtoBinaryCodec.encode(data);
+	}
+
+	/**
+	 * Without headers the version can not be told, so trades are written as json.
+	 */
+	@Override
+	public byte[] serialize(String topic, TradeDto data) {
+		return jsonSerializer.serialize(topic, data);
+	}
+
+	@Override
+	public void close() {
+		jsonSerializer.close();
+	}
+}
@@ -12,19 +12,17 @@ import com.moebius.backend.service.exchange.UpbitService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mongodb.UncategorizedMongoDbException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
-import reactor.util.function.Tuple2;
 
 import java.util.List;
 import java.util.Map;
-
-import static com.moebius.backend.utils.ThreadScheduler.COMPUTE;
-import static com.moebius.backend.utils.ThreadScheduler.IO;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -35,33 +33,35 @@ public class MarketService {
 	@Value("${exchange.upbit.rest.market}")
 	private String marketUri;
 
+	@Qualifier("upbitWebClient")
 	private final WebClient webClient;
 	private final MarketRepository marketRepository;
 	private final MarketAssembler marketAssembler;
 	// TODO : need to apply interface (change to ExchangeService)
 	private final UpbitService upbitService;
+	private final MarketSnapshotService marketSnapshotService;
+	private final UpbitTradeMetaService upbitTradeMetaService;
 
-	public void updateMarketPrice(TradeDto tradeDto) {
-		getMarketAndTradeMeta(tradeDto)
-			.onErrorResume(UncategorizedMongoDbException.class, exception -> getMarketAndTradeMeta(tradeDto))
-			.map(tuple -> marketAssembler.assembleUpdatedMarket(tuple.getT1(), tradeDto, tuple.getT2()))
-			.flatMap(marketRepository::save)
-			.subscribe();
+	/**
+	 * Updates the in-memory market snapshot only, the snapshot is written behind to mongo by {@link MarketSnapshotService}.
+	 */
+	public Mono<Void> updateMarketPrice(TradeDto tradeDto) {
+		return Mono.zip(getMarketSnapshot(tradeDto.getExchange(), tradeDto.getSymbol()), getTradeMeta(tradeDto.getSymbol()))
+			.doOnNext(tuple -> marketSnapshotService.updateMarket(tuple.getT1(), tradeDto, tuple.getT2()))
+			.then();
 	}
 
 	public Mono<ResponseEntity<List<MarketResponseDto>>> getMarkets(Exchange exchange) {
-		return marketRepository.findAllByExchange(exchange)
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
-			.map(marketAssembler::assembleResponse)
-			.collectList()
+		return marketSnapshotService.getMarkets(exchange)
+			.map(markets -> markets.stream()
+				.map(marketAssembler::assembleResponse)
+				.collect(Collectors.toList()))
 			.map(ResponseEntity::ok);
 	}
 
 	public Mono<ResponseEntity<String>> deleteMarket(String id) {
 		return marketRepository.deleteById(new ObjectId(id))
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
+			.doOnSuccess(aVoid -> marketSnapshotService.removeMarket(new ObjectId(id)))
 			.map(aVoid -> {
 				log.info("[Market] The market has been deleted. [id : {}]", id);
 				return ResponseEntity.ok().build();
@@ -74,8 +74,6 @@ public class MarketService {
 			.uri(publicUri + marketUri)
 			.retrieve()
 			.bodyToMono(MarketsDto.class)
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
 			.map(marketsDto -> marketAssembler.assembleMarkets(exchange, marketsDto))
 			.map(markets -> {
 				markets.stream()
@@ -86,41 +84,40 @@ public class MarketService {
 	}
 
 	public Mono<Map<String, Double>> getCurrencyMarketPriceMap(Exchange exchange) {
-		return marketRepository.findAllByExchange(exchange)
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
-			.collectList()
-			.map(marketAssembler::assembleCurrencyMarketPrices);
+		return marketSnapshotService.getCurrencyPrices(exchange);
 	}
 
 	public Mono<Double> getCurrentPrice(Exchange exchange, String symbol) {
-		return marketRepository.findByExchangeAndSymbol(exchange, symbol)
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
+		return getMarketSnapshot(exchange, symbol)
 			.map(Market::getCurrentPrice);
 	}
 
-	private Mono<Tuple2<Market, UpbitTradeMetaDto>> getMarketAndTradeMeta(TradeDto tradeDto) {
-		return Mono.zip(
-			marketRepository.findByExchangeAndSymbol(tradeDto.getExchange(), tradeDto.getSymbol()),
-			upbitService.getTradeMeta(tradeDto.getSymbol())
-		).subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler());
+	private Mono<Market> getMarketSnapshot(Exchange exchange, String symbol) {
+		return Mono.justOrEmpty(marketSnapshotService.getMarket(exchange, symbol))
+			.switchIfEmpty(Mono.defer(() -> marketRepository.findByExchangeAndSymbol(exchange, symbol)
+				.onErrorResume(UncategorizedMongoDbException.class, exception -> marketRepository.findByExchangeAndSymbol(exchange, symbol))
+				.doOnNext(marketSnapshotService::putMarket)));
+	}
+
+	/**
+	 * Trade metas are read from the snapshot of {@link UpbitTradeMetaService},
+	 * only a market which is not in the snapshot yet requests its own trade meta.
+	 */
+	private Mono<UpbitTradeMetaDto> getTradeMeta(String symbol) {
+		return Mono.justOrEmpty(upbitTradeMetaService.getTradeMeta(symbol))
+			.switchIfEmpty(Mono.defer(() -> upbitService.getTradeMeta(symbol)));
 	}
 
 	private Mono<Boolean> createMarketIfNotExist(Exchange exchange, String symbol) {
 		return marketRepository.findByExchangeAndSymbol(exchange, symbol)
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
 			.hasElement()
 			.flatMap(exist -> exist ? Mono.just(Boolean.FALSE) : saveMarket(marketAssembler.assembleMarket(exchange, symbol)));
 	}
 
 	private Mono<Boolean> saveMarket(Market market) {
 		return marketRepository.save(market)
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
 			.map(createdMarket -> {
+				marketSnapshotService.putMarket(createdMarket);
 				log.info("[Market] {} / {} is not found, The new market will be saved.", market.getExchange(), market.getSymbol());
 				return true;
 			});
@@ -0,0 +1,170 @@
+package com.moebius.backend.service.market;
+
+import com.moebius.backend.assembler.MarketAssembler;
+import com.moebius.backend.domain.commons.Exchange;
+import com.moebius.backend.domain.markets.Market;
+import com.moebius.backend.domain.markets.MarketRepository;
+import com.moebius.backend.dto.exchange.upbit.UpbitTradeMetaDto;
+import com.moebius.backend.dto.trade.TradeDto;
+import com.moebius.backend.utils.OrderUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the latest market snapshots in memory and writes them behind to mongo.
+ * Every trade replaces the snapshot of its market, and the periodic flush writes only the latest snapshot
+ * of each market updated since the previous flush, so mongo writes are bounded by the number of markets, not trades.
+ * Markets of an exchange are loaded once on the first read, after that every read is served from memory
+ * without locking, including the currency to price map which is maintained on every update.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MarketSnapshotService {
+	private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(10);
+
+	private final MarketRepository marketRepository;
+	private final MarketAssembler marketAssembler;
+	private final OrderUtil orderUtil;
+	private final Map<Exchange, Map<String, Market>> snapshots = new ConcurrentHashMap<>();
+	private final Map<Exchange, Map<String, Double>> currencyPrices = new ConcurrentHashMap<>();
+	private final Map<Exchange, Mono<Void>> marketLoads = new ConcurrentHashMap<>();
+	private final Map<Exchange, Set<String>> dirtySymbols = new ConcurrentHashMap<>();
+	private final AtomicBoolean flushing = new AtomicBoolean();
+
+	public Market getMarket(Exchange exchange, String symbol) {
+		return getSnapshots(exchange).get(symbol);
+	}
+
+	public Mono<List<Market>> getMarkets(Exchange exchange) {
+		return loadMarkets(exchange)
+			.then(Mono.fromSupplier(() -> getSnapshots(exchange).values().stream()
+				.sorted(Comparator.comparing(Market::getSymbol))
+				.collect(Collectors.toList())));
+	}
+
+	public Mono<Map<String, Double>> getCurrencyPrices(Exchange exchange) {
+		return loadMarkets(exchange)
+			.then(Mono.fromSupplier(() -> Collections.unmodifiableMap(getCurrencyPriceMap(exchange))));
+	}
+
+	/**
+	 * Puts the market only if there is no snapshot yet, so a snapshot fed by trades is never replaced by a stale one.
+	 */
+	public void putMarket(Market market) {
+		if (getSnapshots(market.getExchange()).putIfAbsent(market.getSymbol(), market) == null) {
+			getCurrencyPriceMap(market.getExchange()).put(orderUtil.getTargetCurrencyBySymbol(market.getSymbol()), market.getCurrentPrice());
+		}
+	}
+
+	public void removeMarket(ObjectId id) {
+		snapshots.forEach((exchange, markets) -> markets.values().removeIf(market -> {
+			if (!Objects.equals(market.getId(), id)) {
+				return false;
+			}
+			getCurrencyPriceMap(exchange).remove(orderUtil.getTargetCurrencyBySymbol(market.getSymbol()));
+			return true;
+		}));
+	}
+
+	/**
+	 * Replaces the snapshot of the market with an updated copy, so readers never see a half updated market.
+	 */
+	public Market updateMarket(Market market, TradeDto tradeDto, UpbitTradeMetaDto tradeMetaDto) {
+		Market updatedMarket = getSnapshots(market.getExchange()).compute(market.getSymbol(), (symbol, snapshot) -> {
+			Market nextSnapshot = marketAssembler.assembleUpdatedMarket(marketAssembler.assembleSnapshot(snapshot == null ? market : snapshot),
+				tradeDto, tradeMetaDto);
+			getCurrencyPriceMap(market.getExchange()).put(orderUtil.getTargetCurrencyBySymbol(symbol), nextSnapshot.getCurrentPrice());
+			return nextSnapshot;
+		});
+		getDirtySymbols(market.getExchange()).add(market.getSymbol());
+
+		return updatedMarket;
+	}
+
+	@Scheduled(fixedDelayString = "${moebius.market.flush-interval:1000}")
+	public void flushMarketsPeriodically() {
+		if (!flushing.compareAndSet(false, true)) {
+			return;
+		}
+
+		flushMarkets()
+			.doFinally(signalType -> flushing.set(false))
+			.subscribe();
+	}
+
+	public Mono<Integer> flushMarkets() {
+		List<Market> markets = drainDirtyMarkets();
+		if (markets.isEmpty()) {
+			return Mono.just(0);
+		}
+
+		return marketRepository.updateAllMarketPrices(markets)
+			.doOnNext(count -> log.debug("[Market] {} market snapshots have been flushed.", count))
+			.onErrorResume(exception -> {
+				log.warn("[Market] Failed to flush {} market snapshots, they will be retried on the next flush.", markets.size(), exception);
+				markets.forEach(market -> getDirtySymbols(market.getExchange()).add(market.getSymbol()));
+				return Mono.just(0);
+			});
+	}
+
+	@PreDestroy
+	public void flushMarketsOnShutdown() {
+		flushMarkets().block(SHUTDOWN_FLUSH_TIMEOUT);
+	}
+
+	private List<Market> drainDirtyMarkets() {
+		List<Market> markets = new ArrayList<>();
+		dirtySymbols.forEach((exchange, symbols) -> {
+			Iterator<String> iterator = symbols.iterator();
+			while (iterator.hasNext()) {
+				String symbol = iterator.next();
+				iterator.remove();
+				Market market = getMarket(exchange, symbol);
+				if (market != null) {
+					markets.add(market);
+				}
+			}
+		});
+
+		return markets;
+	}
+
+	private Mono<Void> loadMarkets(Exchange exchange) {
+		return marketLoads.computeIfAbsent(exchange, key -> marketRepository.findAllByExchange(key)
+			.doOnNext(this::putMarket)
+			.then()
+			.doOnError(exception -> marketLoads.remove(key))
+			.cache());
+	}
+
+	private Map<String, Market> getSnapshots(Exchange exchange) {
+		return snapshots.computeIfAbsent(exchange, key -> new ConcurrentHashMap<>());
+	}
+
+	private Map<String, Double> getCurrencyPriceMap(Exchange exchange) {
+		return currencyPrices.computeIfAbsent(exchange, key -> new ConcurrentHashMap<>());
+	}
+
+	private Set<String> getDirtySymbols(Exchange exchange) {
+		return dirtySymbols.computeIfAbsent(exchange, key -> ConcurrentHashMap.newKeySet());
+	}
+}
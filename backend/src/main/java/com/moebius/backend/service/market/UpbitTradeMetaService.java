@@ -0,0 +1,88 @@
+package com.moebius.backend.service.market;
+
+import com.moebius.backend.domain.commons.Exchange;
+import com.moebius.backend.domain.markets.Market;
+import com.moebius.backend.dto.exchange.upbit.UpbitTradeMetaDto;
+import com.moebius.backend.service.exchange.UpbitService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the trade metas of all the upbit markets in an immutable snapshot which is read without any I/O.
+ * The snapshot is replaced in background by requesting the trade metas of a batch of markets at once,
+ * so the number of requests is bounded by the number of batches, not markets.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UpbitTradeMetaService {
+	@Value("${exchange.upbit.trade-meta.batch-size:100}")
+	private int batchSize = 100;
+
+	private final UpbitService upbitService;
+	private final MarketSnapshotService marketSnapshotService;
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+	private volatile Map<String, UpbitTradeMetaDto> tradeMetas = Collections.emptyMap();
+
+	public UpbitTradeMetaDto getTradeMeta(String symbol) {
+		return tradeMetas.get(symbol);
+	}
+
+	@Scheduled(fixedDelayString = "${exchange.upbit.trade-meta.refresh-interval:30000}", initialDelay = 1000)
+	public void refreshTradeMetasPeriodically() {
+		if (!refreshing.compareAndSet(false, true)) {
+			return;
+		}
+
+		refreshTradeMetas()
+			.doFinally(signalType -> refreshing.set(false))
+			.subscribe();
+	}
+
+	public Mono<Integer> refreshTradeMetas() {
+		return marketSnapshotService.getMarkets(Exchange.UPBIT)
+			.map(markets -> markets.stream()
+				.map(Market::getSymbol)
+				.collect(Collectors.toList()))
+			.flatMap(this::refreshTradeMetas);
+	}
+
+	/**
+	 * Trade metas of a failed batch are kept from the previous snapshot, trade metas of removed markets are dropped.
+	 */
+	private Mono<Integer> refreshTradeMetas(List<String> symbols) {
+		Map<String, UpbitTradeMetaDto> previousTradeMetas = tradeMetas;
+
+		return Flux.fromIterable(symbols)
+			.buffer(batchSize)
+			.concatMap(batchSymbols -> upbitService.getTradeMetas(batchSymbols)
+				.onErrorResume(exception -> {
+					log.warn("[Upbit] Failed to refresh trade metas of {} markets.", batchSymbols.size(), exception);
+					return Mono.just(Collections.<String, UpbitTradeMetaDto>emptyMap());
+				}))
+			.collect(() -> new HashMap<String, UpbitTradeMetaDto>(), Map::putAll)
+			.map(nextTradeMetas -> {
+				symbols.forEach(symbol -> {
+					UpbitTradeMetaDto previousTradeMeta = previousTradeMetas.get(symbol);
+					if (previousTradeMeta != null) {
+						nextTradeMetas.putIfAbsent(symbol, previousTradeMeta);
+					}
+				});
+				tradeMetas = Collections.unmodifiableMap(nextTradeMetas);
+				log.debug("[Upbit] Trade metas of {} markets have been refreshed.", nextTradeMetas.size());
+				return nextTradeMetas.size();
+			});
+	}
+}
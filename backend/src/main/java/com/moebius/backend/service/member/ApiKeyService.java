@@ -9,11 +9,12 @@ import com.moebius.backend.dto.frontend.response.ApiKeyResponseDto;
 import com.moebius.backend.exception.DataNotFoundException;
 import com.moebius.backend.exception.DuplicatedDataException;
 import com.moebius.backend.exception.ExceptionTypes;
+import com.moebius.backend.service.cache.ReactiveCache;
+import com.moebius.backend.service.cache.ReactiveCacheFactory;
 import com.moebius.backend.service.exchange.ExchangeService;
 import com.moebius.backend.service.exchange.ExchangeServiceFactory;
 import com.moebius.backend.utils.Verifier;
 import com.mongodb.DuplicateKeyException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
 import org.springframework.http.ResponseEntity;
@@ -21,26 +22,37 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-
-import static com.moebius.backend.utils.ThreadScheduler.COMPUTE;
-import static com.moebius.backend.utils.ThreadScheduler.IO;
+import java.util.Map;
+import java.util.function.Function;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ApiKeyService {
+	private static final String API_KEY_CACHE = "apiKey";
+
 	private final ApiKeyRepository apiKeyRepository;
 	private final ApiKeyAssembler apiKeyAssembler;
 	private final ExchangeServiceFactory exchangeServiceFactory;
+	// Api keys are cached on create and evicted on delete, the ttl bounds how long api keys deleted or rotated on other instances are used.
+	private final ReactiveCache<ObjectId, ApiKey> apiKeys;
+
+	public ApiKeyService(ApiKeyRepository apiKeyRepository, ApiKeyAssembler apiKeyAssembler, ExchangeServiceFactory exchangeServiceFactory,
+		ReactiveCacheFactory reactiveCacheFactory) {
+		this.apiKeyRepository = apiKeyRepository;
+		this.apiKeyAssembler = apiKeyAssembler;
+		this.exchangeServiceFactory = exchangeServiceFactory;
+		this.apiKeys = reactiveCacheFactory.createCache(API_KEY_CACHE, apiKeyRepository::findById);
+	}
 
 	public Mono<ResponseEntity<ApiKeyResponseDto>> verifyAndCreateApiKey(ApiKeyDto apiKeyDto, String memberId) {
 		Verifier.checkNullFields(apiKeyDto);
 		Verifier.checkBlankString(memberId);
 
 		return verifyApiKey(apiKeyDto)
-			.subscribeOn(COMPUTE.scheduler())
-			.publishOn(IO.scheduler())
 			.flatMap(clientResponse -> createApiKey(apiKeyDto, memberId));
 	}
 
@@ -48,8 +60,6 @@ public class ApiKeyService {
 		Verifier.checkBlankString(memberId);
 
 		return apiKeyRepository.findAllByMemberId(new ObjectId(memberId))
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
 			.switchIfEmpty(Mono.defer(() -> Mono.error(new DataNotFoundException(
 				ExceptionTypes.NONEXISTENT_DATA.getMessage("[ApiKey] Api key based on memberId(" + memberId + ")")))))
 			.map(apiKeyAssembler::assembleResponse)
@@ -61,9 +71,9 @@ public class ApiKeyService {
 		Verifier.checkBlankString(id);
 		Verifier.checkBlankString(memberId);
 
-		return apiKeyRepository.deleteByIdAndMemberId(new ObjectId(id), new ObjectId(memberId))
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
+		ObjectId apiKeyId = new ObjectId(id);
+		return apiKeyRepository.deleteByIdAndMemberId(apiKeyId, new ObjectId(memberId))
+			.doOnSuccess(aVoid -> evictApiKey(apiKeyId))
 			.onErrorMap(exception -> {
 				log.error("[ApiKey] Deletion failed.", exception);
 				return new DataNotFoundException(ExceptionTypes.NONEXISTENT_DATA.getMessage("[ApiKey] Api key"));
@@ -76,8 +86,6 @@ public class ApiKeyService {
 		Verifier.checkNullFields(exchange);
 
 		return apiKeyRepository.findByMemberIdAndExchange(new ObjectId(memberId), exchange)
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
 			.switchIfEmpty(Mono.defer(() -> Mono.error(new DataNotFoundException(
 				ExceptionTypes.NONEXISTENT_DATA.getMessage("[ApiKey] Api key based on memberId(" + memberId + ") and exchange(" + exchange + ")")))));
 	}
@@ -85,13 +93,41 @@ public class ApiKeyService {
 	public Mono<ApiKey> getApiKeyById(String id) {
 		Verifier.checkBlankString(id);
 
-		return apiKeyRepository.findById(new ObjectId(id))
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
+		return apiKeys.get(new ObjectId(id))
 			.switchIfEmpty(Mono.defer(() -> Mono.error(new DataNotFoundException(
 				ExceptionTypes.NONEXISTENT_DATA.getMessage("[ApiKey] Api key based on id(" + id + ")")))));
 	}
 
+	/**
+	 * Gets the api keys by ids with a single query for the api keys which are not cached.
+	 * Nonexistent api keys are left out of the result.
+	 */
+	public Mono<Map<ObjectId, ApiKey>> getApiKeysByIds(Collection<ObjectId> ids) {
+		Map<ObjectId, ApiKey> foundApiKeys = new HashMap<>();
+		List<ObjectId> uncachedIds = new ArrayList<>();
+		ids.forEach(id -> {
+			ApiKey cachedApiKey = apiKeys.getIfPresent(id);
+			if (cachedApiKey != null) {
+				foundApiKeys.put(id, cachedApiKey);
+			} else {
+				uncachedIds.add(id);
+			}
+		});
+
+		if (uncachedIds.isEmpty()) {
+			return Mono.just(foundApiKeys);
+		}
+
+		return apiKeyRepository.findAllById(uncachedIds)
+			.doOnNext(this::cacheApiKey)
+			.collectMap(ApiKey::getId, Function.identity(), () -> foundApiKeys)
+			.doOnNext(apiKeysById -> {
+				if (apiKeysById.size() < ids.size()) {
+					log.warn("[ApiKey] {} of {} api keys are not found.", ids.size() - apiKeysById.size(), ids.size());
+				}
+			});
+	}
+
 	private Mono<ClientResponse> verifyApiKey(ApiKeyDto apiKeyDto) {
 		log.info("[ApiKey] Start to verify api key. [{}]", apiKeyDto);
 
@@ -104,12 +140,23 @@ public class ApiKeyService {
 		log.info("[ApiKey] Start to create api key. [{}]", apiKeyDto);
 
 		return apiKeyRepository.save(apiKeyAssembler.assembleApiKey(apiKeyDto, memberId))
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
 			.onErrorMap(exception -> exception instanceof DuplicateKeyException ?
 				new DuplicatedDataException(ExceptionTypes.DUPLICATED_DATA.getMessage(apiKeyDto.getName())) :
 				exception)
+			.doOnNext(this::cacheApiKey)
 			.map(apiKeyAssembler::assembleResponse)
 			.map(ResponseEntity::ok);
 	}
+
+	private void cacheApiKey(ApiKey apiKey) {
+		if (apiKey.getId() != null) {
+			apiKeys.put(apiKey.getId(), apiKey);
+		}
+	}
+
+	private void evictApiKey(ObjectId apiKeyId) {
+		apiKeys.evict(apiKeyId);
+		exchangeServiceFactory.getServices()
+			.forEach(exchangeService -> exchangeService.evictApiKey(apiKeyId));
+	}
 }
@@ -26,8 +26,7 @@ import reactor.core.publisher.Mono;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
-import static com.moebius.backend.utils.ThreadScheduler.COMPUTE;
-import static com.moebius.backend.utils.ThreadScheduler.IO;
+import static com.moebius.backend.utils.ThreadScheduler.BLOCKING;
 
 @Slf4j
 @Service
@@ -53,8 +52,6 @@ public class EmailService {
 		Verifier.checkNullFields(verificationDto);
 
 		return memberRepository.findByEmail(verificationDto.getEmail())
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
 			.switchIfEmpty(Mono.defer(() -> Mono.error(new DataNotFoundException(ExceptionTypes.NONEXISTENT_DATA.getMessage(verificationDto.getEmail())))))
 			.filter(member -> !member.isActive() && member.getVerificationCode() != null)
 			.switchIfEmpty(Mono.defer(() -> Mono.error(new WrongDataException(ExceptionTypes.ALREADY_VERIFIED_DATA.getMessage(verificationDto.getEmail())))))
@@ -92,17 +89,14 @@ public class EmailService {
 				throw me;
 			}
 		}).doOnSuccess(stringResponseEntity -> log.info("[Email] Succeeded in sending verification email. [{}]", member.getEmail()))
-			.subscribeOn(IO.scheduler());
+			.subscribeOn(BLOCKING.scheduler());
 	}
 
 	private Mono<Member> updateMember(Member member) {
-		return Mono.fromCallable(() -> {
-			member.setActive(true);
-			member.setVerificationCode(null);
-			member.setUpdatedAt(LocalDateTime.now());
-			return member;
-		}).subscribeOn(COMPUTE.scheduler())
-			.publishOn(IO.scheduler())
-			.flatMap(memberRepository::save);
+		member.setActive(true);
+		member.setVerificationCode(null);
+		member.setUpdatedAt(LocalDateTime.now());
+
+		return memberRepository.save(member);
 	}
 }
@@ -20,8 +20,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import static com.moebius.backend.utils.ThreadScheduler.COMPUTE;
-import static com.moebius.backend.utils.ThreadScheduler.IO;
+import static com.moebius.backend.utils.ThreadScheduler.BLOCKING;
 
 @Slf4j
 @Service
@@ -34,8 +33,6 @@ public class MemberService {
 
 	public Mono<ResponseEntity<String>> checkDuplicateMember(String email) {
 		return memberRepository.findByEmail(email)
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
 			.hasElement()
 			.map(duplicated -> duplicated ?
 				ResponseEntity.ok(email) :
@@ -45,9 +42,9 @@ public class MemberService {
 	public Mono<ResponseEntity<?>> createMember(SignupDto signupDto) {
 		log.info("[Member] Start to create member. [{}]", signupDto);
 
-		return memberRepository.save(memberAssembler.assembleMember(signupDto))
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
+		return Mono.fromCallable(() -> memberAssembler.assembleMember(signupDto))
+			.subscribeOn(BLOCKING.scheduler())
+			.flatMap(memberRepository::save)
 			.onErrorMap(exception -> exception instanceof DuplicateKeyException ?
 				new DuplicatedDataException(ExceptionTypes.DUPLICATED_DATA.getMessage(signupDto.getEmail())) :
 				exception)
@@ -59,10 +56,8 @@ public class MemberService {
 
 	public Mono<ResponseEntity<?>> login(LoginDto loginDto) {
 		return memberRepository.findByEmail(loginDto.getEmail())
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
 			.switchIfEmpty(Mono.defer(() -> Mono.error(new DataNotFoundException(ExceptionTypes.NONEXISTENT_DATA.getMessage(loginDto.getEmail())))))
-			.filter(member -> passwordEncoder.matches(loginDto.getPassword(), member.getPassword()))
+			.filterWhen(member -> matchesPassword(loginDto.getPassword(), member))
 			.switchIfEmpty(Mono.defer(() -> Mono.error(new WrongDataException(ExceptionTypes.WRONG_DATA.getMessage("Email or password")))))
 			.filter(Member::isActive)
 			.switchIfEmpty(Mono.defer(() -> Mono.error(new DataNotVerifiedException(ExceptionTypes.UNVERIFIED_DATA.getMessage(loginDto.getEmail())))))
@@ -73,9 +68,15 @@ public class MemberService {
 		Verifier.checkBlankString(id);
 
 		return memberRepository.findById(new ObjectId(id))
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
 			.map(memberAssembler::assembleDto)
 			.map(ResponseEntity::ok);
 	}
+
+	/**
+	 * Password hashing is cpu bound for long by design, so it is kept off the event loop.
+	 */
+	private Mono<Boolean> matchesPassword(String rawPassword, Member member) {
+		return Mono.fromCallable(() -> passwordEncoder.matches(rawPassword, member.getPassword()))
+			.subscribeOn(BLOCKING.scheduler());
+	}
 }
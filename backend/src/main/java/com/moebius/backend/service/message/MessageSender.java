@@ -8,7 +8,6 @@ import com.moebius.backend.service.kafka.producer.MessageKafkaProducer;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Mono;
 
-import java.util.Objects;
 import java.util.Optional;
 
 @RequiredArgsConstructor
@@ -24,9 +23,8 @@ public abstract class MessageSender<PARAM, BODY> {
 
         );
 
-        return Mono.from(messageKafkaProducer.produceMessages(sendRequest)
-                .map(senderResult -> Objects.isNull(senderResult.exception())));
-
+        // Fire and forget, so that a burst of messages is batched by the producer. Send failures are reported by the producer metrics.
+        return Mono.fromSupplier(() -> messageKafkaProducer.send(sendRequest));
     }
 
     private MessageBodyDto<BODY> getMessageBody(PARAM parameter) {
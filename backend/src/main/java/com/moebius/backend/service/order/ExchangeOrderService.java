@@ -1,52 +1,69 @@
 package com.moebius.backend.service.order;
 
+import com.moebius.backend.configuration.TradePipelineProperties;
 import com.moebius.backend.domain.apikeys.ApiKey;
 import com.moebius.backend.domain.orders.Order;
 import com.moebius.backend.domain.orders.OrderPosition;
+import com.moebius.backend.domain.orders.OrderRepository;
+import com.moebius.backend.domain.orders.OrderStatus;
 import com.moebius.backend.dto.order.OrderDto;
 import com.moebius.backend.dto.trade.TradeDto;
 import com.moebius.backend.service.exchange.ExchangeService;
 import com.moebius.backend.service.exchange.ExchangeServiceFactory;
 import com.moebius.backend.service.member.ApiKeyService;
 import com.moebius.backend.service.order.factory.OrderFactoryManager;
+import com.moebius.backend.service.trade.TradePipelineMetrics;
 import com.moebius.backend.utils.OrderUtil;
 import com.moebius.backend.utils.Verifier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.reactive.TransactionalOperator;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static com.moebius.backend.service.trade.TradePipelineMetrics.ORDER_SUBMIT_STAGE;
+import static com.moebius.backend.service.trade.TradePipelineMetrics.ORDER_TRIGGER_STAGE;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ExchangeOrderService {
 	private final ApiKeyService apiKeyService;
-	private final OrderCacheService orderCacheService;
+	private final OrderRepository orderRepository;
+	private final OrderBookService orderBookService;
+	private final OrderStatusPollingService orderStatusPollingService;
 	private final ExchangeServiceFactory exchangeServiceFactory;
 	private final OrderFactoryManager orderFactoryManager;
-	private final TransactionalOperator transactionalOperator;
 	private final OrderUtil orderUtil;
+	private final TradePipelineProperties tradePipelineProperties;
+	private final TradePipelineMetrics tradePipelineMetrics;
 
 	public void order(ApiKey apiKey, Order order) {
 		ExchangeService exchangeService = exchangeServiceFactory.getService(order.getExchange());
 
-		exchangeService.requestOrder(apiKey, order).subscribe();
+		exchangeService.requestOrder(apiKey, order)
+			.doOnSuccess(clientResponse -> pollOrderStatusIfRequested(order, clientResponse))
+			.subscribe();
 	}
 
-	public void orderByTrade(TradeDto tradeDto) {
+	public Mono<Void> orderByTrade(TradeDto tradeDto) {
 		Verifier.checkNullFields(tradeDto);
 
-		orderCacheService.getReadyOrderCountByExchangeAndSymbol(tradeDto.getExchange(), tradeDto.getSymbol())
-			.filter(orderCount -> orderCount == 0)
-			.switchIfEmpty(Mono.defer(() -> processTransactionalOrder(tradeDto)))
-			.subscribe();
+		List<OrderPosition> triggeredPositions = Arrays.stream(OrderPosition.values())
+			.filter(orderPosition -> orderBookService.hasTriggeredOrders(tradeDto, orderPosition))
+			.collect(Collectors.toList());
+		if (triggeredPositions.isEmpty()) {
+			return Mono.empty();
+		}
+
+		return processTriggeredOrders(tradeDto, triggeredPositions).then();
 	}
 
 	public void cancelIfNeeded(ApiKey apiKey, OrderDto orderDto) {
@@ -59,20 +76,27 @@ public class ExchangeOrderService {
 			.subscribe();
 	}
 
-	private Mono<Long> processTransactionalOrder(TradeDto tradeDto) {
+	/**
+	 * Every triggered order is claimed by a conditional update of its own before it is requested,
+	 * so an order claimed by a concurrent trade or another instance is never requested twice.
+	 * Every accepted order request is recorded as the latency from receiving the trade on the exchange.
+	 */
+	private Mono<Long> processTriggeredOrders(TradeDto tradeDto, List<OrderPosition> triggeredPositions) {
 		ExchangeService exchangeService = exchangeServiceFactory.getService(tradeDto.getExchange());
 
-		return getAndUpdateOrders(tradeDto)
-			.flatMap(order -> requestOrder(exchangeService, order))
-			.count()
-			.flatMap(count -> evictIfCountNotZero(tradeDto, count))
-			.as(transactionalOperator::transactional)
-			.onErrorReturn(UncategorizedMongoDbException.class, 0L);
+		return tradePipelineMetrics.time(ORDER_TRIGGER_STAGE, getAndUpdateOrders(tradeDto, triggeredPositions).collectList())
+			.flatMapMany(orders -> requestOrders(exchangeService, orders))
+			.doOnNext(clientResponse -> {
+				if (clientResponse.statusCode().is2xxSuccessful()) {
+					tradePipelineMetrics.recordOrderSubmitted(tradeDto);
+				}
+			})
+			.count();
 	}
 
-	private Flux<Order> getAndUpdateOrders(TradeDto tradeDto) {
+	private Flux<Order> getAndUpdateOrders(TradeDto tradeDto, List<OrderPosition> triggeredPositions) {
 		return Flux.concat(
-			Flux.fromStream(Arrays.stream(OrderPosition.values())
+			Flux.fromStream(triggeredPositions.stream()
 				.map(orderFactoryManager::getOrdersFactory)
 				.filter(Objects::nonNull)
 				.map(ordersFactory -> ordersFactory.getAndUpdateOrdersToInProgress(tradeDto))
@@ -80,15 +104,74 @@ public class ExchangeOrderService {
 		);
 	}
 
-	private Mono<ClientResponse> requestOrder(ExchangeService exchangeService, Order order) {
-		return apiKeyService.getApiKeyById(order.getApiKeyId().toHexString())
-			.flatMap(apiKey -> exchangeService.requestOrder(apiKey, order));
+	private Flux<ClientResponse> requestOrders(ExchangeService exchangeService, List<Order> orders) {
+		if (orders.isEmpty()) {
+			return Flux.empty();
+		}
+
+		return apiKeyService.getApiKeysByIds(orders.stream()
+			.map(Order::getApiKeyId)
+			.collect(Collectors.toSet()))
+			.onErrorResume(exception -> {
+				log.error("[Order] Failed to get api keys of claimed orders.", exception);
+				return Flux.fromIterable(orders)
+					.flatMap(order -> releaseOrder(order, OrderStatus.READY))
+					.then(Mono.empty());
+			})
+			.flatMapMany(apiKeys -> Flux.fromIterable(orders)
+				.flatMap(order -> requestOrder(exchangeService, apiKeys.get(order.getApiKeyId()), order),
+					tradePipelineProperties.getOrderRequestMaxInFlight()));
+	}
+
+	/**
+	 * A claimed order is never left IN_PROGRESS without an accepted request, which no one would poll or trigger again.
+	 * An order which has failed to be requested for now is released to READY for the next trade,
+	 * an order which can never be requested, without its api key or rejected by the exchange, is stopped.
+	 */
+	private Mono<ClientResponse> requestOrder(ExchangeService exchangeService, ApiKey apiKey, Order order) {
+		if (apiKey == null) {
+			log.warn("[Order] Api key of claimed order is not found. [{}]", order.getId());
+			return releaseOrder(order, OrderStatus.STOPPED).then(Mono.empty());
+		}
+
+		return tradePipelineMetrics.time(ORDER_SUBMIT_STAGE, exchangeService.requestOrder(apiKey, order))
+			.onErrorResume(exception -> {
+				log.error("[Order] Failed to request claimed order. [{}]", order.getId(), exception);
+				return releaseOrder(order, OrderStatus.READY).then(Mono.empty());
+			})
+			.flatMap(clientResponse -> handleOrderResponse(order, clientResponse).thenReturn(clientResponse));
+	}
+
+	private Mono<Void> handleOrderResponse(Order order, ClientResponse clientResponse) {
+		HttpStatus statusCode = clientResponse.statusCode();
+		if (statusCode.is2xxSuccessful()) {
+			orderStatusPollingService.addOrder(order);
+			return Mono.empty();
+		}
+
+		log.warn("[Order] Claimed order is not accepted. [{}, {}]", order.getId(), statusCode);
+		boolean retryable = statusCode == HttpStatus.TOO_MANY_REQUESTS || statusCode.is5xxServerError();
+		return releaseOrder(order, retryable ? OrderStatus.READY : OrderStatus.STOPPED);
+	}
+
+	/**
+	 * An order released to READY is added back to the order book, so that it is triggered again.
+	 */
+	private Mono<Void> releaseOrder(Order order, OrderStatus orderStatus) {
+		return orderRepository.releaseClaimedOrder(order, orderStatus)
+			.filter(released -> released && orderStatus == OrderStatus.READY)
+			.doOnNext(released -> {
+				order.setOrderStatus(OrderStatus.READY);
+				orderBookService.addOrder(order);
+			})
+			.doOnError(exception -> log.error("[Order] Failed to release claimed order. [{}]", order.getId(), exception))
+			.onErrorResume(exception -> Mono.empty())
+			.then();
 	}
 
-	private Mono<Long> evictIfCountNotZero(TradeDto tradeDto, long count) {
-		if (count != 0) {
-			orderCacheService.evictReadyOrderCount(tradeDto.getExchange(), tradeDto.getSymbol());
+	private void pollOrderStatusIfRequested(Order order, ClientResponse clientResponse) {
+		if (clientResponse != null && clientResponse.statusCode().is2xxSuccessful()) {
+			orderStatusPollingService.addOrder(order);
 		}
-		return Mono.just(count);
 	}
 }
@@ -2,10 +2,6 @@ package com.moebius.backend.service.order;
 
 import com.moebius.backend.assembler.order.OrderAssembler;
 import com.moebius.backend.assembler.order.OrderAssetAssembler;
-import com.moebius.backend.domain.orders.OrderStatusCondition;
-import com.moebius.backend.dto.trade.TradeDto;
-import com.moebius.backend.service.exchange.ExchangeService;
-import com.moebius.backend.service.exchange.ExchangeServiceFactory;
 import com.moebius.backend.utils.OrderUtil;
 import com.moebius.backend.domain.apikeys.ApiKey;
 import com.moebius.backend.domain.commons.EventType;
@@ -24,7 +20,6 @@ import com.moebius.backend.service.asset.AssetService;
 import com.moebius.backend.service.market.MarketService;
 import com.moebius.backend.service.member.ApiKeyService;
 import com.moebius.backend.service.order.validator.OrderValidator;
-import com.moebius.backend.utils.Verifier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
@@ -40,8 +35,6 @@ import java.util.stream.Collectors;
 
 import static com.moebius.backend.domain.commons.EventType.CREATE;
 import static com.moebius.backend.domain.commons.EventType.DELETE;
-import static com.moebius.backend.utils.ThreadScheduler.COMPUTE;
-import static com.moebius.backend.utils.ThreadScheduler.IO;
 
 @Slf4j
 @Service
@@ -55,27 +48,24 @@ public class InternalOrderService {
 	private final ApiKeyService apiKeyService;
 	private final AssetService assetService;
 	private final MarketService marketService;
-	private final OrderCacheService orderCacheService;
+	private final OrderBookService orderBookService;
 	private final ExchangeOrderService exchangeOrderService;
-	private final ExchangeServiceFactory exchangeServiceFactory;
+	private final OrderStatusPollingService orderStatusPollingService;
 
 	public Mono<ResponseEntity<OrderResponseDto>> processOrders(String memberId, Exchange exchange, List<OrderDto> orderDtos) {
 		orderValidator.validate(orderDtos);
 
 		return apiKeyService.getApiKeyByMemberIdAndExchange(memberId, exchange)
-			.subscribeOn(COMPUTE.scheduler())
 			.flatMapIterable(apiKey -> orderDtos.stream()
 				.map(orderDto -> processOrder(apiKey, orderDto))
 				.collect(Collectors.toList()))
 			.collectList()
-			.doOnSuccess(this::evictOrderCaches)
 			.map(orderAssembler::assembleResponseDto)
 			.map(ResponseEntity::ok);
 	}
 
 	public Mono<ResponseEntity<OrderResponseDto>> getOrdersByExchange(String memberId, Exchange exchange) {
 		return getOrders(memberId, exchange, apiKey -> orderRepository.findAllByApiKeyId(apiKey.getId()))
-			.subscribeOn(COMPUTE.scheduler())
 			.map(orderAssembler::assembleResponseDto)
 			.map(ResponseEntity::ok);
 	}
@@ -83,7 +73,6 @@ public class InternalOrderService {
 	public Mono<ResponseEntity<OrderResponseDto>> getOrdersByExchangeAndSymbol(String memberId, Exchange exchange, String symbol) {
 		return getOrders(memberId, exchange, apiKey -> orderRepository.findAllByApiKeyId(apiKey.getId()))
 			.map(orders -> orderUtil.filterOrdersBySymbol(orders, symbol))
-			.subscribeOn(COMPUTE.scheduler())
 			.map(orderAssembler::assembleResponseDto)
 			.map(ResponseEntity::ok);
 	}
@@ -94,23 +83,11 @@ public class InternalOrderService {
 				.map(orderAssetAssembler::assembleCurrencyToOrderDtos),
 			assetService.getCurrencyAssetMap(memberId, exchange),
 			marketService.getCurrencyMarketPriceMap(exchange)
-		).subscribeOn(COMPUTE.scheduler())
-			.map(tuple -> extractOrderStatuses(tuple.getT1(), tuple.getT2(), tuple.getT3()))
+		).map(tuple -> extractOrderStatuses(tuple.getT1(), tuple.getT2(), tuple.getT3()))
 			.map(orderAssetAssembler::assembleOrderAssetResponse)
 			.map(ResponseEntity::ok);
 	}
 
-	public void updateOrderStatusByTrade(TradeDto tradeDto) {
-		Verifier.checkNullFields(tradeDto);
-
-		OrderStatusCondition inProgressStatusCondition = orderAssembler.assembleInProgressStatusCondition(tradeDto);
-		orderRepository.findAllByOrderStatusCondition(inProgressStatusCondition)
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
-			.flatMap(this::getAndUpdateOrderStatus)
-			.subscribe();
-}
-
 	private OrderDto processOrder(ApiKey apiKey, OrderDto orderDto) {
 		EventType eventType = orderDto.getEventType();
 
@@ -121,6 +98,10 @@ public class InternalOrderService {
 			).subscribe(tuple -> requestOrderIfNeeded(apiKey, tuple.getT1(), tuple.getT2()));
 		} else if (eventType == DELETE) {
 			deleteOrder(orderDto.getId())
+				.doOnSuccess(nothing -> {
+					orderBookService.removeOrder(orderDto);
+					orderStatusPollingService.removeOrder(new ObjectId(orderDto.getId()));
+				})
 				.subscribe(nothing -> exchangeOrderService.cancelIfNeeded(apiKey, orderDto));
 		}
 
@@ -131,33 +112,22 @@ public class InternalOrderService {
 		if (orderUtil.isOrderRequestNeeded(order, price)) {
 			updateOrderStatus(order, OrderStatus.IN_PROGRESS)
 				.subscribe(updatedOrder -> exchangeOrderService.order(apiKey, updatedOrder));
+		} else {
+			orderBookService.addOrder(order);
 		}
 	}
 
 	private Mono<Order> createOrder(ApiKey apiKey, OrderDto orderDto) {
-		return orderRepository.save(orderAssembler.assembleReadyOrder(apiKey, orderDto))
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler());
+		return orderRepository.save(orderAssembler.assembleReadyOrder(apiKey, orderDto));
 	}
 
 	private Mono<Void> deleteOrder(String id) {
-		return orderRepository.deleteById(new ObjectId(id))
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler());
-	}
-
-	private void evictOrderCaches(List<OrderDto> orderDtos) {
-		orderDtos.stream()
-			.collect(Collectors.groupingBy(OrderDto::getSymbol))
-			.keySet()
-			.forEach(symbol -> orderCacheService.evictReadyOrderCount(orderDtos.get(0).getExchange(), symbol));
+		return orderRepository.deleteById(new ObjectId(id));
 	}
 
 	private Mono<List<OrderDto>> getOrders(String memberId, Exchange exchange, Function<ApiKey, Flux<Order>> getOrdersFunction) {
 		return apiKeyService.getApiKeyByMemberIdAndExchange(memberId, exchange)
 			.flatMapMany(getOrdersFunction)
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler())
 			.switchIfEmpty(Mono.defer(() -> Mono.error(new DataNotFoundException(
 				ExceptionTypes.NONEXISTENT_DATA.getMessage("[Order] order information based on memberId(" + memberId + ")")))))
 			.map(order -> orderAssembler.assembleDto(order, EventType.READ))
@@ -174,19 +144,9 @@ public class InternalOrderService {
 			.collect(Collectors.toList());
 	}
 
-	private Mono<Order> getAndUpdateOrderStatus(Order order) {
-		ExchangeService exchangeService = exchangeServiceFactory.getService(order.getExchange());
-
-		return apiKeyService.getApiKeyById(order.getApiKeyId().toHexString())
-			.flatMap(apiKey -> exchangeService.getCurrentOrderStatus(apiKey, order.getId().toHexString()))
-			.flatMap(orderStatusDto -> updateOrderStatus(order, orderStatusDto.getOrderStatus()));
-	}
-
 	private Mono<Order> updateOrderStatus(Order order, OrderStatus orderStatus) {
 		Order updatedOrder = orderAssembler.assembleOrderStatus(order, orderStatus);
 
-		return orderRepository.save(updatedOrder)
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler());
+		return orderRepository.save(updatedOrder);
 	}
 }
@@ -0,0 +1,99 @@
+package com.moebius.backend.service.order;
+
+import com.moebius.backend.domain.orders.Order;
+import com.moebius.backend.domain.orders.OrderPosition;
+import com.moebius.backend.domain.orders.OrderRepository;
+import com.moebius.backend.domain.orders.OrderStatus;
+import com.moebius.backend.dto.order.OrderDto;
+import com.moebius.backend.dto.trade.TradeDto;
+import com.moebius.backend.service.order.book.OrderBook;
+import com.moebius.backend.service.order.book.OrderBookKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.bson.types.ObjectId;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Resident index of READY orders keyed by exchange, symbol and order position.
+ * The order books let trades without any triggered order skip mongo, mongo remains the authority of which orders are claimed.
+ * Order books are loaded on startup, updated as orders are created, deleted and triggered,
+ * and reconciled with the primary periodically. Until the first load succeeds, every trade falls back to mongo.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderBookService {
+	private final OrderRepository orderRepository;
+	private final Map<OrderBookKey, OrderBook> orderBooks = new ConcurrentHashMap<>();
+	private volatile boolean loaded;
+
+	public Mono<Long> loadReadyOrders() {
+		long loadStartedAt = System.currentTimeMillis();
+
+		return orderRepository.findAllByOrderStatusFromPrimary(OrderStatus.READY)
+			.doOnNext(this::addOrder)
+			.map(Order::getId)
+			.collect(Collectors.toSet())
+			.doOnNext(orderIds -> orderBooks.values().forEach(orderBook -> orderBook.retainAll(orderIds, loadStartedAt)))
+			.map(orderIds -> (long) orderIds.size())
+			.doOnSuccess(count -> {
+				loaded = true;
+				log.info("[Order] Loaded {} ready orders to order books.", count);
+			})
+			.doOnError(exception -> log.error("[Order] Failed to load ready orders to order books.", exception));
+	}
+
+	@Scheduled(fixedDelayString = "${moebius.order.book.reconcile-interval:60000}",
+		initialDelayString = "${moebius.order.book.reconcile-interval:60000}")
+	public void reconcileOrderBooks() {
+		loadReadyOrders().subscribe();
+	}
+
+	public void addOrder(Order order) {
+		if (order == null || order.getId() == null || order.getOrderStatus() != OrderStatus.READY) {
+			return;
+		}
+
+		orderBooks.computeIfAbsent(getKey(order), key -> new OrderBook(key.getOrderPosition()))
+			.add(order);
+	}
+
+	public void removeOrder(Order order) {
+		removeOrder(getKey(order), order.getId());
+	}
+
+	public void removeOrder(OrderDto orderDto) {
+		if (StringUtils.isBlank(orderDto.getId())) {
+			return;
+		}
+		removeOrder(new OrderBookKey(orderDto.getExchange(), orderDto.getSymbol(), orderDto.getOrderPosition()),
+			new ObjectId(orderDto.getId()));
+	}
+
+	public boolean hasTriggeredOrders(TradeDto tradeDto, OrderPosition orderPosition) {
+		if (!loaded) {
+			return true;
+		}
+		OrderBook orderBook = orderBooks.get(new OrderBookKey(tradeDto.getExchange(), tradeDto.getSymbol(), orderPosition));
+
+		return orderBook != null && orderBook.isTriggered(tradeDto.getPrice());
+	}
+
+	private void removeOrder(OrderBookKey key, ObjectId orderId) {
+		OrderBook orderBook = orderBooks.get(key);
+		if (orderBook != null) {
+			orderBook.remove(orderId);
+		}
+	}
+
+	private OrderBookKey getKey(Order order) {
+		return new OrderBookKey(order.getExchange(), order.getSymbol(), order.getOrderPosition());
+	}
+}
@@ -0,0 +1,198 @@
+package com.moebius.backend.service.order;
+
+import com.moebius.backend.assembler.order.OrderAssembler;
+import com.moebius.backend.configuration.OrderStatusPollingProperties;
+import com.moebius.backend.domain.apikeys.ApiKey;
+import com.moebius.backend.domain.orders.Order;
+import com.moebius.backend.domain.orders.OrderRepository;
+import com.moebius.backend.domain.orders.OrderStatus;
+import com.moebius.backend.dto.order.OrderStatusDto;
+import com.moebius.backend.service.exchange.ExchangeService;
+import com.moebius.backend.service.exchange.ExchangeServiceFactory;
+import com.moebius.backend.service.member.ApiKeyService;
+import com.moebius.backend.service.order.status.PolledOrder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Reconciles IN_PROGRESS orders with exchanges on a schedule instead of polling them on every trade.
+ * Due orders are grouped by api key and queried in batches, orders which are not finished yet are polled again
+ * with an exponential backoff, so a long waiting order costs one batched request per max interval.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderStatusPollingService {
+	private final OrderRepository orderRepository;
+	private final OrderAssembler orderAssembler;
+	private final ApiKeyService apiKeyService;
+	private final ExchangeServiceFactory exchangeServiceFactory;
+	private final OrderStatusPollingProperties orderStatusPollingProperties;
+	private final Map<ObjectId, PolledOrder> polledOrders = new ConcurrentHashMap<>();
+	private final PriorityQueue<PolledOrder> pollingQueue = new PriorityQueue<>();
+	private final AtomicBoolean polling = new AtomicBoolean();
+
+	public Mono<Long> loadInProgressOrders() {
+		return orderRepository.findAllByOrderStatus(OrderStatus.IN_PROGRESS)
+			.doOnNext(this::addOrder)
+			.count()
+			.doOnSuccess(count -> log.info("[Order] Loaded {} in progress orders to poll their statuses.", count))
+			.doOnError(exception -> log.error("[Order] Failed to load in progress orders to poll their statuses.", exception));
+	}
+
+	public void addOrder(Order order) {
+		if (order == null || order.getId() == null || order.getOrderStatus() != OrderStatus.IN_PROGRESS) {
+			return;
+		}
+
+		PolledOrder polledOrder = new PolledOrder(order.getId(), order.getApiKeyId(), order.getExchange(),
+			orderStatusPollingProperties.getInitialInterval(), System.currentTimeMillis());
+		if (polledOrders.putIfAbsent(order.getId(), polledOrder) == null) {
+			enqueue(polledOrder);
+		}
+	}
+
+	/**
+	 * Removed orders are left in the polling queue and skipped when they are due.
+	 */
+	public void removeOrder(ObjectId orderId) {
+		polledOrders.remove(orderId);
+	}
+
+	public int getPolledOrderCount() {
+		return polledOrders.size();
+	}
+
+	@Scheduled(fixedDelayString = "${moebius.order.status-polling.poll-interval:500}", initialDelay = 1000)
+	public void pollOrderStatusesPeriodically() {
+		if (!polling.compareAndSet(false, true)) {
+			return;
+		}
+
+		pollOrderStatuses()
+			.doFinally(signalType -> polling.set(false))
+			.subscribe();
+	}
+
+	public Mono<Long> pollOrderStatuses() {
+		return pollOrderStatuses(System.currentTimeMillis());
+	}
+
+	Mono<Long> pollOrderStatuses(long now) {
+		List<PolledOrder> dueOrders = pollDueOrders(now);
+		if (dueOrders.isEmpty()) {
+			return Mono.just(0L);
+		}
+
+		Map<ObjectId, List<PolledOrder>> apiKeyIdToOrders = dueOrders.stream()
+			.collect(Collectors.groupingBy(PolledOrder::getApiKeyId));
+
+		return apiKeyService.getApiKeysByIds(apiKeyIdToOrders.keySet())
+			.flatMapMany(apiKeys -> Flux.fromIterable(apiKeyIdToOrders.values())
+				.filter(orders -> hasApiKey(apiKeys, orders))
+				.concatMap(orders -> Flux.fromIterable(orders).buffer(orderStatusPollingProperties.getBatchSize()))
+				.flatMap(orders -> pollOrderStatuses(apiKeys.get(orders.get(0).getApiKeyId()), orders, now),
+					orderStatusPollingProperties.getMaxInFlight()))
+			.reduce(0L, Long::sum)
+			.onErrorResume(exception -> {
+				log.warn("[Order] Failed to get api keys to poll order statuses.", exception);
+				dueOrders.forEach(polledOrder -> reschedule(polledOrder, now));
+				return Mono.just(0L);
+			});
+	}
+
+	private Mono<Long> pollOrderStatuses(ApiKey apiKey, List<PolledOrder> orders, long now) {
+		ExchangeService exchangeService = exchangeServiceFactory.getService(orders.get(0).getExchange());
+		List<String> orderIds = orders.stream()
+			.map(polledOrder -> polledOrder.getOrderId().toHexString())
+			.collect(Collectors.toList());
+
+		return exchangeService.getDoneOrderStatuses(apiKey, orderIds)
+			.filter(orderStatusDto -> orderStatusDto.getOrderStatus() != OrderStatus.IN_PROGRESS)
+			.collectMap(OrderStatusDto::getId, OrderStatusDto::getOrderStatus)
+			.flatMap(orderStatuses -> updateOrderStatuses(orders, orderStatuses, now))
+			.onErrorResume(exception -> {
+				log.warn("[Order] Failed to poll order statuses. [apiKeyId : {}, orders : {}]", apiKey.getId(), orders.size(), exception);
+				orders.forEach(polledOrder -> reschedule(polledOrder, now));
+				return Mono.just(0L);
+			});
+	}
+
+	private Mono<Long> updateOrderStatuses(List<PolledOrder> orders, Map<String, OrderStatus> orderStatuses, long now) {
+		Map<Boolean, List<PolledOrder>> finishedToOrders = orders.stream()
+			.collect(Collectors.partitioningBy(polledOrder -> orderStatuses.containsKey(polledOrder.getOrderId().toHexString())));
+		finishedToOrders.get(false).forEach(polledOrder -> reschedule(polledOrder, now));
+
+		List<PolledOrder> finishedOrders = finishedToOrders.get(true);
+		if (finishedOrders.isEmpty()) {
+			return Mono.just(0L);
+		}
+
+		return orderRepository.findAllById(finishedOrders.stream()
+			.map(PolledOrder::getOrderId)
+			.collect(Collectors.toList()))
+			.filter(order -> order.getOrderStatus() == OrderStatus.IN_PROGRESS)
+			.map(order -> orderAssembler.assembleOrderStatus(order, orderStatuses.get(order.getId().toHexString())))
+			.collectList()
+			.flatMapMany(orderRepository::saveAll)
+			.count()
+			.doOnSuccess(count -> finishedOrders.forEach(polledOrder -> polledOrders.remove(polledOrder.getOrderId(), polledOrder)));
+	}
+
+	private boolean hasApiKey(Map<ObjectId, ApiKey> apiKeys, List<PolledOrder> orders) {
+		ObjectId apiKeyId = orders.get(0).getApiKeyId();
+		if (apiKeys.containsKey(apiKeyId)) {
+			return true;
+		}
+
+		log.warn("[Order] Stop polling order statuses of the deleted api key. [apiKeyId : {}, orders : {}]", apiKeyId, orders.size());
+		orders.forEach(polledOrder -> polledOrders.remove(polledOrder.getOrderId(), polledOrder));
+		return false;
+	}
+
+	private List<PolledOrder> pollDueOrders(long now) {
+		synchronized (pollingQueue) {
+			if (pollingQueue.isEmpty() || !pollingQueue.peek().isDue(now)) {
+				return Collections.emptyList();
+			}
+
+			List<PolledOrder> dueOrders = new ArrayList<>();
+			while (!pollingQueue.isEmpty() && pollingQueue.peek().isDue(now)) {
+				PolledOrder polledOrder = pollingQueue.poll();
+				if (polledOrders.get(polledOrder.getOrderId()) == polledOrder) {
+					dueOrders.add(polledOrder);
+				}
+			}
+			return dueOrders;
+		}
+	}
+
+	private void reschedule(PolledOrder polledOrder, long now) {
+		if (polledOrders.get(polledOrder.getOrderId()) != polledOrder) {
+			return;
+		}
+
+		polledOrder.backOff(orderStatusPollingProperties.getMaxInterval(), now);
+		enqueue(polledOrder);
+	}
+
+	private void enqueue(PolledOrder polledOrder) {
+		synchronized (pollingQueue) {
+			pollingQueue.offer(polledOrder);
+		}
+	}
+}
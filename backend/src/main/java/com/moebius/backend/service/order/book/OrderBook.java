@@ -0,0 +1,90 @@
+package com.moebius.backend.service.order.book;
+
+import com.moebius.backend.domain.orders.Order;
+import com.moebius.backend.domain.orders.OrderPosition;
+import org.bson.types.ObjectId;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Price sorted book of READY orders for a single exchange, symbol and order position.
+ *
+ * Bid side books (PURCHASE, STOPLOSS) are triggered by trades at or below the order price,
+ * ask side books (SALE) are triggered by trades at or above the order price.
+ * A book only gates the trades, the triggered orders are claimed by {@link com.moebius.backend.domain.orders.OrderRepositoryCustom#claimTriggeredOrders}.
+ * The best price is published through a volatile field on every change,
+ * so that trades without any triggered order are told apart without taking the lock.
+ */
+public class OrderBook {
+	private final boolean bidSide;
+	private final NavigableMap<Double, Map<ObjectId, Order>> priceLevels = new TreeMap<>();
+	private final Map<ObjectId, Order> orders = new HashMap<>();
+	private final Map<ObjectId, Long> addedTimes = new HashMap<>();
+	private volatile double bestPrice = Double.NaN;
+
+	public OrderBook(OrderPosition orderPosition) {
+		this.bidSide = orderPosition != OrderPosition.SALE;
+	}
+
+	public synchronized void add(Order order) {
+		remove(order.getId());
+
+		orders.put(order.getId(), order);
+		addedTimes.put(order.getId(), System.currentTimeMillis());
+		priceLevels.computeIfAbsent(order.getPrice(), price -> new LinkedHashMap<>())
+			.put(order.getId(), order);
+		publishSummary();
+	}
+
+	public synchronized boolean remove(ObjectId orderId) {
+		Order order = orders.remove(orderId);
+		if (order == null) {
+			return false;
+		}
+		addedTimes.remove(orderId);
+
+		Map<ObjectId, Order> priceLevel = priceLevels.get(order.getPrice());
+		if (priceLevel != null) {
+			priceLevel.remove(orderId);
+			if (priceLevel.isEmpty()) {
+				priceLevels.remove(order.getPrice());
+			}
+		}
+		publishSummary();
+		return true;
+	}
+
+	public boolean isTriggered(double price) {
+		double bestPrice = this.bestPrice;
+		if (Double.isNaN(bestPrice)) {
+			return false;
+		}
+		return bidSide ? bestPrice >= price : bestPrice <= price;
+	}
+
+	/**
+	 * Removes orders which are not in the given ids and have been added before the given time.
+	 * Orders added after the time are kept, because the given ids might be read before they were created.
+	 */
+	public synchronized void retainAll(Set<ObjectId> orderIds, long addedBefore) {
+		orders.keySet().stream()
+			.filter(orderId -> !orderIds.contains(orderId))
+			.filter(orderId -> addedTimes.get(orderId) < addedBefore)
+			.collect(Collectors.toList())
+			.forEach(this::remove);
+	}
+
+	private void publishSummary() {
+		if (priceLevels.isEmpty()) {
+			bestPrice = Double.NaN;
+		} else {
+			bestPrice = bidSide ? priceLevels.lastKey() : priceLevels.firstKey();
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package com.moebius.backend.service.order.book;
+
+import com.moebius.backend.domain.commons.Exchange;
+import com.moebius.backend.domain.orders.OrderPosition;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class OrderBookKey {
+	private final Exchange exchange;
+	private final String symbol;
+	private final OrderPosition orderPosition;
+}
@@ -4,18 +4,18 @@ import com.moebius.backend.domain.orders.Order;
 import com.moebius.backend.domain.orders.OrderPosition;
 import com.moebius.backend.domain.orders.OrderRepository;
 import com.moebius.backend.dto.trade.TradeDto;
+import com.moebius.backend.service.order.OrderBookService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 
-import static com.moebius.backend.utils.ThreadScheduler.*;
-
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class StoplossOrderFactory implements OrderFactory {
 	private final OrderRepository orderRepository;
+	private final OrderBookService orderBookService;
 
 	@Override
 	public OrderPosition getPosition() {
@@ -24,8 +24,7 @@ public class StoplossOrderFactory implements OrderFactory {
 
 	@Override
 	public Flux<Order> getAndUpdateOrdersToInProgress(TradeDto tradeDto) {
-		return orderRepository.findAndUpdateAllByBidCondition(tradeDto.getExchange(), tradeDto.getSymbol(), OrderPosition.STOPLOSS, tradeDto.getPrice())
-			.subscribeOn(IO.scheduler())
-			.publishOn(COMPUTE.scheduler());
+		return orderRepository.claimTriggeredOrders(tradeDto.getExchange(), tradeDto.getSymbol(), OrderPosition.STOPLOSS, tradeDto.getPrice())
+			.doOnNext(orderBookService::removeOrder);
 	}
 }
@@ -0,0 +1,44 @@
+package com.moebius.backend.service.order.status;
+
+import com.moebius.backend.domain.commons.Exchange;
+import lombok.Getter;
+import lombok.ToString;
+import org.bson.types.ObjectId;
+
+import java.time.Duration;
+
+/**
+ * An in-progress order waiting for its next status poll.
+ * The poll time is changed only while the order is out of the polling queue.
+ */
+@Getter
+@ToString
+public class PolledOrder implements Comparable<PolledOrder> {
+	private final ObjectId orderId;
+	private final ObjectId apiKeyId;
+	private final Exchange exchange;
+	private long interval;
+	private long nextPollTime;
+
+	public PolledOrder(ObjectId orderId, ObjectId apiKeyId, Exchange exchange, Duration initialInterval, long now) {
+		this.orderId = orderId;
+		this.apiKeyId = apiKeyId;
+		this.exchange = exchange;
+		this.interval = initialInterval.toMillis();
+		this.nextPollTime = now + interval;
+	}
+
+	public void backOff(Duration maxInterval, long now) {
+		interval = Math.min(interval * 2, maxInterval.toMillis());
+		nextPollTime = now + interval;
+	}
+
+	public boolean isDue(long now) {
+		return nextPollTime <= now;
+	}
+
+	@Override
+	public int compareTo(PolledOrder polledOrder) {
+		return Long.compare(nextPollTime, polledOrder.nextPollTime);
+	}
+}
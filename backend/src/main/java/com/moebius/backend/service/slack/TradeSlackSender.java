@@ -4,6 +4,7 @@ import com.moebius.backend.assembler.SlackAssembler;
 import com.moebius.backend.dto.slack.SlackMessageDto;
 import com.moebius.backend.dto.slack.TradeSlackDto;
 import com.moebius.backend.service.message.TradeSlackMessageSender;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ClientResponse;
@@ -17,7 +18,7 @@ public class TradeSlackSender extends SlackSender<TradeSlackDto> {
 	private final SlackAssembler slackAssembler;
 	private final TradeSlackMessageSender tradeSlackMessageSender;
 
-	public TradeSlackSender(WebClient webClient, SlackAssembler slackAssembler, TradeSlackMessageSender tradeSlackMessageSender) {
+	public TradeSlackSender(@Qualifier("slackWebClient") WebClient webClient, SlackAssembler slackAssembler, TradeSlackMessageSender tradeSlackMessageSender) {
 		super(webClient);
 		this.slackAssembler = slackAssembler;
 		this.tradeSlackMessageSender = tradeSlackMessageSender;
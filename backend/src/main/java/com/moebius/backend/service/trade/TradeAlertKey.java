@@ -0,0 +1,17 @@
+package com.moebius.backend.service.trade;
+
+import com.moebius.backend.domain.commons.Exchange;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+class TradeAlertKey {
+	private final Exchange exchange;
+	private final String symbol;
+	private final Class<?> validatorType;
+}
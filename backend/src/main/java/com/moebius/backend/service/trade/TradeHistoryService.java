@@ -5,6 +5,7 @@ import com.moebius.backend.dto.trade.TradeDto;
 import com.moebius.backend.dto.trade.TradeHistoryDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -32,6 +33,7 @@ public class TradeHistoryService {
 	@Value("${moebius.data.rest.aggregated-trade-histories}")
 	private String aggregatedTradeHistoriesUrl;
 
+	@Qualifier("dataApiWebClient")
 	private final WebClient webClient;
 
 	public Flux<TradeHistoryDto> getTradeHistories(URI uri) {
@@ -0,0 +1,166 @@
+package com.moebius.backend.service.trade;
+
+import com.moebius.backend.domain.commons.Exchange;
+import com.moebius.backend.dto.trade.TradeDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings of the trade pipeline fed by kafka.
+ *
+ * Every stage is timed as moebius.trade.stage tagged by the stage, the time from receiving a trade on the exchange
+ * to submitting an order triggered by it as moebius.trade.order.latency tagged by exchange and symbol,
+ * and the trades per second of each symbol as moebius.trade.rate.
+ * In batched consumption, the records and the symbols they are conflated into are summarized per window.
+ */
+@Component
+@RequiredArgsConstructor
+public class TradePipelineMetrics {
+	public static final String STAGE_TIMER = "moebius.trade.stage";
+	public static final String RECEIVE_STAGE = "receive";
+	public static final String DESERIALIZE_STAGE = "deserialize";
+	public static final String ALERT_STAGE = "alert";
+	public static final String ORDER_STAGE = "order";
+	public static final String ORDER_TRIGGER_STAGE = "order-trigger";
+	public static final String ORDER_SUBMIT_STAGE = "order-submit";
+	public static final String MARKET_STAGE = "market";
+
+	private final MeterRegistry meterRegistry;
+	private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+	private final Map<SymbolKey, Timer> orderLatencyTimers = new ConcurrentHashMap<>();
+	private final Map<SymbolKey, TradeRate> tradeRates = new ConcurrentHashMap<>();
+
+	public static Timer.Builder stageTimer(String stage) {
+		return Timer.builder(STAGE_TIMER)
+			.tag("stage", stage)
+			.publishPercentileHistogram();
+	}
+
+	public <T> Mono<T> time(String stage, Mono<T> publisher) {
+		return Mono.defer(() -> {
+			long startTime = System.nanoTime();
+			return publisher.doFinally(signalType -> recordStage(stage, System.nanoTime() - startTime));
+		});
+	}
+
+	public <T> Flux<T> time(String stage, Flux<T> publisher) {
+		return Flux.defer(() -> {
+			long startTime = System.nanoTime();
+			return publisher.doFinally(signalType -> recordStage(stage, System.nanoTime() - startTime));
+		});
+	}
+
+	/**
+	 * Records the time a trade spent in kafka, and counts the trade for the trade rate of its symbol.
+	 */
+	public void recordReceived(TradeDto tradeDto, long recordTimestamp) {
+		if (recordTimestamp > 0) {
+			stageTimers.computeIfAbsent(RECEIVE_STAGE, this::registerStageTimer)
+				.record(Math.max(System.currentTimeMillis() - recordTimestamp, 0), TimeUnit.MILLISECONDS);
+		}
+		tradeRates.computeIfAbsent(new SymbolKey(tradeDto.getExchange(), tradeDto.getSymbol()), this::registerTradeRate)
+			.increment();
+	}
+
+	public void recordOrderSubmitted(TradeDto tradeDto) {
+		if (tradeDto.getReceivedTime() <= 0) {
+			return;
+		}
+
+		orderLatencyTimers.computeIfAbsent(new SymbolKey(tradeDto.getExchange(), tradeDto.getSymbol()), this::registerOrderLatencyTimer)
+			.record(Math.max(System.currentTimeMillis() - tradeDto.getReceivedTime(), 0), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Called once per window, the summaries are looked up from the registry.
+	 */
+	public void recordConflation(int records, int symbols) {
+		DistributionSummary.builder("moebius.trade.window.records").register(meterRegistry).record(records);
+		DistributionSummary.builder("moebius.trade.window.symbols").register(meterRegistry).record(symbols);
+	}
+
+	@Scheduled(fixedRate = 1000)
+	public void updateTradeRates() {
+		long now = System.nanoTime();
+		tradeRates.values().forEach(tradeRate -> tradeRate.update(now));
+	}
+
+	private void recordStage(String stage, long nanos) {
+		stageTimers.computeIfAbsent(stage, this::registerStageTimer)
+			.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	private Timer registerStageTimer(String stage) {
+		return stageTimer(stage).register(meterRegistry);
+	}
+
+	private Timer registerOrderLatencyTimer(SymbolKey symbolKey) {
+		return Timer.builder("moebius.trade.order.latency")
+			.tag("exchange", String.valueOf(symbolKey.exchange))
+			.tag("symbol", symbolKey.symbol)
+			.publishPercentileHistogram()
+			.maximumExpectedValue(Duration.ofSeconds(10))
+			.register(meterRegistry);
+	}
+
+	private TradeRate registerTradeRate(SymbolKey symbolKey) {
+		TradeRate tradeRate = new TradeRate(System.nanoTime());
+		Gauge.builder("moebius.trade.rate", tradeRate, TradeRate::getRate)
+			.tag("exchange", String.valueOf(symbolKey.exchange))
+			.tag("symbol", symbolKey.symbol)
+			.baseUnit("trades/s")
+			.register(meterRegistry);
+		return tradeRate;
+	}
+
+	@EqualsAndHashCode
+	@RequiredArgsConstructor
+	private static class SymbolKey {
+		private final Exchange exchange;
+		private final String symbol;
+	}
+
+	/**
+	 * Trades are counted without locking, the rate is updated from the count on every second.
+	 */
+	private static class TradeRate {
+		private final LongAdder tradeCount = new LongAdder();
+		private long lastUpdatedTime;
+		private volatile double rate;
+
+		TradeRate(long createdTime) {
+			this.lastUpdatedTime = createdTime;
+		}
+
+		void increment() {
+			tradeCount.increment();
+		}
+
+		synchronized void update(long now) {
+			long elapsed = now - lastUpdatedTime;
+			if (elapsed <= 0) {
+				return;
+			}
+			rate = tradeCount.sumThenReset() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+			lastUpdatedTime = now;
+		}
+
+		double getRate() {
+			return rate;
+		}
+	}
+}
@@ -1,19 +1,25 @@
 package com.moebius.backend.service.trade;
 
 import com.moebius.backend.assembler.TradeAssembler;
+import com.moebius.backend.configuration.TradePipelineProperties;
+import com.moebius.backend.dto.trade.ConflatedTradeDto;
 import com.moebius.backend.dto.trade.TradeDto;
 import com.moebius.backend.service.order.InternalOrderService;
 import com.moebius.backend.service.slack.TradeSlackSender;
+import com.moebius.backend.service.trade.aggregation.TradeAggregationService;
 import com.moebius.backend.service.trade.validator.TradeValidator;
 import com.moebius.backend.service.trade.validator.aggregated.AggregatedTradeValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.net.URI;
 import java.util.List;
-
-import static com.moebius.backend.utils.ThreadScheduler.COMPUTE;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
@@ -25,23 +31,87 @@ public class TradeService {
 	private final TradeHistoryService tradeHistoryService;
 	private final TradeSlackSender tradeSlackSender;
 	private final TradeAssembler tradeAssembler;
+	private final TradeAggregationService tradeAggregationService;
+	private final TradePipelineProperties tradePipelineProperties;
+	private final Map<TradeAlertKey, Mono<ClientResponse>> inFlightAlerts = new ConcurrentHashMap<>();
+	private final Map<TradeAlertKey, Long> alertedTimes = new ConcurrentHashMap<>();
 	private static final double TRADE_PRICE_THRESHOLD = 100000D;
 
 	// TODO : change to orderIfValidTrade
-	public void notifyIfValidTrade(TradeDto tradeDto) {
-		if (isTradeOverPriceThreshold(tradeDto)) {
-			aggregatedTradeValidators.forEach(validator -> {
-				URI uri = tradeHistoryService.getAggregatedTradeHistoriesUri(tradeDto, validator.getTimeInterval(), validator.getTimeRange());
+	public Mono<Void> notifyIfValidTrade(TradeDto tradeDto) {
+		tradeAggregationService.aggregate(tradeDto);
+		if (isStaleTrade(tradeDto)) {
+			return Mono.empty();
+		}
+		return notifyIfValidAggregatedTrades(tradeDto);
+	}
+
+	/**
+	 * Trades of a window are aggregated at once, and validated by the trade of the largest amount,
+	 * so the window passes the price threshold if any of its trades does.
+	 * A window of stale trades is only aggregated, so catching up after a restart or a lag raises no alert of the past.
+	 */
+	public Mono<Void> notifyIfValidTrades(ConflatedTradeDto conflatedTradeDto) {
+		tradeAggregationService.aggregate(conflatedTradeDto);
+		if (isStaleTrade(conflatedTradeDto.getLastTrade())) {
+			return Mono.empty();
+		}
+		return notifyIfValidAggregatedTrades(conflatedTradeDto.getLargestTrade());
+	}
+
+	private Mono<Void> notifyIfValidAggregatedTrades(TradeDto tradeDto) {
+		if (!isTradeOverPriceThreshold(tradeDto)) {
+			return Mono.empty();
+		}
+
+		return Flux.fromIterable(aggregatedTradeValidators)
+			.flatMap(validator -> notifyIfValidAggregatedTrade(tradeDto, validator))
+			.then();
+	}
 
-				tradeHistoryService.getAggregatedTradeHistories(uri)
-					.subscribeOn(COMPUTE.scheduler())
-					.filter(historiesDto -> validator.isValid(tradeDto, historiesDto))
-					.map(historiesDto -> tradeAssembler.assembleByAggregatedTrade(tradeDto, historiesDto, uri.toString(),
-						validator.getSubscribers(tradeDto, historiesDto)))
-					.flatMap(tradeSlackSender::sendMessage)
-					.subscribe();
-			});
+	/**
+	 * Concurrent trades of the same symbol share a single validation per validator, and no validation is made
+	 * during the cooldown after an alert, so a hot symbol raises a single alert.
+	 */
+	private Mono<ClientResponse> notifyIfValidAggregatedTrade(TradeDto tradeDto, AggregatedTradeValidator validator) {
+		TradeAlertKey alertKey = new TradeAlertKey(tradeDto.getExchange(), tradeDto.getSymbol(), validator.getClass());
+		if (isInAlertCooldown(alertKey)) {
+			return Mono.empty();
 		}
+
+		return inFlightAlerts.computeIfAbsent(alertKey, key -> validateAndNotify(tradeDto, validator, key)
+			.doFinally(signalType -> inFlightAlerts.remove(key))
+			.cache());
+	}
+
+	/**
+	 * Validates against the locally aggregated histories, the data api uri is built only as the reference link of the message.
+	 */
+	private Mono<ClientResponse> validateAndNotify(TradeDto tradeDto, AggregatedTradeValidator validator, TradeAlertKey alertKey) {
+		return Mono.fromSupplier(() -> tradeAggregationService.getAggregatedTradeHistories(tradeDto, validator.getTimeInterval(),
+			validator.getTimeRange()))
+			.filter(historiesDto -> validator.isValid(tradeDto, historiesDto))
+			.doOnNext(historiesDto -> alertedTimes.put(alertKey, System.currentTimeMillis()))
+			.map(historiesDto -> {
+				URI uri = tradeHistoryService.getAggregatedTradeHistoriesUri(tradeDto, validator.getTimeInterval(), validator.getTimeRange());
+				return tradeAssembler.assembleByAggregatedTrade(tradeDto, historiesDto, uri.toString(),
+					validator.getSubscribers(tradeDto, historiesDto));
+			})
+			.flatMap(tradeSlackSender::sendMessage);
+	}
+
+	private boolean isInAlertCooldown(TradeAlertKey alertKey) {
+		Long alertedTime = alertedTimes.get(alertKey);
+
+		return alertedTime != null && System.currentTimeMillis() - alertedTime < tradePipelineProperties.getAlertCooldown().toMillis();
+	}
+
+	/**
+	 * A trade is stale once it has been received from the exchange over the catch up lag ago, the lag at which the consumer catches up.
+	 */
+	private boolean isStaleTrade(TradeDto tradeDto) {
+		return tradeDto.getReceivedTime() > 0 &&
+			System.currentTimeMillis() - tradeDto.getReceivedTime() >= tradePipelineProperties.getBatch().getCatchUpLag().toMillis();
 	}
 
 	private boolean isTradeOverPriceThreshold(TradeDto tradeDto) {
@@ -0,0 +1,141 @@
+package com.moebius.backend.service.trade.aggregation;
+
+import com.moebius.backend.domain.commons.TradeType;
+import com.moebius.backend.dto.trade.AggregatedTradeHistoryDto;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ring buffer of one minute trade buckets of a symbol.
+ * A bucket is indexed by its epoch minute, so the bucket of the oldest minute is reset and reused by the next minute.
+ */
+class MinuteTradeBuckets {
+	private final long[] minutes;
+	private final long[] askCounts;
+	private final double[] askPrices;
+	private final double[] askVolumes;
+	private final long[] bidCounts;
+	private final double[] bidPrices;
+	private final double[] bidVolumes;
+
+	MinuteTradeBuckets(int capacity) {
+		minutes = new long[capacity];
+		askCounts = new long[capacity];
+		askPrices = new double[capacity];
+		askVolumes = new double[capacity];
+		bidCounts = new long[capacity];
+		bidPrices = new double[capacity];
+		bidVolumes = new double[capacity];
+		Arrays.fill(minutes, Long.MIN_VALUE);
+	}
+
+	void add(long epochMinute, TradeType tradeType, double price, double volume) {
+		add(epochMinute, tradeType, 1L, price * volume, volume);
+	}
+
+	/**
+	 * Adds trades of the same trade type at once, the amount is the sum of price * volume of the trades.
+	 */
+	synchronized void add(long epochMinute, TradeType tradeType, long count, double amount, double volume) {
+		int index = getIndex(epochMinute);
+		if (minutes[index] != epochMinute) {
+			if (minutes[index] > epochMinute) {
+				return;
+			}
+			reset(index, epochMinute);
+		}
+
+		if (tradeType == TradeType.ASK) {
+			askCounts[index] += count;
+			askPrices[index] += amount;
+			askVolumes[index] += volume;
+		} else {
+			bidCounts[index] += count;
+			bidPrices[index] += amount;
+			bidVolumes[index] += volume;
+		}
+	}
+
+	/**
+	 * Aggregates the buckets of the recent {@code range} minutes including the current minute into histories of
+	 * {@code interval} minutes, ordered from the oldest. Histories without any trade are omitted.
+	 */
+	synchronized List<AggregatedTradeHistoryDto> getHistories(long currentEpochMinute, int interval, int range) {
+		int minuteRange = Math.min(range, minutes.length);
+		long fromMinute = currentEpochMinute - minuteRange + 1;
+		List<AggregatedTradeHistoryDto> histories = new ArrayList<>();
+
+		for (long startMinute = fromMinute; startMinute <= currentEpochMinute; startMinute += interval) {
+			long endMinute = Math.min(startMinute + interval, currentEpochMinute + 1);
+			AggregatedTradeHistoryDto historyDto = aggregate(startMinute, endMinute);
+			if (historyDto != null) {
+				histories.add(historyDto);
+			}
+		}
+
+		return histories;
+	}
+
+	private AggregatedTradeHistoryDto aggregate(long startMinute, long endMinute) {
+		long askCount = 0L;
+		double askPrice = 0D;
+		double askVolume = 0D;
+		long bidCount = 0L;
+		double bidPrice = 0D;
+		double bidVolume = 0D;
+
+		for (long minute = startMinute; minute < endMinute; minute++) {
+			int index = getIndex(minute);
+			if (minutes[index] != minute) {
+				continue;
+			}
+			askCount += askCounts[index];
+			askPrice += askPrices[index];
+			askVolume += askVolumes[index];
+			bidCount += bidCounts[index];
+			bidPrice += bidPrices[index];
+			bidVolume += bidVolumes[index];
+		}
+
+		if (askCount + bidCount == 0L) {
+			return null;
+		}
+
+		return AggregatedTradeHistoryDto.builder()
+			.totalAskCount(askCount)
+			.totalAskPrice(askPrice)
+			.totalAskVolume(askVolume)
+			.totalBidCount(bidCount)
+			.totalBidPrice(bidPrice)
+			.totalBidVolume(bidVolume)
+			.totalTransactionCount(askCount + bidCount)
+			.totalTransactionPrice(askPrice + bidPrice)
+			.totalTransactionVolume(askVolume + bidVolume)
+			.startTime(toZonedDateTime(startMinute))
+			.endTime(toZonedDateTime(endMinute))
+			.build();
+	}
+
+	private void reset(int index, long epochMinute) {
+		minutes[index] = epochMinute;
+		askCounts[index] = 0L;
+		askPrices[index] = 0D;
+		askVolumes[index] = 0D;
+		bidCounts[index] = 0L;
+		bidPrices[index] = 0D;
+		bidVolumes[index] = 0D;
+	}
+
+	private int getIndex(long epochMinute) {
+		return (int) Math.floorMod(epochMinute, (long) minutes.length);
+	}
+
+	private ZonedDateTime toZonedDateTime(long epochMinute) {
+		return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochMinute * 60L), ZoneId.systemDefault());
+	}
+}
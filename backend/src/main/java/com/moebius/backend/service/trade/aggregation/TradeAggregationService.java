@@ -0,0 +1,148 @@
+package com.moebius.backend.service.trade.aggregation;
+
+import com.moebius.backend.domain.commons.Exchange;
+import com.moebius.backend.domain.commons.TradeType;
+import com.moebius.backend.dto.trade.AggregatedTradeHistoriesDto;
+import com.moebius.backend.dto.trade.ConflatedTradeDto;
+import com.moebius.backend.dto.trade.TradeDto;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates the consumed trades into one minute buckets per symbol, so the aggregated trade histories of
+ * the recent minutes are served from memory instead of the data api.
+ * Trades are bucketed by their own time, the same as the data api, so trades consumed late after a restart or a lag
+ * do not land in the current minute. Only the recent {@link #MAX_TIME_RANGE} minutes are kept, older trades are dropped,
+ * and the histories start empty after a restart.
+ */
+@Service
+public class TradeAggregationService {
+	static final int MAX_TIME_RANGE = 60;
+	private static final ZoneId TRADE_TIME_ZONE = ZoneId.of("Asia/Seoul");
+
+	private final Map<Exchange, Map<String, MinuteTradeBuckets>> tradeBuckets = new ConcurrentHashMap<>();
+
+	public void aggregate(TradeDto tradeDto) {
+		aggregate(tradeDto, System.currentTimeMillis());
+	}
+
+	public void aggregate(ConflatedTradeDto conflatedTradeDto) {
+		aggregate(conflatedTradeDto, System.currentTimeMillis());
+	}
+
+	public AggregatedTradeHistoriesDto getAggregatedTradeHistories(TradeDto tradeDto, int interval, int range) {
+		return getAggregatedTradeHistories(tradeDto, interval, range, System.currentTimeMillis());
+	}
+
+	void aggregate(TradeDto tradeDto, long epochMillis) {
+		long currentMinute = TimeUnit.MILLISECONDS.toMinutes(epochMillis);
+		long tradeMinute = getTradeMinute(tradeDto, currentMinute);
+		if (isExpired(tradeMinute, currentMinute)) {
+			return;
+		}
+
+		getBuckets(tradeDto.getExchange(), tradeDto.getSymbol())
+			.add(tradeMinute, tradeDto.getTradeType(), tradeDto.getPrice(), tradeDto.getVolume());
+	}
+
+	/**
+	 * Trades of a window are summed per run of the same minute and added at once, so a window costs a single add per trade type
+	 * unless it spans minutes of trades, as a window of stale trades in catch up does.
+	 */
+	void aggregate(ConflatedTradeDto conflatedTradeDto, long epochMillis) {
+		TradeDto lastTrade = conflatedTradeDto.getLastTrade();
+		MinuteTradeBuckets buckets = getBuckets(lastTrade.getExchange(), lastTrade.getSymbol());
+		long currentMinute = TimeUnit.MILLISECONDS.toMinutes(epochMillis);
+
+		MinuteTradeSum minuteTradeSum = null;
+		for (TradeDto tradeDto : conflatedTradeDto.getTrades()) {
+			long tradeMinute = getTradeMinute(tradeDto, currentMinute);
+			if (isExpired(tradeMinute, currentMinute)) {
+				continue;
+			}
+			if (minuteTradeSum == null || minuteTradeSum.epochMinute != tradeMinute) {
+				if (minuteTradeSum != null) {
+					minuteTradeSum.addTo(buckets);
+				}
+				minuteTradeSum = new MinuteTradeSum(tradeMinute);
+			}
+			minuteTradeSum.add(tradeDto);
+		}
+		if (minuteTradeSum != null) {
+			minuteTradeSum.addTo(buckets);
+		}
+	}
+
+	AggregatedTradeHistoriesDto getAggregatedTradeHistories(TradeDto tradeDto, int interval, int range, long epochMillis) {
+		return AggregatedTradeHistoriesDto.builder()
+			.aggregatedTradeHistories(getBuckets(tradeDto.getExchange(), tradeDto.getSymbol())
+				.getHistories(TimeUnit.MILLISECONDS.toMinutes(epochMillis), interval, range))
+			.build();
+	}
+
+	/**
+	 * Minute of the time the trade has been received from the exchange, or of the time it has been created on the exchange
+	 * in the korea time zone as the trade assembler reads it, or of the current time for a trade without any time.
+	 * Trades ahead of the current time by clock skew are bucketed in the current minute.
+	 */
+	static long getTradeMinute(TradeDto tradeDto, long currentMinute) {
+		long tradeMinute;
+		if (tradeDto.getReceivedTime() > 0) {
+			tradeMinute = TimeUnit.MILLISECONDS.toMinutes(tradeDto.getReceivedTime());
+		} else if (tradeDto.getCreatedAt() != null) {
+			tradeMinute = TimeUnit.SECONDS.toMinutes(tradeDto.getCreatedAt().atZone(TRADE_TIME_ZONE).toEpochSecond());
+		} else {
+			return currentMinute;
+		}
+
+		return Math.min(tradeMinute, currentMinute);
+	}
+
+	private boolean isExpired(long tradeMinute, long currentMinute) {
+		return tradeMinute <= currentMinute - MAX_TIME_RANGE;
+	}
+
+	private MinuteTradeBuckets getBuckets(Exchange exchange, String symbol) {
+		return tradeBuckets.computeIfAbsent(exchange, key -> new ConcurrentHashMap<>())
+			.computeIfAbsent(symbol, key -> new MinuteTradeBuckets(MAX_TIME_RANGE));
+	}
+
+	private static class MinuteTradeSum {
+		private final long epochMinute;
+		private long askCount;
+		private double askAmount;
+		private double askVolume;
+		private long bidCount;
+		private double bidAmount;
+		private double bidVolume;
+
+		MinuteTradeSum(long epochMinute) {
+			this.epochMinute = epochMinute;
+		}
+
+		void add(TradeDto tradeDto) {
+			if (tradeDto.getTradeType() == TradeType.ASK) {
+				askCount++;
+				askAmount += tradeDto.getPrice() * tradeDto.getVolume();
+				askVolume += tradeDto.getVolume();
+			} else {
+				bidCount++;
+				bidAmount += tradeDto.getPrice() * tradeDto.getVolume();
+				bidVolume += tradeDto.getVolume();
+			}
+		}
+
+		void addTo(MinuteTradeBuckets buckets) {
+			if (askCount > 0) {
+				buckets.add(epochMinute, TradeType.ASK, askCount, askAmount, askVolume);
+			}
+			if (bidCount > 0) {
+				buckets.add(epochMinute, TradeType.BID, bidCount, bidAmount, bidVolume);
+			}
+		}
+	}
+}
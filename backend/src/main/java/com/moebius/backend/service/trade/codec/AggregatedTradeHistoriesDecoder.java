@@ -0,0 +1,147 @@
+package com.moebius.backend.service.trade.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.moebius.backend.dto.trade.AggregatedTradeHistoriesDto;
+import com.moebius.backend.dto.trade.AggregatedTradeHistoryDto;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDataBufferDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming json decoder of aggregated trade histories responded by the data api, reading fields straight from the parser tokens
+ * without databind and builder introspection. Unknown fields are skipped.
+ * Times are read the same as the jackson ZonedDateTime deserializer does by default, adjusted to UTC:
+ * ISO zoned date times as they are, integers as epoch seconds and decimals as epoch seconds with a fraction.
+ * Jackson reads integers as epoch seconds while READ_DATE_TIMESTAMPS_AS_NANOSECONDS is enabled, which is its default.
+ */
+public class AggregatedTradeHistoriesDecoder extends AbstractDataBufferDecoder<AggregatedTradeHistoriesDto> {
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	public AggregatedTradeHistoriesDecoder() {
+		super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+	}
+
+	@Override
+	public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
+		return AggregatedTradeHistoriesDto.class == elementType.toClass() && super.canDecode(elementType, mimeType);
+	}
+
+	@Override
+	public AggregatedTradeHistoriesDto decode(DataBuffer buffer, ResolvableType targetType, @Nullable MimeType mimeType,
+		@Nullable Map<String, Object> hints) {
+		try (JsonParser parser = JSON_FACTORY.createParser(buffer.asInputStream(true))) {
+			return readHistories(parser);
+		} catch (IOException | IllegalArgumentException | DateTimeException exception) {
+			throw new DecodingException("[Trade] Failed to decode aggregated trade histories.", exception);
+		}
+	}
+
+	private static AggregatedTradeHistoriesDto readHistories(JsonParser parser) throws IOException {
+		expect(parser.nextToken(), JsonToken.START_OBJECT);
+
+		List<AggregatedTradeHistoryDto> histories = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if ("aggregatedTradeHistories".equals(fieldName) && token == JsonToken.START_ARRAY) {
+				histories = new ArrayList<>();
+				while (parser.nextToken() == JsonToken.START_OBJECT) {
+					histories.add(readHistory(parser));
+				}
+			} else {
+				parser.skipChildren();
+			}
+		}
+
+		return AggregatedTradeHistoriesDto.builder()
+			.aggregatedTradeHistories(histories)
+			.build();
+	}
+
+	private static AggregatedTradeHistoryDto readHistory(JsonParser parser) throws IOException {
+		AggregatedTradeHistoryDto.AggregatedTradeHistoryDtoBuilder builder = AggregatedTradeHistoryDto.builder();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			if (parser.nextToken() == JsonToken.VALUE_NULL) {
+				continue;
+			}
+
+			switch (fieldName) {
+				case "totalAskCount":
+					builder.totalAskCount(parser.getValueAsLong());
+					break;
+				case "totalAskPrice":
+					builder.totalAskPrice(parser.getValueAsDouble());
+					break;
+				case "totalAskVolume":
+					builder.totalAskVolume(parser.getValueAsDouble());
+					break;
+				case "totalBidCount":
+					builder.totalBidCount(parser.getValueAsLong());
+					break;
+				case "totalBidPrice":
+					builder.totalBidPrice(parser.getValueAsDouble());
+					break;
+				case "totalBidVolume":
+					builder.totalBidVolume(parser.getValueAsDouble());
+					break;
+				case "totalTransactionCount":
+					builder.totalTransactionCount(parser.getValueAsLong());
+					break;
+				case "totalTransactionPrice":
+					builder.totalTransactionPrice(parser.getValueAsDouble());
+					break;
+				case "totalTransactionVolume":
+					builder.totalTransactionVolume(parser.getValueAsDouble());
+					break;
+				case "startTime":
+					builder.startTime(readZonedDateTime(parser));
+					break;
+				case "endTime":
+					builder.endTime(readZonedDateTime(parser));
+					break;
+				default:
+					parser.skipChildren();
+			}
+		}
+
+		return builder.build();
+	}
+
+	private static ZonedDateTime readZonedDateTime(JsonParser parser) throws IOException {
+		switch (parser.currentToken()) {
+			case VALUE_STRING:
+				return ZonedDateTime.parse(parser.getText()).withZoneSameInstant(ZoneOffset.UTC);
+			case VALUE_NUMBER_INT:
+				return Instant.ofEpochSecond(parser.getLongValue()).atZone(ZoneOffset.UTC);
+			case VALUE_NUMBER_FLOAT:
+				BigDecimal seconds = parser.getDecimalValue();
+				int nanos = seconds.subtract(new BigDecimal(seconds.longValue())).movePointRight(9).intValue();
+				return Instant.ofEpochSecond(seconds.longValue(), nanos).atZone(ZoneOffset.UTC);
+			default:
+				throw new DecodingException("[Trade] Unexpected token of time. [" + parser.currentToken() + "]");
+		}
+	}
+
+	private static void expect(JsonToken actual, JsonToken expected) {
+		if (actual != expected) {
+			throw new DecodingException("[Trade] Expected " + expected + " but was " + actual + ".");
+		}
+	}
+}
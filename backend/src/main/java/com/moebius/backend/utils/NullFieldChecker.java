@@ -0,0 +1,67 @@
+package com.moebius.backend.utils;
+
+import org.springframework.lang.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.stream.Stream;
+
+/**
+ * Null field check plan of a class, built once per class by {@link Verifier}.
+ * Only the non-static reference fields without {@link Nullable} are checked, through getters unreflected once,
+ * so a check neither looks fields up nor allocates.
+ */
+final class NullFieldChecker {
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final ClassValue<NullFieldChecker> CHECKERS = new ClassValue<NullFieldChecker>() {
+		@Override
+		protected NullFieldChecker computeValue(Class<?> type) {
+			return new NullFieldChecker(type);
+		}
+	};
+
+	private final MethodHandle[] getters;
+
+	private NullFieldChecker(Class<?> type) {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		getters = Stream.of(type.getDeclaredFields())
+			.filter(field -> !field.getType().isPrimitive())
+			.filter(field -> !Modifier.isStatic(field.getModifiers()))
+			.filter(field -> field.getDeclaredAnnotation(Nullable.class) == null)
+			.map(field -> unreflectGetter(lookup, field))
+			.toArray(MethodHandle[]::new);
+	}
+
+	static NullFieldChecker of(Class<?> type) {
+		return CHECKERS.get(type);
+	}
+
+	boolean hasNullField(Object object) {
+		for (MethodHandle getter : getters) {
+			if (get(getter, object) == null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static MethodHandle unreflectGetter(MethodHandles.Lookup lookup, Field field) {
+		try {
+			field.setAccessible(true);
+			return lookup.unreflectGetter(field).asType(GETTER_TYPE);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Cannot access " + field + " to check null.", e);
+		}
+	}
+
+	private static Object get(MethodHandle getter, Object object) {
+		try {
+			return getter.invokeExact(object);
+		} catch (Throwable throwable) {
+			throw new IllegalStateException("Cannot get field value to check null.", throwable);
+		}
+	}
+}
@@ -3,14 +3,27 @@ package com.moebius.backend.utils;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
+import java.util.function.Supplier;
+
+/**
+ * Bounded schedulers named after the work they run.
+ * Executors of every scheduler export queued tasks, active threads and task latency through micrometer, tagged by the scheduler name.
+ * Reactive mongo and netty calls need no scheduler at all, they are run and completed on the netty event loop.
+ */
 public enum ThreadScheduler {
-	IO(Schedulers.elastic()),
-	COMPUTE(Schedulers.parallel());
+	// Truly blocking work only, e.g. sending mails and hashing passwords. Capped at 10 threads per core and 100000 queued tasks.
+	BLOCKING(() -> Schedulers.newBoundedElastic(10 * Runtime.getRuntime().availableProcessors(), 100000, "blocking")),
+	// Trades consumed from kafka, a rail per thread.
+	TRADE(() -> Schedulers.newParallel("trade")),
+	// Cpu bound work apart from trades, e.g. signing auth tokens.
+	COMPUTE(() -> Schedulers.newParallel("compute"));
 
-	private Scheduler scheduler;
+	private final Scheduler scheduler;
 
-	ThreadScheduler(Scheduler scheduler) {
-		this.scheduler = scheduler;
+	ThreadScheduler(Supplier<Scheduler> schedulerSupplier) {
+		// Only the executors created after enabling metrics are instrumented.
+		Schedulers.enableMetrics();
+		this.scheduler = schedulerSupplier.get();
 	}
 
 	public Scheduler scheduler() {
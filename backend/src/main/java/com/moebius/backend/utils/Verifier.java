@@ -1,10 +1,6 @@
 package com.moebius.backend.utils;
 
 import org.apache.commons.lang3.RandomStringUtils;
-import org.springframework.lang.Nullable;
-
-import java.util.Objects;
-import java.util.stream.Stream;
 
 public class Verifier {
 	private static int VERIFICATION_CODE_LENGTH = 6;
@@ -13,22 +9,14 @@ public class Verifier {
 		return RandomStringUtils.randomNumeric(VERIFICATION_CODE_LENGTH);
 	}
 
+	/**
+	 * Checks the declared fields of the object except {@link org.springframework.lang.Nullable} ones are not null.
+	 * The fields to check are resolved once per class, see {@link NullFieldChecker}.
+	 */
 	public static <T> void checkNullFields(T object) throws NullPointerException {
-		Stream.of(object.getClass().getDeclaredFields())
-			.filter(field -> field.getDeclaredAnnotation(Nullable.class) == null)
-			.forEach(field -> {
-				field.setAccessible(true);
-
-				try {
-					if (Objects.isNull(field.get(object))) {
-						throw new NullPointerException(object.toString() + " has null field(s).");
-					}
-				} catch (IllegalAccessException e) {
-					e.printStackTrace();
-				} finally {
-					field.setAccessible(false);
-				}
-			});
+		if (NullFieldChecker.of(object.getClass()).hasNullField(object)) {
+			throw new NullPointerException(object.toString() + " has null field(s).");
+		}
 	}
 
 	public static void checkBlankString(String target) throws IllegalArgumentException {
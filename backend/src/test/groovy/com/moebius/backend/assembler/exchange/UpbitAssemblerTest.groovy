@@ -53,6 +53,12 @@ class UpbitAssemblerTest extends Specification {
 		result.contains("identifier=5eb6df8abd5d1a46cfcef11b")
 	}
 
+	def "Should assemble done orders parameters"() {
+		expect:
+		upbitAssembler.assembleDoneOrdersParameters([orderId, "5eb6df8abd5d1a46cfcef11c"]) ==
+				"identifiers[]=5eb6df8abd5d1a46cfcef11b&identifiers[]=5eb6df8abd5d1a46cfcef11c&states[]=done&states[]=cancel"
+	}
+
 	def "Should parse order position"() {
 		expect:
 		upbitAssembler.parseOrderPosition(ORDER_POSITION) == EXPECTED_ORDER_POSITION
@@ -0,0 +1,124 @@
+package com.moebius.backend.domain.orders
+
+import com.moebius.backend.domain.commons.Exchange
+import com.mongodb.MongoClientSettings
+import com.mongodb.ReadPreference
+import com.mongodb.client.result.UpdateResult
+import com.mongodb.reactivestreams.client.FindPublisher
+import com.mongodb.reactivestreams.client.MongoCollection
+import org.bson.BsonDocument
+import org.bson.Document
+import org.bson.conversions.Bson
+import org.bson.types.ObjectId
+import org.reactivestreams.Publisher
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate
+import org.springframework.data.mongodb.core.convert.MongoConverter
+import reactor.core.publisher.Flux
+import reactor.test.StepVerifier
+import spock.lang.Specification
+import spock.lang.Subject
+
+class OrderRepositoryImplTest extends Specification {
+	def collection = Mock(MongoCollection)
+	def converter = Mock(MongoConverter)
+	def mongoTemplate = Stub(ReactiveMongoTemplate) {
+		getCollectionName(Order) >> "orders"
+		getCollection("orders") >> collection
+		getConverter() >> converter
+	}
+
+	@Subject
+	def orderRepository = new OrderRepositoryImpl(mongoTemplate)
+
+	def setup() {
+		collection.withReadPreference(ReadPreference.primary()) >> collection
+	}
+
+	def "Should find only ready orders triggered by the price"() {
+		when:
+		def filter = render(OrderRepositoryImpl.getTriggerFilter(Exchange.UPBIT, "KRW-BTC", orderPosition, 100D))
+
+		then:
+		filter.getString("symbol").getValue() == "KRW-BTC"
+		filter.getString("exchange").getValue() == "UPBIT"
+		filter.getString("orderPosition").getValue() == orderPosition.name()
+		filter.getString("orderStatus").getValue() == "READY"
+		filter.getDocument("price") == BsonDocument.parse(priceFilter)
+
+		where:
+		orderPosition           || priceFilter
+		OrderPosition.PURCHASE  || '{"$gte": 100.0}'
+		OrderPosition.STOPLOSS  || '{"$gte": 100.0}'
+		OrderPosition.SALE      || '{"$lte": 100.0}'
+	}
+
+	def "Should claim triggered orders by a single conditional update and read them back by the claim token"() {
+		given:
+		def order = Stub(Order)
+		Bson claimFilter = null
+		Bson claim = null
+		Bson claimedFilter = null
+
+		1 * collection.updateMany(_ as Bson, _ as Bson) >> { Bson filter, Bson update ->
+			claimFilter = filter
+			claim = update
+			return publisher(UpdateResult.acknowledged(2, 1, null))
+		}
+		1 * collection.find(_ as Bson) >> { Bson filter ->
+			claimedFilter = filter
+			return findPublisher([new Document("_id", ObjectId.get())])
+		}
+		1 * converter.read(Order, _ as Document) >> order
+
+		expect:
+		StepVerifier.create(orderRepository.claimTriggeredOrders(Exchange.UPBIT, "KRW-BTC", OrderPosition.PURCHASE, 100D))
+				.expectNext(order)
+				.verifyComplete()
+
+		with(render(claimFilter)) {
+			getString("orderStatus").getValue() == "READY"
+			getString("orderPosition").getValue() == "PURCHASE"
+			getDocument("price") == BsonDocument.parse('{"$gte": 100.0}')
+		}
+		def update = render(claim)
+		update.getDocument('$set').getString("orderStatus").getValue() == "IN_PROGRESS"
+		render(claimedFilter).getObjectId("claimToken") == update.getDocument('$set').getObjectId("claimToken")
+	}
+
+	def "Should not read back anything when no ready order is claimed"() {
+		given:
+		1 * collection.updateMany(_ as Bson, _ as Bson) >> publisher(UpdateResult.acknowledged(0, 0, null))
+		0 * collection.find(*_)
+		0 * converter.read(*_)
+
+		expect:
+		StepVerifier.create(orderRepository.claimTriggeredOrders(Exchange.UPBIT, "KRW-BTC", OrderPosition.SALE, 100D))
+				.verifyComplete()
+	}
+
+	def "Should read orders of the status from the primary"() {
+		given:
+		def order = Stub(Order)
+		1 * collection.find({ render(it) == BsonDocument.parse('{"orderStatus": "READY"}') }) >> findPublisher([new Document()])
+		1 * converter.read(Order, _ as Document) >> order
+
+		expect:
+		StepVerifier.create(orderRepository.findAllByOrderStatusFromPrimary(OrderStatus.READY))
+				.expectNext(order)
+				.verifyComplete()
+	}
+
+	FindPublisher findPublisher(List<Document> documents) {
+		return Stub(FindPublisher) {
+			subscribe(_) >> { subscriber -> Flux.fromIterable(documents).subscribe(subscriber[0]) }
+		}
+	}
+
+	static Publisher publisher(Object value) {
+		return { subscriber -> Flux.just(value).subscribe(subscriber) } as Publisher
+	}
+
+	static BsonDocument render(Bson bson) {
+		return bson.toBsonDocument(BsonDocument, MongoClientSettings.getDefaultCodecRegistry())
+	}
+}
@@ -0,0 +1,148 @@
+package com.moebius.backend.service.cache
+
+import com.moebius.backend.configuration.ReactiveCacheProperties
+import reactor.core.publisher.Mono
+import reactor.core.publisher.MonoProcessor
+import reactor.test.StepVerifier
+import reactor.test.scheduler.VirtualTimeScheduler
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.function.Function
+
+class ReactiveCacheTest extends Specification {
+	def scheduler = VirtualTimeScheduler.create()
+	def cacheSpec = new ReactiveCacheProperties.CacheSpec()
+	def loader = Mock(Function)
+
+	def setup() {
+		cacheSpec.setMaxSize(2)
+		cacheSpec.setTtl(Duration.ofMinutes(10))
+		cacheSpec.setRefreshAfter(Duration.ofMinutes(5))
+	}
+
+	def "Should load value once and serve it from cache"() {
+		given:
+		def cache = buildCache()
+		1 * loader.apply("KRW-BTC") >> Mono.just("value")
+
+		expect:
+		StepVerifier.create(cache.get("KRW-BTC")).expectNext("value").verifyComplete()
+		StepVerifier.create(cache.get("KRW-BTC")).expectNext("value").verifyComplete()
+		cache.getMissCount() == 1
+		cache.getHitCount() == 1
+		cache.getLoadSuccessCount() == 1
+	}
+
+	def "Should share a single load among concurrent gets"() {
+		given:
+		def cache = buildCache()
+		def processor = MonoProcessor.create()
+		1 * loader.apply("KRW-BTC") >> processor
+
+		when:
+		def first = cache.get("KRW-BTC")
+		def second = cache.get("KRW-BTC")
+		processor.onNext("value")
+
+		then:
+		first.block() == "value"
+		second.block() == "value"
+	}
+
+	def "Should not cache errors and empty results"() {
+		given:
+		def cache = buildCache()
+		3 * loader.apply("KRW-BTC") >>> [Mono.error(new IllegalStateException()), Mono.empty(), Mono.just("value")]
+
+		expect:
+		StepVerifier.create(cache.get("KRW-BTC")).verifyError(IllegalStateException)
+		StepVerifier.create(cache.get("KRW-BTC")).verifyComplete()
+		StepVerifier.create(cache.get("KRW-BTC")).expectNext("value").verifyComplete()
+		cache.getLoadFailureCount() == 2
+	}
+
+	def "Should not put back value evicted while it was loaded"() {
+		given:
+		def cache = buildCache()
+		def processor = MonoProcessor.create()
+		2 * loader.apply("KRW-BTC") >>> [processor, Mono.just("reloaded")]
+
+		when:
+		def loading = cache.get("KRW-BTC")
+		loading.subscribe()
+		cache.evict("KRW-BTC")
+		processor.onNext("evicted")
+
+		then:
+		loading.block() == "evicted"
+		cache.getIfPresent("KRW-BTC") == null
+		cache.get("KRW-BTC").block() == "reloaded"
+	}
+
+	def "Should serve stale value while refreshing it in background"() {
+		given:
+		def cache = buildCache()
+		2 * loader.apply("KRW-BTC") >>> [Mono.just("old"), Mono.just("new")]
+		cache.get("KRW-BTC").block()
+
+		when:
+		scheduler.advanceTimeBy(Duration.ofMinutes(6))
+
+		then:
+		cache.get("KRW-BTC").block() == "old"
+		cache.get("KRW-BTC").block() == "new"
+	}
+
+	def "Should load value again after ttl"() {
+		given:
+		def cache = buildCache()
+		2 * loader.apply("KRW-BTC") >>> [Mono.just("old"), Mono.just("new")]
+		cache.get("KRW-BTC").block()
+
+		when:
+		scheduler.advanceTimeBy(Duration.ofMinutes(11))
+
+		then:
+		cache.get("KRW-BTC").block() == "new"
+	}
+
+	def "Should evict least recently used value over max size"() {
+		given:
+		def cache = buildCache()
+		loader.apply(_ as String) >> { String key -> Mono.just(key) }
+
+		when:
+		["KRW-BTC", "KRW-ETH", "KRW-BTC", "KRW-XRP"].each { cache.get(it).block() }
+
+		then:
+		cache.size() == 2
+		cache.getEvictionCount() == 1
+		cache.get("KRW-BTC").block() == "KRW-BTC"
+		cache.getHitCount() == 2
+	}
+
+	def "Should get cached value if present without loading it"() {
+		given:
+		def cache = buildCache()
+		cache.put("KRW-BTC", "value")
+
+		when:
+		def presentValue = cache.getIfPresent("KRW-BTC")
+		def absentValue = cache.getIfPresent("KRW-ETH")
+		scheduler.advanceTimeBy(Duration.ofMinutes(10))
+		def expiredValue = cache.getIfPresent("KRW-BTC")
+
+		then:
+		presentValue == "value"
+		absentValue == null
+		expiredValue == null
+		cache.getHitCount() == 1
+		cache.getMissCount() == 2
+		0 * loader.apply(_)
+	}
+
+	ReactiveCache<String, String> buildCache() {
+		return new ReactiveCache<String, String>("test", cacheSpec, loader, scheduler)
+	}
+}
@@ -0,0 +1,32 @@
+package com.moebius.backend.service.exchange
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.charset.StandardCharsets
+import java.security.MessageDigest
+
+class UpbitQueryHasherTest extends Specification {
+	@Subject
+	def upbitQueryHasher = new UpbitQueryHasher(MessageDigest.getInstance("SHA-512"))
+
+	def "Should hash query into zero padded lower case hex"() {
+		given:
+		def expectedHash = String.format("%0128x", new BigInteger(1, MessageDigest.getInstance("SHA-512").digest(QUERY.getBytes(StandardCharsets.UTF_8))))
+
+		expect:
+		upbitQueryHasher.hash(QUERY.getBytes(StandardCharsets.UTF_8)) == expectedHash
+
+		where:
+		QUERY << ["market=KRW-BTC&side=bid&volume=0.01&price=100&ord_type=limit", "identifier=5e7a30eceea97a67367a4b6a", ""]
+	}
+
+	def "Should hash queries repeatedly with the same hasher"() {
+		given:
+		def firstHash = upbitQueryHasher.hash("identifier=1".getBytes(StandardCharsets.UTF_8))
+
+		expect:
+		upbitQueryHasher.hash("identifier=2".getBytes(StandardCharsets.UTF_8)) != firstHash
+		upbitQueryHasher.hash("identifier=1".getBytes(StandardCharsets.UTF_8)) == firstHash
+	}
+}
@@ -0,0 +1,113 @@
+package com.moebius.backend.service.exchange
+
+import com.moebius.backend.configuration.UpbitRateLimitProperties
+import org.springframework.http.HttpStatus
+import org.springframework.web.reactive.function.client.ClientResponse
+import org.springframework.web.reactive.function.client.WebClientResponseException
+import reactor.core.publisher.Mono
+import reactor.test.scheduler.VirtualTimeScheduler
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Duration
+
+class UpbitRateLimiterTest extends Specification {
+	def accessKey = "dummyAccessKey"
+	def scheduler = VirtualTimeScheduler.create()
+	def upbitRateLimitProperties = new UpbitRateLimitProperties()
+	def requestedTypes = []
+
+	@Subject
+	def upbitRateLimiter = new UpbitRateLimiter(upbitRateLimitProperties, scheduler)
+
+	def "Should release waiting requests in the order of priority"() {
+		given:
+		upbitRateLimitProperties.setDefaultRequestsPerSecond(2)
+
+		when:
+		[UpbitRequestType.CANCEL, UpbitRequestType.ASSET, UpbitRequestType.STATUS, UpbitRequestType.CANCEL].each {
+			request(it, ClientResponse.create(HttpStatus.OK).build()).subscribe()
+		}
+		scheduler.advanceTimeBy(Duration.ofSeconds(5))
+
+		then:
+		requestedTypes == [UpbitRequestType.CANCEL, UpbitRequestType.CANCEL, UpbitRequestType.STATUS, UpbitRequestType.ASSET]
+	}
+
+	def "Should hold requests while upbit reports no remaining request"() {
+		given:
+		def exhaustedResponse = ClientResponse.create(HttpStatus.OK)
+				.header("Remaining-Req", "group=default; min=1799; sec=0")
+				.build()
+
+		when:
+		request(UpbitRequestType.STATUS, exhaustedResponse).subscribe()
+		request(UpbitRequestType.STATUS, ClientResponse.create(HttpStatus.OK).build()).subscribe()
+
+		then:
+		requestedTypes.size() == 1
+
+		when:
+		scheduler.advanceTimeBy(Duration.ofSeconds(1))
+
+		then:
+		requestedTypes.size() == 2
+	}
+
+	def "Should not hold order requests behind other request groups"() {
+		given:
+		def exhaustedResponse = ClientResponse.create(HttpStatus.OK)
+				.header("Remaining-Req", "group=default; min=0; sec=29")
+				.build()
+
+		when:
+		request(UpbitRequestType.STATUS, exhaustedResponse).subscribe()
+		request(UpbitRequestType.STATUS, ClientResponse.create(HttpStatus.OK).build()).subscribe()
+		request(UpbitRequestType.ORDER, ClientResponse.create(HttpStatus.OK).build()).subscribe()
+
+		then:
+		requestedTypes == [UpbitRequestType.STATUS, UpbitRequestType.ORDER]
+	}
+
+	def "Should give up after retrying requests rejected with too many requests"() {
+		given:
+		upbitRateLimitProperties.setMaxRetries(2)
+		def error = null
+
+		when:
+		upbitRateLimiter.limit(accessKey, UpbitRequestType.ORDER, {
+			requestedTypes << UpbitRequestType.ORDER
+			Mono.just(ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS).build())
+		}).subscribe({}, { error = it })
+		scheduler.advanceTimeBy(Duration.ofSeconds(10))
+
+		then:
+		requestedTypes.size() == 3
+		error instanceof WebClientResponseException.TooManyRequests
+	}
+
+	def "Should evict only idle buckets"() {
+		given:
+		request(UpbitRequestType.ASSET, ClientResponse.create(HttpStatus.OK).build()).subscribe()
+
+		when:
+		upbitRateLimiter.evictIdleBuckets()
+
+		then:
+		upbitRateLimiter.buckets.size() == 1
+
+		when:
+		scheduler.advanceTimeBy(Duration.ofSeconds(1))
+		upbitRateLimiter.evictIdleBuckets()
+
+		then:
+		upbitRateLimiter.buckets.isEmpty()
+	}
+
+	Mono<ClientResponse> request(UpbitRequestType requestType, ClientResponse clientResponse) {
+		return upbitRateLimiter.limit(accessKey, requestType, {
+			requestedTypes << requestType
+			Mono.just(clientResponse)
+		})
+	}
+}
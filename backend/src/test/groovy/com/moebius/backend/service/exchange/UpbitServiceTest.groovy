@@ -1,23 +1,24 @@
 package com.moebius.backend.service.exchange
 
 import com.moebius.backend.assembler.exchange.UpbitAssembler
+import com.moebius.backend.configuration.ReactiveCacheProperties
+import com.moebius.backend.configuration.UpbitRateLimitProperties
 import com.moebius.backend.domain.apikeys.ApiKey
 import com.moebius.backend.domain.commons.Exchange
 import com.moebius.backend.domain.orders.Order
 import com.moebius.backend.domain.orders.OrderStatus
 import com.moebius.backend.dto.exchange.upbit.UpbitTradeMetaDto
 import com.moebius.backend.dto.order.OrderStatusDto
-import com.moebius.backend.dto.exchange.upbit.UpbitAssetDto
 import com.moebius.backend.dto.exchange.upbit.UpbitOrderStatusDto
 import com.moebius.backend.exception.DataNotVerifiedException
 import com.moebius.backend.exception.ExceptionTypes
 import com.moebius.backend.exception.WrongDataException
+import com.moebius.backend.service.cache.ReactiveCacheFactory
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.springframework.http.HttpHeaders
 import org.springframework.http.HttpStatus
 import org.springframework.http.MediaType
-import org.springframework.mock.http.client.MockClientHttpRequest
 import org.springframework.web.reactive.function.client.ClientResponse
-import org.springframework.web.reactive.function.client.DefaultWebClient
 import org.springframework.web.reactive.function.client.WebClient
 import reactor.core.publisher.Flux
 import reactor.core.publisher.Mono
@@ -26,8 +27,6 @@ import spock.lang.Specification
 import spock.lang.Subject
 
 import java.util.function.Consumer
-import java.util.function.Function
-import java.util.function.Predicate
 
 class UpbitServiceTest extends Specification {
 	def webClient = Mock(WebClient)
@@ -51,7 +50,8 @@ class UpbitServiceTest extends Specification {
 
 
 	@Subject
-	def upbitService = new UpbitService(webClient, upbitAssembler)
+	def upbitService = new UpbitService(webClient, upbitAssembler, new UpbitRateLimiter(new UpbitRateLimitProperties()),
+			new ReactiveCacheFactory(new ReactiveCacheProperties(), new SimpleMeterRegistry()))
 
 	def "Should get exchange type of upbit"() {
 		expect:
@@ -73,12 +73,7 @@ class UpbitServiceTest extends Specification {
 		1 * webClient.get() >> uriSpec
 		1 * uriSpec.uri(_ as String) >> headersSpec
 		1 * headersSpec.headers(_ as Consumer<HttpHeaders>) >> headersSpec
-		1 * headersSpec.retrieve() >> responseSpec
-		1 * responseSpec.bodyToFlux(UpbitAssetDto.class) >> Flux.just(UpbitAssetDto.builder()
-				.currency("BTC")
-				.balance("10000")
-				.averagePurchasePrice("2000000")
-				.build())
+		1 * headersSpec.exchange() >> Mono.just(buildJsonResponse(HttpStatus.OK, '[{"currency": "BTC", "balance": "10000"}]'))
 
 		expect:
 		StepVerifier.create(upbitService.getAssets(authToken))
@@ -86,7 +81,6 @@ class UpbitServiceTest extends Specification {
 					assert it != null
 					assert it.getCurrency() == "BTC"
 					assert it.getBalance() == 10000D
-					assert it.getAveragePurchasePrice() == 2000000D
 				})
 				.verifyComplete()
 	}
@@ -225,9 +219,7 @@ class UpbitServiceTest extends Specification {
 		1 * webClient.get() >> uriSpec
 		1 * uriSpec.uri(_ as String) >> headersSpec
 		1 * headersSpec.headers(_ as Consumer<HttpHeaders>) >> headersSpec
-		1 * headersSpec.retrieve() >> responseSpec
-		1 * responseSpec.onStatus(_ as Predicate<HttpStatus>, _ as Function<ClientResponse, Mono<? extends Throwable>>) >> responseSpec
-		1 * responseSpec.bodyToMono(UpbitOrderStatusDto.class) >> Mono.just(UpbitOrderStatusDto.builder().build())
+		1 * headersSpec.exchange() >> Mono.just(buildJsonResponse(HttpStatus.OK, '{"state": "cancel"}'))
 		1 * upbitAssembler.assembleOrderStatus(_ as String, _ as UpbitOrderStatusDto) >> OrderStatusDto.builder()
 				.id(orderId)
 				.orderStatus(OrderStatus.STOPPED)
@@ -246,8 +238,6 @@ class UpbitServiceTest extends Specification {
 
 	def "Should not get current order status cause of unauthorized request"() {
 		given:
-		def responseForUnauthorizedRequest = new DefaultWebClient.DefaultResponseSpec(Mono.just(ClientResponse.create(HttpStatus.UNAUTHORIZED).build()), { new MockClientHttpRequest() })
-
 		upbitService.messageDigestHashAlgorithm = "SHA-512"
 		upbitService.messageDigestCharset = "UTF-8"
 
@@ -255,13 +245,70 @@ class UpbitServiceTest extends Specification {
 		1 * webClient.get() >> uriSpec
 		1 * uriSpec.uri(_ as String) >> headersSpec
 		1 * headersSpec.headers(_ as Consumer<HttpHeaders>) >> headersSpec
-		1 * headersSpec.retrieve() >> responseForUnauthorizedRequest
+		1 * headersSpec.exchange() >> Mono.just(ClientResponse.create(HttpStatus.UNAUTHORIZED).build())
 
 		expect:
 		StepVerifier.create(upbitService.getCurrentOrderStatus(apiKey, orderId))
 				.verifyError(WrongDataException.class)
 	}
 
+	def "Should get done order statuses with a single request"() {
+		given:
+		upbitService.messageDigestHashAlgorithm = "SHA-512"
+		upbitService.messageDigestCharset = "UTF-8"
+
+		and: // mock process
+		1 * upbitAssembler.assembleDoneOrdersParameters([orderId, "waitingOrderId"]) >> "dummyQueryParameter"
+		1 * webClient.get() >> uriSpec
+		1 * uriSpec.uri({ it.endsWith("?dummyQueryParameter") }) >> headersSpec
+		1 * headersSpec.headers(_ as Consumer<HttpHeaders>) >> headersSpec
+		1 * headersSpec.exchange() >> Mono.just(buildJsonResponse(HttpStatus.OK, '[{"identifier": "dummyOrderId", "state": "done"}, {"state": "done"}]'))
+		1 * upbitAssembler.assembleOrderStatus(orderId, _ as UpbitOrderStatusDto) >> OrderStatusDto.builder()
+				.id(orderId)
+				.orderStatus(OrderStatus.DONE)
+				.build()
+
+		expect:
+		StepVerifier.create(upbitService.getDoneOrderStatuses(apiKey, [orderId, "waitingOrderId"]))
+				.assertNext({
+					assert it.getId() == orderId
+					assert it.getOrderStatus() == OrderStatus.DONE
+				})
+				.verifyComplete()
+	}
+
+	def "Should not request done order statuses without order ids"() {
+		when:
+		StepVerifier.create(upbitService.getDoneOrderStatuses(apiKey, []))
+				.verifyComplete()
+
+		then:
+		0 * webClient.get()
+	}
+
+	def "Should retry order request rejected with too many requests"() {
+		given:
+		upbitService.messageDigestHashAlgorithm = "SHA-512"
+		upbitService.messageDigestCharset = "UTF-8"
+
+		and: // mock process
+		1 * upbitAssembler.assembleOrderParameters(_ as Order) >> "dummyQueryParameter"
+		2 * webClient.post() >> bodyUriSpec
+		2 * bodyUriSpec.uri(_ as String) >> bodySpec
+		2 * bodySpec.contentType(_ as MediaType) >> bodySpec
+		2 * bodySpec.headers(_ as Consumer<HttpHeaders>) >> bodySpec
+		2 * bodySpec.bodyValue(_) >> headersSpec
+		2 * headersSpec.exchange() >>> [Mono.just(ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS).build()),
+										Mono.just(ClientResponse.create(HttpStatus.CREATED).build())]
+
+		expect:
+		StepVerifier.create(upbitService.requestOrder(apiKey, order))
+				.assertNext({
+					assert it.statusCode() == HttpStatus.CREATED
+				})
+				.verifyComplete()
+	}
+
 	def "Should get trade meta"() {
 		given:
 		1 * webClient.get() >> uriSpec
@@ -277,4 +324,45 @@ class UpbitServiceTest extends Specification {
 				})
 				.verifyComplete()
 	}
+
+	def "Should get trade metas of symbols with a single request"() {
+		given:
+		1 * webClient.get() >> uriSpec
+		1 * uriSpec.uri({ it.endsWith("KRW-BTC,CRIX.UPBIT.KRW-ETH") }) >> headersSpec
+		1 * headersSpec.retrieve() >> responseSpec
+		1 * responseSpec.bodyToFlux(UpbitTradeMetaDto.class) >> Flux.just(
+				UpbitTradeMetaDto.builder().code("CRIX.UPBIT.KRW-BTC").accumulatedTradePrice(100D).build(),
+				UpbitTradeMetaDto.builder().code("CRIX.UPBIT.KRW-ETH").accumulatedTradePrice(200D).build())
+
+		expect:
+		StepVerifier.create(upbitService.getTradeMetas(["KRW-BTC", "KRW-ETH"]))
+				.assertNext({
+					assert it.keySet() == ["KRW-BTC", "KRW-ETH"] as Set
+					assert it.get("KRW-ETH").getAccumulatedTradePrice() == 200D
+				})
+				.verifyComplete()
+	}
+
+	def "Should get trade meta from cache after loaded"() {
+		given:
+		1 * webClient.get() >> uriSpec
+		1 * uriSpec.uri(_ as String) >> headersSpec
+		1 * headersSpec.retrieve() >> responseSpec
+		1 * responseSpec.bodyToFlux(UpbitTradeMetaDto.class) >> Flux.just(UpbitTradeMetaDto.builder().build())
+
+		expect:
+		StepVerifier.create(upbitService.getTradeMeta("KRW-BTC"))
+				.expectNextCount(1)
+				.verifyComplete()
+		StepVerifier.create(upbitService.getTradeMeta("KRW-BTC"))
+				.expectNextCount(1)
+				.verifyComplete()
+	}
+
+	ClientResponse buildJsonResponse(HttpStatus httpStatus, String body) {
+		return ClientResponse.create(httpStatus)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.body(body)
+				.build()
+	}
 }
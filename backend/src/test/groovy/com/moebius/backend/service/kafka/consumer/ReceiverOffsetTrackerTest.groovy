@@ -0,0 +1,68 @@
+package com.moebius.backend.service.kafka.consumer
+
+import org.apache.kafka.common.TopicPartition
+import reactor.kafka.receiver.ReceiverOffset
+import spock.lang.Specification
+import spock.lang.Subject
+
+class ReceiverOffsetTrackerTest extends Specification {
+	def topicPartition = new TopicPartition("moebius.trade.upbit", 0)
+
+	@Subject
+	def receiverOffsetTracker = new ReceiverOffsetTracker()
+
+	def "Should acknowledge offset when all previous offsets are completed"() {
+		given:
+		def firstOffset = buildOffset(1L)
+		def secondOffset = buildOffset(2L)
+		def thirdOffset = buildOffset(3L)
+		[firstOffset, secondOffset, thirdOffset].each { receiverOffsetTracker.register(it) }
+
+		when:
+		receiverOffsetTracker.complete(secondOffset)
+
+		then:
+		0 * secondOffset.acknowledge()
+
+		when:
+		receiverOffsetTracker.complete(firstOffset)
+
+		then:
+		0 * firstOffset.acknowledge()
+		1 * secondOffset.acknowledge()
+		0 * thirdOffset.acknowledge()
+	}
+
+	def "Should not acknowledge offset of revoked partition"() {
+		given:
+		def offset = buildOffset(1L)
+		receiverOffsetTracker.register(offset)
+		receiverOffsetTracker.revoke([topicPartition])
+
+		when:
+		receiverOffsetTracker.complete(offset)
+
+		then:
+		0 * offset.acknowledge()
+	}
+
+	def "Should not acknowledge offset after the tracker is cleared"() {
+		given:
+		def offset = buildOffset(1L)
+		receiverOffsetTracker.register(offset)
+		receiverOffsetTracker.clear()
+
+		when:
+		receiverOffsetTracker.complete(offset)
+
+		then:
+		0 * offset.acknowledge()
+	}
+
+	ReceiverOffset buildOffset(long offset) {
+		return Mock(ReceiverOffset) {
+			topicPartition() >> topicPartition
+			offset() >> offset
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.moebius.backend.service.kafka.consumer
+
+import com.moebius.backend.configuration.KafkaBatchProperties
+import reactor.kafka.receiver.ReceiverRecord
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Duration
+import java.util.function.LongSupplier
+
+class RecordWindowTest extends Specification {
+	def now = 1_000_000L
+	def batchProperties = new KafkaBatchProperties()
+
+	@Subject
+	def recordWindow = new RecordWindow(batchProperties, "moebius.trade.upbit", { now } as LongSupplier)
+
+	def setup() {
+		batchProperties.setWindow(Duration.ofMillis(20))
+		batchProperties.setMaxSize(3)
+		batchProperties.setCatchUpLag(Duration.ofSeconds(5))
+		batchProperties.setCatchUpWindow(Duration.ofSeconds(1))
+		batchProperties.setCatchUpMaxSize(5)
+	}
+
+	def "Should close window when it is full"() {
+		expect:
+		!recordWindow.closesBy(buildRecord(now))
+		!recordWindow.closesBy(buildRecord(now))
+		recordWindow.closesBy(buildRecord(now))
+		!recordWindow.closesBy(buildRecord(now))
+	}
+
+	def "Should close window of idle rail by tick"() {
+		given:
+		recordWindow.closesBy(buildRecord(now))
+
+		when:
+		now += 10
+
+		then:
+		!recordWindow.closesBy(null)
+
+		when:
+		now += 10
+
+		then:
+		recordWindow.closesBy(null)
+	}
+
+	def "Should close empty window on every tick"() {
+		expect:
+		recordWindow.closesBy(null)
+	}
+
+	def "Should widen window while catching up"() {
+		when:
+		def closed = (1..5).collect { recordWindow.closesBy(buildRecord(now - 10000)) }
+
+		then:
+		recordWindow.isCatchingUp()
+		closed == [false, false, false, false, true]
+
+		when:
+		recordWindow.closesBy(buildRecord(now - 3000))
+		now += 500
+
+		then:
+		!recordWindow.closesBy(null)
+		!recordWindow.closesBy(buildRecord(now - 3000))
+		recordWindow.isCatchingUp()
+	}
+
+	def "Should leave catch up once lag is below half of catch up lag"() {
+		given:
+		recordWindow.closesBy(buildRecord(now - 10000))
+
+		when:
+		def closed = recordWindow.closesBy(buildRecord(now - 1000))
+
+		then:
+		!recordWindow.isCatchingUp()
+		!closed
+		recordWindow.closesBy(buildRecord(now))
+	}
+
+	def "Should ignore lag of records without timestamp"() {
+		when:
+		recordWindow.closesBy(buildRecord(-1L))
+
+		then:
+		!recordWindow.isCatchingUp()
+	}
+
+	ReceiverRecord buildRecord(long timestamp) {
+		return Stub(ReceiverRecord) {
+			timestamp() >> timestamp
+		}
+	}
+}
@@ -1,29 +1,39 @@
 package com.moebius.backend.service.kafka.consumer
 
+import com.moebius.backend.configuration.TradePipelineProperties
 import com.moebius.backend.dto.trade.TradeDto
+import com.moebius.backend.service.kafka.serializer.TradeDtoDeserializer
 import com.moebius.backend.service.market.MarketService
 import com.moebius.backend.service.order.ExchangeOrderService
-import com.moebius.backend.service.order.InternalOrderService
+import com.moebius.backend.service.trade.TradePipelineMetrics
 import com.moebius.backend.service.trade.TradeService
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.apache.kafka.common.TopicPartition
 import org.apache.kafka.common.serialization.StringDeserializer
-import org.springframework.kafka.support.serializer.JsonDeserializer
+import reactor.core.publisher.Mono
 import reactor.kafka.receiver.ReceiverOffset
 import reactor.kafka.receiver.ReceiverRecord
+import reactor.test.StepVerifier
 import spock.lang.Specification
 import spock.lang.Subject
 
 class UpbitKafkaConsumerTest extends Specification {
 	def exchangeOrderService = Mock(ExchangeOrderService)
-	def internalOrderService = Mock(InternalOrderService)
 	def marketService = Mock(MarketService)
 	def tradeService = Mock(TradeService)
+	def meterRegistry = new SimpleMeterRegistry()
 	def receiverRecord = Stub(ReceiverRecord) {
 		receiverOffset() >> Stub(ReceiverOffset)
-		value() >> Stub(TradeDto)
+		value() >> Stub(TradeDto) {
+			getSymbol() >> "KRW-BTC"
+		}
 	}
 
+	def tradePipelineProperties = new TradePipelineProperties()
+
 	@Subject
-	def tradeKafkaConsumer = new UpbitKafkaConsumer([:], exchangeOrderService, internalOrderService, marketService, tradeService)
+	def tradeKafkaConsumer = new UpbitKafkaConsumer([:], tradePipelineProperties, exchangeOrderService, marketService, tradeService,
+			new TradePipelineMetrics(meterRegistry))
 
 	def "Should get topic"() {
 		expect:
@@ -32,13 +42,96 @@ class UpbitKafkaConsumerTest extends Specification {
 
 	def "Should process topic and business logic"() {
 		when:
-		tradeKafkaConsumer.processRecord(receiverRecord)
+		StepVerifier.create(tradeKafkaConsumer.processRecord(receiverRecord))
+				.verifyComplete()
+
+		then:
+		1 * tradeService.notifyIfValidTrade(_ as TradeDto) >> Mono.empty()
+		1 * exchangeOrderService.orderByTrade(_ as TradeDto) >> Mono.empty()
+		1 * marketService.updateMarketPrice(_ as TradeDto) >> Mono.empty()
+		["alert", "order", "market"].every { meterRegistry.get("moebius.trade.stage").tag("stage", it).timer().count() == 1 }
+	}
+
+	def "Should complete processing even if a stage fails"() {
+		when:
+		StepVerifier.create(tradeKafkaConsumer.processRecord(receiverRecord))
+				.verifyComplete()
+
+		then:
+		1 * tradeService.notifyIfValidTrade(_ as TradeDto) >> Mono.error(new IllegalStateException())
+		1 * exchangeOrderService.orderByTrade(_ as TradeDto) >> { throw new NullPointerException() }
+		1 * marketService.updateMarketPrice(_ as TradeDto) >> Mono.empty()
+	}
+
+	def "Should skip record without trade"() {
+		given:
+		def record = Stub(ReceiverRecord) {
+			receiverOffset() >> Stub(ReceiverOffset)
+			value() >> null
+		}
+
+		when:
+		StepVerifier.create(tradeKafkaConsumer.processRecord(record))
+				.verifyComplete()
 
 		then:
-		1 * tradeService.notifyIfValidTrade(_ as TradeDto)
-		1 * internalOrderService.updateOrderStatusByTrade(_ as TradeDto)
-		1 * exchangeOrderService.orderByTrade(_ as TradeDto)
-		1 * marketService.updateMarketPrice(_ as TradeDto)
+		0 * tradeService.notifyIfValidTrade(_)
+		0 * exchangeOrderService.orderByTrade(_)
+		0 * marketService.updateMarketPrice(_)
+		meterRegistry.find("moebius.trade.stage").timers().isEmpty()
+	}
+
+	def "Should process a window of records once per symbol"() {
+		given:
+		def records = [buildRecord("KRW-BTC", 100D), buildRecord("KRW-ETH", 10D), buildRecord("KRW-BTC", 90D),
+					   buildRecord("KRW-BTC", 120D), buildRecord("KRW-BTC", 110D)]
+
+		1 * tradeService.notifyIfValidTrades({ it.getLastTrade().getSymbol() == "KRW-BTC" && it.getTradeCount() == 4 }) >> Mono.empty()
+		1 * tradeService.notifyIfValidTrades({ it.getLastTrade().getSymbol() == "KRW-ETH" }) >> Mono.empty()
+		1 * exchangeOrderService.orderByTrade({ it.getSymbol() == "KRW-ETH" && it.getPrice() == 10D }) >> Mono.empty()
+		1 * marketService.updateMarketPrice({ it.getSymbol() == "KRW-BTC" && it.getPrice() == 110D }) >> Mono.empty()
+		1 * marketService.updateMarketPrice({ it.getSymbol() == "KRW-ETH" }) >> Mono.empty()
+		0 * tradeService.notifyIfValidTrade(_)
+
+		when:
+		StepVerifier.create(tradeKafkaConsumer.processRecords(records))
+				.verifyComplete()
+
+		then:
+		1 * exchangeOrderService.orderByTrade({ it.getSymbol() == "KRW-BTC" && it.getPrice() == 90D }) >> Mono.empty()
+
+		then:
+		1 * exchangeOrderService.orderByTrade({ it.getSymbol() == "KRW-BTC" && it.getPrice() == 120D }) >> Mono.empty()
+		meterRegistry.get("moebius.trade.window.records").summary().totalAmount() == 5
+		meterRegistry.get("moebius.trade.window.symbols").summary().totalAmount() == 2
+	}
+
+	def "Should get batch properties of trade pipeline"() {
+		expect:
+		tradeKafkaConsumer.getBatchProperties().is(tradePipelineProperties.getBatch())
+	}
+
+	def "Should group records by symbol"() {
+		expect:
+		tradeKafkaConsumer.getGroupKey(receiverRecord) == "KRW-BTC"
+	}
+
+	def "Should group records without value by key or partition"() {
+		given:
+		def partition = new TopicPartition("moebius.trade.upbit", 0)
+		def record = Stub(ReceiverRecord) {
+			key() >> recordKey
+			value() >> null
+			receiverOffset() >> Stub(ReceiverOffset) {
+				topicPartition() >> partition
+			}
+		}
+
+		expect:
+		tradeKafkaConsumer.getGroupKey(record) == (recordKey ?: partition)
+
+		where:
+		recordKey << ["KRW-BTC", null]
 	}
 
 	def "Should get key deserializer class"() {
@@ -48,6 +141,17 @@ class UpbitKafkaConsumerTest extends Specification {
 
 	def "Should get value deserializer class"() {
 		expect:
-		tradeKafkaConsumer.getValueDeserializerClass() == JsonDeserializer.class
+		tradeKafkaConsumer.getValueDeserializerClass() == TradeDtoDeserializer.class
+	}
+
+	ReceiverRecord<String, TradeDto> buildRecord(String symbol, double price) {
+		def tradeDto = new TradeDto()
+		tradeDto.setSymbol(symbol)
+		tradeDto.setPrice(price)
+
+		return Stub(ReceiverRecord) {
+			receiverOffset() >> Stub(ReceiverOffset)
+			value() >> tradeDto
+		}
 	}
 }
@@ -1,6 +1,8 @@
 package com.moebius.backend.service.kafka.producer
 
+import com.moebius.backend.configuration.KafkaProducerProperties
 import com.moebius.backend.dto.message.MessageSendRequestDto
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.apache.commons.lang3.StringUtils
 import org.apache.kafka.common.serialization.StringSerializer
 import org.springframework.kafka.support.serializer.JsonSerializer
@@ -17,7 +19,7 @@ class MessageKafkaProducerTest extends Specification {
     }
 
     @Subject
-    def sut = Spy(MessageKafkaProducer, constructorArgs: [:]) {
+    def sut = Spy(MessageKafkaProducer, constructorArgs: [[:], new KafkaProducerProperties(), new SimpleMeterRegistry()]) {
         produceMessages(_ as MessageSendRequestDto) >> Flux.just(Stub(SenderResult) {
             correlationMetadata() >> "moebius.message.send.NO_DEDUP.SLACK.messageTitle.1234123"
         })
@@ -1,9 +1,13 @@
 package com.moebius.backend.service.kafka.producer
 
+import com.moebius.backend.configuration.KafkaProducerProperties
 import com.moebius.backend.dto.trade.TradeDto
+import com.moebius.backend.service.kafka.serializer.TradeDtoSerializer
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.apache.kafka.common.serialization.StringSerializer
-import org.springframework.kafka.support.serializer.JsonSerializer
+import org.reactivestreams.Publisher
 import reactor.core.publisher.Flux
+import reactor.kafka.sender.KafkaSender
 import reactor.kafka.sender.SenderResult
 import spock.lang.Shared
 import spock.lang.Specification
@@ -16,7 +20,7 @@ class TradeKafkaProducerTest extends Specification {
 	}
 
 	@Subject
-	def tradeKafkaProducer = Spy(TradeKafkaProducer, constructorArgs: [:]) {
+	def tradeKafkaProducer = Spy(TradeKafkaProducer, constructorArgs: [[:], new KafkaProducerProperties(), new SimpleMeterRegistry()]) {
 		produceMessages(_ as TradeDto) >> Flux.just(Stub(SenderResult) {
 			correlationMetadata() >> "moebius.trade.upbit.KRW-BTC"
 		})
@@ -34,7 +38,7 @@ class TradeKafkaProducerTest extends Specification {
 
 	def "Should get value serializer class"() {
 		expect:
-		tradeKafkaProducer.getValueSerializerClass() == JsonSerializer.class
+		tradeKafkaProducer.getValueSerializerClass() == TradeDtoSerializer.class
 	}
 
 	def "Should get key as symbol"() {
@@ -56,4 +60,64 @@ class TradeKafkaProducerTest extends Specification {
 			it -> assert it.correlationMetadata() == "moebius.trade.upbit.KRW-BTC"
 		})
 	}
+
+	def "Should reject messages over capacity of outbox"() {
+		given:
+		def meterRegistry = new SimpleMeterRegistry()
+		def producerProperties = new KafkaProducerProperties()
+		producerProperties.setOutboxCapacity(0)
+		def producer = new TradeKafkaProducer([:], producerProperties, meterRegistry)
+
+		expect:
+		!producer.send(message)
+		meterRegistry.get("moebius.kafka.producer.outbox.records")
+			.tags("topic", "moebius.trade.upbit", "result", "rejected")
+			.counter().count() == 1
+		meterRegistry.get("moebius.kafka.producer.outbox.size").gauge().value() == 0
+	}
+
+	def "Should replace terminated outbox on the next message"() {
+		given:
+		def meterRegistry = new SimpleMeterRegistry()
+		def producer = new TradeKafkaProducer([:], new KafkaProducerProperties(), meterRegistry)
+		def sender = Mock(KafkaSender)
+		setSender(producer, sender)
+
+		when:
+		def sent = producer.send(message)
+
+		then:
+		sent
+		1 * sender.send(_) >> Flux.error(new IllegalStateException())
+
+		then:
+		1 * sender.send(_) >> { Publisher records -> Flux.from(records).map { Stub(SenderResult) } }
+		meterRegistry.get("moebius.kafka.producer.outbox.records")
+			.tags("topic", "moebius.trade.upbit", "result", "sent")
+			.counter().count() == 1
+		meterRegistry.get("moebius.kafka.producer.outbox.size").gauge().value() == 0
+	}
+
+	def "Should fail message when outbox keeps terminating"() {
+		given:
+		def meterRegistry = new SimpleMeterRegistry()
+		def producer = new TradeKafkaProducer([:], new KafkaProducerProperties(), meterRegistry)
+		def sender = Stub(KafkaSender) {
+			send(_) >> Flux.error(new IllegalStateException())
+		}
+		setSender(producer, sender)
+
+		expect:
+		!producer.send(message)
+		meterRegistry.get("moebius.kafka.producer.outbox.records")
+			.tags("topic", "moebius.trade.upbit", "result", "failed")
+			.counter().count() == 1
+		meterRegistry.get("moebius.kafka.producer.outbox.size").gauge().value() == 0
+	}
+
+	static void setSender(KafkaProducer producer, KafkaSender sender) {
+		def field = KafkaProducer.getDeclaredField("sender")
+		field.setAccessible(true)
+		field.set(producer, sender)
+	}
 }
@@ -0,0 +1,153 @@
+package com.moebius.backend.service.kafka.serializer
+
+import com.moebius.backend.domain.commons.Change
+import com.moebius.backend.domain.commons.Exchange
+import com.moebius.backend.domain.commons.TradeType
+import com.moebius.backend.dto.trade.TradeDto
+import org.apache.kafka.common.errors.SerializationException
+import org.apache.kafka.common.header.internals.RecordHeaders
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.time.LocalDateTime
+
+class TradeDtoSerializerTest extends Specification {
+	static final String TOPIC = "moebius.trade.upbit"
+
+	def serializer = new TradeDtoSerializer()
+	def deserializer = new TradeDtoDeserializer()
+
+	def setup() {
+		serializer.configure([(TradeDtoSerializer.FORMAT_CONFIG): TradeDtoSerializer.BINARY_FORMAT], false)
+		deserializer.configure([:], false)
+	}
+
+	def "Should read trade written in binary"() {
+		given:
+		def headers = new RecordHeaders()
+		def tradeDto = buildTradeDto()
+
+		when:
+		def data = serializer.serialize(TOPIC, headers, tradeDto)
+		def result = deserializer.deserialize(TOPIC, headers, data)
+
+		then:
+		headers.lastHeader(TradeDtoSerializer.VERSION_HEADER).value() == [1] as byte[]
+		result.toString() == tradeDto.toString()
+	}
+
+	def "Should read trade without optional fields written in binary"() {
+		given:
+		def headers = new RecordHeaders()
+		def tradeDto = buildTradeDto()
+		tradeDto.setId(null)
+		tradeDto.setChange(null)
+
+		when:
+		def result = deserializer.deserialize(TOPIC, headers, serializer.serialize(TOPIC, headers, tradeDto))
+
+		then:
+		result.toString() == tradeDto.toString()
+	}
+
+	def "Should read trade written in json"() {
+		given:
+		def headers = new RecordHeaders()
+		def tradeDto = buildTradeDto()
+		serializer.configure(configs, false)
+
+		when:
+		def data = serializer.serialize(TOPIC, headers, tradeDto)
+		def result = deserializer.deserialize(TOPIC, headers, data)
+
+		then:
+		headers.lastHeader(TradeDtoSerializer.VERSION_HEADER) == null
+		result.toString() == tradeDto.toString()
+
+		where:
+		configs << [[(TradeDtoSerializer.FORMAT_CONFIG): TradeDtoSerializer.JSON_FORMAT], [:]]
+	}
+
+	def "Should read trade written in json by other producers"() {
+		given:
+		def json = '''{"id": null, "exchange": "UPBIT", "symbol": "KRW-BTC", "tradeType": "ASK", "change": "FALL",
+			"price": 11050000, "volume": 0.5, "prevClosingPrice": 11000000.0, "changePrice": -50000.0,
+			"createdAt": "2020-07-10T15:26:40", "receivedTime": 1594362400123, "unknown": [{"nested": true}]}'''
+
+		when:
+		def result = deserializer.deserialize(TOPIC, new RecordHeaders(), json.getBytes(StandardCharsets.UTF_8))
+
+		then:
+		result.getId() == null
+		result.getExchange() == Exchange.UPBIT
+		result.getSymbol() == "KRW-BTC"
+		result.getTradeType() == TradeType.ASK
+		result.getChange() == Change.FALL
+		result.getPrice() == 11050000.0d
+		result.getVolume() == 0.5d
+		result.getChangePrice() == -50000.0d
+		result.getCreatedAt() == LocalDateTime.of(2020, 7, 10, 15, 26, 40)
+		result.getReceivedTime() == 1594362400123L
+	}
+
+	def "Should throw exception for malformed json"() {
+		when:
+		deserializer.deserialize(TOPIC, new RecordHeaders(), '{"symbol": "KRW-BTC", "exchange": "UNKNOWN"}'.getBytes(StandardCharsets.UTF_8))
+
+		then:
+		thrown(SerializationException)
+	}
+
+	def "Should write binary smaller than json"() {
+		given:
+		def tradeDto = buildTradeDto()
+		def jsonSerializer = new TradeDtoSerializer()
+		jsonSerializer.configure([(TradeDtoSerializer.FORMAT_CONFIG): TradeDtoSerializer.JSON_FORMAT], false)
+
+		expect:
+		serializer.serialize(TOPIC, new RecordHeaders(), tradeDto).length < jsonSerializer.serialize(TOPIC, new RecordHeaders(), tradeDto).length / 2
+	}
+
+	def "Should throw exception for unknown version"() {
+		given:
+		def headers = new RecordHeaders()
+		def data = serializer.serialize(TOPIC, headers, buildTradeDto())
+		headers.remove(TradeDtoSerializer.VERSION_HEADER)
+		headers.add(TradeDtoSerializer.VERSION_HEADER, [2] as byte[])
+
+		when:
+		deserializer.deserialize(TOPIC, headers, data)
+
+		then:
+		thrown(SerializationException)
+	}
+
+	def "Should throw exception for truncated trade"() {
+		given:
+		def headers = new RecordHeaders()
+		def data = serializer.serialize(TOPIC, headers, buildTradeDto())
+
+		when:
+		deserializer.deserialize(TOPIC, headers, Arrays.copyOf(data, data.length - 1))
+
+		then:
+		thrown(SerializationException)
+	}
+
+	TradeDto buildTradeDto() {
+		TradeDto tradeDto = new TradeDto()
+		tradeDto.setId("1594362400000001")
+		tradeDto.setExchange(Exchange.UPBIT)
+		tradeDto.setSymbol("KRW-BTC")
+		tradeDto.setTradeType(TradeType.BID)
+		tradeDto.setChange(Change.RISE)
+		tradeDto.setPrice(11050000.0)
+		tradeDto.setVolume(0.0123)
+		tradeDto.setPrevClosingPrice(11000000.0)
+		tradeDto.setChangePrice(50000.0)
+		tradeDto.setCreatedAt(LocalDateTime.of(2020, 7, 10, 15, 26, 40, 123000000))
+		tradeDto.setReceivedTime(1594362400123L)
+
+		return tradeDto
+	}
+}
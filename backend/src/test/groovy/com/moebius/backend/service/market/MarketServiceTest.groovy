@@ -12,7 +12,6 @@ import com.moebius.backend.service.exchange.UpbitService
 import org.bson.types.ObjectId
 import org.springframework.http.HttpStatus
 import org.springframework.web.reactive.function.client.WebClient
-import reactor.core.publisher.Flux
 import reactor.core.publisher.Mono
 import reactor.test.StepVerifier
 import spock.lang.Specification
@@ -23,29 +22,58 @@ class MarketServiceTest extends Specification {
 	def marketRepository = Mock(MarketRepository)
 	def marketAssembler = Mock(MarketAssembler)
 	def upbitService = Mock(UpbitService)
+	def marketSnapshotService = Mock(MarketSnapshotService)
+	def upbitTradeMetaService = Mock(UpbitTradeMetaService)
 	def uriSpec = Mock(WebClient.RequestHeadersUriSpec)
 	def responseSpec = Mock(WebClient.ResponseSpec)
 	def exchange = Exchange.UPBIT
 	def marketId = "5e7a30eceea97a67367a4b6a"
 
 	@Subject
-	def marketService = new MarketService(webClient, marketRepository, marketAssembler, upbitService)
+	def marketService = new MarketService(webClient, marketRepository, marketAssembler, upbitService, marketSnapshotService, upbitTradeMetaService)
 
 	def "Should update market price"() {
-		given:
-		marketAssembler.assembleUpdatedMarket(_ as Market, _ as TradeDto, _ as UpbitTradeMetaDto) >> Stub(Market)
-
 		when:
-		marketService.updateMarketPrice(Stub(TradeDto))
+		StepVerifier.create(marketService.updateMarketPrice(Stub(TradeDto)))
+				.verifyComplete()
 
 		then:
+		1 * marketSnapshotService.getMarket(_ as Exchange, _ as String) >> null
 		1 * marketRepository.findByExchangeAndSymbol(_ as Exchange, _ as String) >> Mono.just(Stub(Market))
+		1 * upbitTradeMetaService.getTradeMeta(_ as String) >> Stub(UpbitTradeMetaDto)
+		0 * upbitService.getTradeMeta(_)
+		1 * marketSnapshotService.putMarket(_ as Market)
+		1 * marketSnapshotService.updateMarket(_ as Market, _ as TradeDto, _ as UpbitTradeMetaDto)
+	}
+
+	def "Should update market price without reading market if snapshot exists"() {
+		when:
+		StepVerifier.create(marketService.updateMarketPrice(Stub(TradeDto)))
+				.verifyComplete()
+
+		then:
+		1 * marketSnapshotService.getMarket(_ as Exchange, _ as String) >> Stub(Market)
+		0 * marketRepository.findByExchangeAndSymbol(_, _)
+		1 * upbitTradeMetaService.getTradeMeta(_ as String) >> Stub(UpbitTradeMetaDto)
+		1 * marketSnapshotService.updateMarket(_ as Market, _ as TradeDto, _ as UpbitTradeMetaDto)
+	}
+
+	def "Should request trade meta if it is not in the snapshot"() {
+		when:
+		StepVerifier.create(marketService.updateMarketPrice(Stub(TradeDto)))
+				.verifyComplete()
+
+		then:
+		1 * marketSnapshotService.getMarket(_ as Exchange, _ as String) >> Stub(Market)
+		1 * upbitTradeMetaService.getTradeMeta(_ as String) >> null
 		1 * upbitService.getTradeMeta(_ as String) >> Mono.just(Stub(UpbitTradeMetaDto))
+		1 * marketSnapshotService.updateMarket(_ as Market, _ as TradeDto, _ as UpbitTradeMetaDto)
 	}
 
 	def "Should get markets"() {
 		given:
-		1 * marketRepository.findAllByExchange(_ as Exchange) >> Flux.just(Stub(Market), Stub(Market))
+		1 * marketSnapshotService.getMarkets(_ as Exchange) >> Mono.just([Stub(Market), Stub(Market)])
+		0 * marketRepository.findAllByExchange(_)
 		2 * marketAssembler.assembleResponse(_ as Market) >> Stub(MarketResponseDto)
 
 		expect:
@@ -96,8 +124,8 @@ class MarketServiceTest extends Specification {
 
 	def "Should get currency market prices"() {
 		given:
-		1 * marketRepository.findAllByExchange(_ as Exchange) >> Flux.just(Stub(Market), Stub(Market))
-		1 * marketAssembler.assembleCurrencyMarketPrices(_ as List) >> ["BTC": 10000000D, "ETH": 300000D]
+		1 * marketSnapshotService.getCurrencyPrices(_ as Exchange) >> Mono.just(["BTC": 10000000D, "ETH": 300000D])
+		0 * marketRepository.findAllByExchange(_)
 
 		expect:
 		StepVerifier.create(marketService.getCurrencyMarketPriceMap(Exchange.UPBIT))
@@ -114,6 +142,7 @@ class MarketServiceTest extends Specification {
 		def market = Stub(Market) {
 			getCurrentPrice() >> 100000000000D
 		}
+		1 * marketSnapshotService.getMarket(_ as Exchange, _ as String) >> null
 		1 * marketRepository.findByExchangeAndSymbol(_ as Exchange, _ as String) >> Mono.just(market)
 
 		expect:
@@ -125,6 +154,22 @@ class MarketServiceTest extends Specification {
 				.verifyComplete()
 	}
 
+	def "Should get current price from market snapshot"() {
+		given:
+		def market = Stub(Market) {
+			getCurrentPrice() >> 100000000000D
+		}
+		1 * marketSnapshotService.getMarket(_ as Exchange, _ as String) >> market
+		0 * marketRepository.findByExchangeAndSymbol(_, _)
+
+		expect:
+		StepVerifier.create(marketService.getCurrentPrice(Exchange.UPBIT, "KRW-KNU"))
+				.assertNext({
+					assert it == 100000000000D
+				})
+				.verifyComplete()
+	}
+
 	Market buildMarket(String symbol) {
 		Market market = new Market()
 		market.setExchange(Exchange.UPBIT)
@@ -0,0 +1,164 @@
+package com.moebius.backend.service.market
+
+import com.moebius.backend.assembler.MarketAssembler
+import com.moebius.backend.domain.commons.Exchange
+import com.moebius.backend.domain.markets.Market
+import com.moebius.backend.domain.markets.MarketRepository
+import com.moebius.backend.dto.exchange.upbit.UpbitTradeMetaDto
+import com.moebius.backend.dto.trade.TradeDto
+import com.moebius.backend.utils.OrderUtil
+import org.bson.types.ObjectId
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import reactor.test.StepVerifier
+import spock.lang.Specification
+import spock.lang.Subject
+
+class MarketSnapshotServiceTest extends Specification {
+	def marketRepository = Mock(MarketRepository)
+	def orderUtil = new OrderUtil()
+	def marketAssembler = new MarketAssembler(orderUtil)
+	def tradeMetaDto = Stub(UpbitTradeMetaDto) {
+		getAccumulatedTradePrice() >> 1000000D
+		getAccumulatedTradeVolume() >> 10D
+	}
+
+	@Subject
+	def marketSnapshotService = new MarketSnapshotService(marketRepository, marketAssembler, orderUtil)
+
+	def "Should replace market snapshot on update"() {
+		given:
+		def market = buildMarket("KRW-BTC", 100D)
+		marketSnapshotService.putMarket(market)
+
+		when:
+		def updatedMarket = marketSnapshotService.updateMarket(market, buildTrade(110D), tradeMetaDto)
+
+		then:
+		!updatedMarket.is(market)
+		market.getCurrentPrice() == 100D
+		updatedMarket.getCurrentPrice() == 110D
+		marketSnapshotService.getMarket(Exchange.UPBIT, "KRW-BTC").is(updatedMarket)
+	}
+
+	def "Should flush only the latest snapshot of updated markets"() {
+		given:
+		def market = buildMarket("KRW-BTC", 100D)
+		marketSnapshotService.putMarket(market)
+		marketSnapshotService.putMarket(buildMarket("KRW-ETH", 10D))
+		marketSnapshotService.updateMarket(market, buildTrade(110D), tradeMetaDto)
+		marketSnapshotService.updateMarket(market, buildTrade(120D), tradeMetaDto)
+
+		when:
+		StepVerifier.create(marketSnapshotService.flushMarkets())
+				.expectNext(1)
+				.verifyComplete()
+
+		then:
+		1 * marketRepository.updateAllMarketPrices({ Collection<Market> markets ->
+			markets.size() == 1 && markets[0].getSymbol() == "KRW-BTC" && markets[0].getCurrentPrice() == 120D
+		}) >> Mono.just(1)
+	}
+
+	def "Should not flush if no market has been updated"() {
+		when:
+		StepVerifier.create(marketSnapshotService.flushMarkets())
+				.expectNext(0)
+				.verifyComplete()
+
+		then:
+		0 * marketRepository.updateAllMarketPrices(_)
+	}
+
+	def "Should retry markets on next flush if flush failed"() {
+		given:
+		def market = buildMarket("KRW-BTC", 100D)
+		marketSnapshotService.updateMarket(market, buildTrade(110D), tradeMetaDto)
+
+		when:
+		StepVerifier.create(marketSnapshotService.flushMarkets())
+				.expectNext(0)
+				.verifyComplete()
+		StepVerifier.create(marketSnapshotService.flushMarkets())
+				.expectNext(1)
+				.verifyComplete()
+
+		then:
+		2 * marketRepository.updateAllMarketPrices({ it.size() == 1 }) >>> [Mono.error(new RuntimeException()), Mono.just(1)]
+	}
+
+	def "Should remove market snapshot"() {
+		given:
+		1 * marketRepository.findAllByExchange(Exchange.UPBIT) >> Flux.empty()
+		def market = buildMarket("KRW-BTC", 100D)
+		marketSnapshotService.putMarket(market)
+
+		when:
+		marketSnapshotService.removeMarket(market.getId())
+
+		then:
+		marketSnapshotService.getMarket(Exchange.UPBIT, "KRW-BTC") == null
+		marketSnapshotService.getCurrencyPrices(Exchange.UPBIT).block().isEmpty()
+	}
+
+	def "Should load markets of exchange only once"() {
+		when:
+		StepVerifier.create(marketSnapshotService.getMarkets(Exchange.UPBIT))
+				.assertNext({
+					assert it*.getSymbol() == ["KRW-BTC", "KRW-ETH"]
+				})
+				.verifyComplete()
+		StepVerifier.create(marketSnapshotService.getMarkets(Exchange.UPBIT))
+				.assertNext({
+					assert it.size() == 2
+				})
+				.verifyComplete()
+
+		then:
+		1 * marketRepository.findAllByExchange(Exchange.UPBIT) >> Flux.just(buildMarket("KRW-ETH", 10D), buildMarket("KRW-BTC", 100D))
+	}
+
+	def "Should keep currency prices up to date with trades"() {
+		given:
+		1 * marketRepository.findAllByExchange(Exchange.UPBIT) >> Flux.just(buildMarket("KRW-BTC", 100D), buildMarket("KRW-ETH", 10D))
+
+		when:
+		marketSnapshotService.updateMarket(buildMarket("KRW-BTC", 100D), buildTrade(110D), tradeMetaDto)
+
+		then:
+		StepVerifier.create(marketSnapshotService.getCurrencyPrices(Exchange.UPBIT))
+				.assertNext({
+					assert it == ["BTC": 110D, "ETH": 10D]
+				})
+				.verifyComplete()
+	}
+
+	def "Should not replace market snapshot fed by trades with loaded market"() {
+		given:
+		def market = buildMarket("KRW-BTC", 100D)
+		marketSnapshotService.updateMarket(market, buildTrade(110D), tradeMetaDto)
+
+		when:
+		marketSnapshotService.putMarket(market)
+
+		then:
+		marketSnapshotService.getMarket(Exchange.UPBIT, "KRW-BTC").getCurrentPrice() == 110D
+	}
+
+	Market buildMarket(String symbol, double currentPrice) {
+		Market market = new Market()
+		market.setId(ObjectId.get())
+		market.setExchange(Exchange.UPBIT)
+		market.setSymbol(symbol)
+		market.setCurrentPrice(currentPrice)
+
+		return market
+	}
+
+	TradeDto buildTrade(double price) {
+		Stub(TradeDto) {
+			getPrice() >> price
+			getPrevClosingPrice() >> 100D
+		}
+	}
+}
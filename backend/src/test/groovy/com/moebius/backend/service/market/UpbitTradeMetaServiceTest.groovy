@@ -0,0 +1,72 @@
+package com.moebius.backend.service.market
+
+import com.moebius.backend.domain.commons.Exchange
+import com.moebius.backend.domain.markets.Market
+import com.moebius.backend.dto.exchange.upbit.UpbitTradeMetaDto
+import com.moebius.backend.service.exchange.UpbitService
+import reactor.core.publisher.Mono
+import reactor.test.StepVerifier
+import spock.lang.Specification
+import spock.lang.Subject
+
+class UpbitTradeMetaServiceTest extends Specification {
+	def upbitService = Mock(UpbitService)
+	def marketSnapshotService = Mock(MarketSnapshotService)
+
+	@Subject
+	def upbitTradeMetaService = new UpbitTradeMetaService(upbitService, marketSnapshotService)
+
+	def "Should refresh trade metas of markets in batches"() {
+		given:
+		upbitTradeMetaService.batchSize = 2
+		def btcTradeMeta = buildTradeMeta(100D)
+		def xrpTradeMeta = buildTradeMeta(300D)
+
+		1 * marketSnapshotService.getMarkets(Exchange.UPBIT) >> Mono.just([buildMarket("KRW-BTC"), buildMarket("KRW-ETH"), buildMarket("KRW-XRP")])
+		1 * upbitService.getTradeMetas(["KRW-BTC", "KRW-ETH"]) >> Mono.just(["KRW-BTC": btcTradeMeta])
+		1 * upbitService.getTradeMetas(["KRW-XRP"]) >> Mono.just(["KRW-XRP": xrpTradeMeta])
+
+		expect:
+		StepVerifier.create(upbitTradeMetaService.refreshTradeMetas())
+				.expectNext(2)
+				.verifyComplete()
+		upbitTradeMetaService.getTradeMeta("KRW-BTC") == btcTradeMeta
+		upbitTradeMetaService.getTradeMeta("KRW-XRP") == xrpTradeMeta
+		upbitTradeMetaService.getTradeMeta("KRW-ETH") == null
+	}
+
+	def "Should keep previous trade metas of failed batch and drop removed markets"() {
+		given:
+		upbitTradeMetaService.batchSize = 1
+		def btcTradeMeta = buildTradeMeta(100D)
+
+		2 * marketSnapshotService.getMarkets(Exchange.UPBIT) >>> [
+				Mono.just([buildMarket("KRW-BTC"), buildMarket("KRW-ETH")]),
+				Mono.just([buildMarket("KRW-BTC")])
+		]
+		2 * upbitService.getTradeMetas(["KRW-BTC"]) >>> [Mono.just(["KRW-BTC": btcTradeMeta]), Mono.error(new IllegalStateException())]
+		1 * upbitService.getTradeMetas(["KRW-ETH"]) >> Mono.just(["KRW-ETH": buildTradeMeta(200D)])
+
+		when:
+		upbitTradeMetaService.refreshTradeMetas().block()
+		upbitTradeMetaService.refreshTradeMetas().block()
+
+		then:
+		upbitTradeMetaService.getTradeMeta("KRW-BTC") == btcTradeMeta
+		upbitTradeMetaService.getTradeMeta("KRW-ETH") == null
+	}
+
+	Market buildMarket(String symbol) {
+		Market market = new Market()
+		market.setExchange(Exchange.UPBIT)
+		market.setSymbol(symbol)
+
+		return market
+	}
+
+	UpbitTradeMetaDto buildTradeMeta(double accumulatedTradePrice) {
+		return UpbitTradeMetaDto.builder()
+				.accumulatedTradePrice(accumulatedTradePrice)
+				.build()
+	}
+}
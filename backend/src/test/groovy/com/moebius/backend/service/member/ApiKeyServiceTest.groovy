@@ -1,6 +1,7 @@
 package com.moebius.backend.service.member
 
 import com.moebius.backend.assembler.ApiKeyAssembler
+import com.moebius.backend.configuration.ReactiveCacheProperties
 import com.moebius.backend.domain.apikeys.ApiKey
 import com.moebius.backend.domain.apikeys.ApiKeyRepository
 import com.moebius.backend.domain.commons.Exchange
@@ -8,9 +9,11 @@ import com.moebius.backend.dto.frontend.ApiKeyDto
 import com.moebius.backend.dto.frontend.response.ApiKeyResponseDto
 import com.moebius.backend.exception.DataNotFoundException
 import com.moebius.backend.exception.DuplicatedDataException
+import com.moebius.backend.service.cache.ReactiveCacheFactory
 import com.moebius.backend.service.exchange.ExchangeServiceFactory
 import com.moebius.backend.service.exchange.UpbitService
 import com.mongodb.DuplicateKeyException
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.bson.types.ObjectId
 import org.slf4j.Logger
 import org.springframework.http.HttpStatus
@@ -37,7 +40,8 @@ class ApiKeyServiceTest extends Specification {
 	def apiKeyService = new ApiKeyService(
 			apiKeyRepository,
 			apiKeyAssembler,
-			exchangeServiceFactory
+			exchangeServiceFactory,
+			new ReactiveCacheFactory(new ReactiveCacheProperties(), new SimpleMeterRegistry())
 	)
 
 	def setup() {
@@ -125,7 +129,10 @@ class ApiKeyServiceTest extends Specification {
 
 	def "Should delete api key by id"() {
 		given:
+		def upbitService = Mock(UpbitService)
 		1 * apiKeyRepository.deleteByIdAndMemberId(_ as ObjectId, _ as ObjectId) >> Mono.just(new Void())
+		1 * exchangeServiceFactory.getServices() >> [upbitService]
+		1 * upbitService.evictApiKey(new ObjectId(apiKeyId))
 
 		expect:
 		StepVerifier.create(apiKeyService.deleteApiKeyById(apiKeyId, memberId))
@@ -179,6 +186,66 @@ class ApiKeyServiceTest extends Specification {
 				.verifyComplete()
 	}
 
+	def "Should get api key by id from cache after the first load"() {
+		when:
+		StepVerifier.create(apiKeyService.getApiKeyById(apiKeyId))
+				.expectNextCount(1)
+				.verifyComplete()
+		StepVerifier.create(apiKeyService.getApiKeyById(apiKeyId))
+				.expectNextCount(1)
+				.verifyComplete()
+
+		then:
+		1 * apiKeyRepository.findById(_ as ObjectId) >> Mono.just(buildApiKey(apiKeyId))
+	}
+
+	def "Should get api keys by ids loading only uncached api keys at once"() {
+		given:
+		def cachedApiKeyId = new ObjectId(apiKeyId)
+		def uncachedApiKeyIds = [ObjectId.get(), ObjectId.get()]
+		apiKeyRepository.findById(cachedApiKeyId) >> Mono.just(buildApiKey(apiKeyId))
+		apiKeyService.getApiKeyById(apiKeyId).block()
+
+		when:
+		def apiKeys = apiKeyService.getApiKeysByIds([cachedApiKeyId] + uncachedApiKeyIds).block()
+
+		then:
+		1 * apiKeyRepository.findAllById(uncachedApiKeyIds) >> Flux.fromIterable(uncachedApiKeyIds.collect { buildApiKey(it.toHexString()) })
+		apiKeys.keySet() == ([cachedApiKeyId] + uncachedApiKeyIds) as Set
+	}
+
+	def "Should get api keys by ids without query if all cached"() {
+		given:
+		apiKeyRepository.findById(_ as ObjectId) >> Mono.just(buildApiKey(apiKeyId))
+		apiKeyService.getApiKeyById(apiKeyId).block()
+
+		when:
+		def apiKeys = apiKeyService.getApiKeysByIds([new ObjectId(apiKeyId)]).block()
+
+		then:
+		0 * apiKeyRepository.findAllById(_)
+		apiKeys.size() == 1
+	}
+
+	def "Should evict cached api key on delete"() {
+		given:
+		apiKeyRepository.deleteByIdAndMemberId(_ as ObjectId, _ as ObjectId) >> Mono.empty()
+		exchangeServiceFactory.getServices() >> []
+
+		when:
+		StepVerifier.create(apiKeyService.getApiKeyById(apiKeyId))
+				.expectNextCount(1)
+				.verifyComplete()
+		StepVerifier.create(apiKeyService.deleteApiKeyById(apiKeyId, memberId))
+				.verifyComplete()
+		StepVerifier.create(apiKeyService.getApiKeyById(apiKeyId))
+				.expectNextCount(1)
+				.verifyComplete()
+
+		then:
+		2 * apiKeyRepository.findById(_ as ObjectId) >> Mono.just(buildApiKey(apiKeyId))
+	}
+
 	def "Should not get api key by id cause of not found"() {
 		given:
 		1 * apiKeyRepository.findById(_ as ObjectId) >> Mono.empty()
@@ -188,6 +255,14 @@ class ApiKeyServiceTest extends Specification {
 				.verifyError(DataNotFoundException.class)
 	}
 
+	ApiKey buildApiKey(String id) {
+		ApiKey apiKey = new ApiKey()
+		apiKey.setId(new ObjectId(id))
+		apiKey.setExchange(Exchange.UPBIT)
+
+		return apiKey
+	}
+
 	ApiKeyDto buildApiKeyDto() {
 		ApiKeyDto apiKeyDto = new ApiKeyDto()
 		apiKeyDto.setExchange(Exchange.UPBIT)
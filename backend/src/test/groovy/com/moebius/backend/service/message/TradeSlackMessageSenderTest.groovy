@@ -6,10 +6,7 @@ import com.moebius.backend.dto.message.MessageRecipientType
 import com.moebius.backend.dto.slack.TradeSlackDto
 import com.moebius.backend.service.kafka.producer.MessageKafkaProducer
 import com.moebius.backend.utils.OrderUtil
-import reactor.core.publisher.Flux
-import reactor.kafka.sender.SenderResult
 import reactor.test.StepVerifier
-import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.Subject
 
@@ -19,9 +16,6 @@ class TradeSlackMessageSenderTest extends Specification {
 	def orderUtil = Mock(OrderUtil)
 	def messageKafkaProducer = Mock(MessageKafkaProducer)
 
-	@Shared
-	def kafkaSendResult = Mock(SenderResult)
-
 	@Subject
 	def sut = new TradeSlackMessageSender(messageKafkaProducer, orderUtil)
 
@@ -43,12 +37,12 @@ class TradeSlackMessageSenderTest extends Specification {
 
 		1 * orderUtil.getUnitCurrencyBySymbol(symbol) >> "KRW"
 		1 * orderUtil.getTargetCurrencyBySymbol(symbol) >> "BTC"
-		1 * messageKafkaProducer.produceMessages({
+		1 * messageKafkaProducer.send({
 			it.dedupStrategy == MessageDedupStrategy.LEAVE_FIRST_ARRIVAL.name() &&   \
               it.recipientType == MessageRecipientType.SLACK.name() &&   \
               it.body.parameters.from != null && it.body.parameters.to != null &&   \
               it.body.parameters.unitCurrency == "KRW" && it.body.parameters.targetCurrency == "BTC"
-		}) >> Flux.just(kafkaSendResult)
+		}) >> true
 
 		expect:
 		StepVerifier.create(sut.sendMessage(parameter))
@@ -1,10 +1,13 @@
 package com.moebius.backend.service.order
 
 
+import com.moebius.backend.configuration.TradePipelineProperties
 import com.moebius.backend.domain.apikeys.ApiKey
 import com.moebius.backend.domain.commons.Exchange
 import com.moebius.backend.domain.commons.TradeType
 import com.moebius.backend.domain.orders.Order
+import com.moebius.backend.domain.orders.OrderPosition
+import com.moebius.backend.domain.orders.OrderRepository
 import com.moebius.backend.domain.orders.OrderStatus
 import com.moebius.backend.dto.order.OrderDto
 import com.moebius.backend.dto.order.OrderStatusDto
@@ -12,11 +15,15 @@ import com.moebius.backend.dto.trade.TradeDto
 import com.moebius.backend.service.exchange.ExchangeService
 import com.moebius.backend.service.exchange.ExchangeServiceFactory
 import com.moebius.backend.service.member.ApiKeyService
+import com.moebius.backend.service.order.factory.OrderFactory
 import com.moebius.backend.service.order.factory.OrderFactoryManager
+import com.moebius.backend.service.trade.TradePipelineMetrics
 import com.moebius.backend.utils.OrderUtil
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.bson.types.ObjectId
 import org.springframework.http.HttpStatus
-import org.springframework.transaction.reactive.TransactionalOperator
 import org.springframework.web.reactive.function.client.ClientResponse
+import reactor.core.publisher.Flux
 import reactor.core.publisher.Mono
 import reactor.test.StepVerifier
 import spock.lang.Specification
@@ -26,54 +33,104 @@ import java.time.LocalDateTime
 
 class ExchangeOrderServiceTest extends Specification {
 	def apiKeyService = Mock(ApiKeyService)
-	def orderCacheService = Mock(OrderCacheService)
+	def orderRepository = Mock(OrderRepository)
+	def orderBookService = Mock(OrderBookService)
+	def orderStatusPollingService = Mock(OrderStatusPollingService)
 	def exchangeServiceFactory = Mock(ExchangeServiceFactory)
 	def orderFactoryManager = Mock(OrderFactoryManager)
-	def transactionalOperator = Mock(TransactionalOperator)
 	def orderUtil = Mock(OrderUtil)
+	def meterRegistry = new SimpleMeterRegistry()
 
 	@Subject
 	def exchangeOrderService = new ExchangeOrderService(
 			apiKeyService,
-			orderCacheService,
+			orderRepository,
+			orderBookService,
+			orderStatusPollingService,
 			exchangeServiceFactory,
 			orderFactoryManager,
-			transactionalOperator,
-			orderUtil
+			orderUtil,
+			new TradePipelineProperties(),
+			new TradePipelineMetrics(meterRegistry)
 	)
 
 	def "Should request order after updating in progress status"() {
+		given:
+		def exchangeService = Mock(ExchangeService)
+		def order = buildOrder(ObjectId.get())
+
+		when:
+		exchangeOrderService.order(Stub(ApiKey), order)
+
+		then:
+		1 * exchangeServiceFactory.getService(_) >> exchangeService
+		1 * exchangeService.requestOrder(_ as ApiKey, order) >> Mono.just(ClientResponse.create(HttpStatus.OK).build())
+		1 * orderStatusPollingService.addOrder(order)
+	}
+
+	def "Should not poll order status if order request is rejected"() {
+		given:
+		def exchangeService = Mock(ExchangeService)
+
 		when:
-		exchangeOrderService.order(Stub(ApiKey), Stub(Order))
+		exchangeOrderService.order(Stub(ApiKey), buildOrder(ObjectId.get()))
 
 		then:
-		1 * exchangeServiceFactory.getService(_ as Exchange) >> Stub(ExchangeService)
+		1 * exchangeServiceFactory.getService(_) >> exchangeService
+		1 * exchangeService.requestOrder(_ as ApiKey, _ as Order) >> Mono.just(ClientResponse.create(HttpStatus.BAD_REQUEST).build())
+		0 * orderStatusPollingService.addOrder(_)
 	}
 
-	def "Should not request order with trade dto when there is no ready order"() {
+	def "Should not request order with trade dto when there is no triggered order"() {
 		given:
-		1 * orderCacheService.getReadyOrderCountByExchangeAndSymbol(_ as Exchange, _ as String) >> Mono.just(0L)
+		orderBookService.hasTriggeredOrders(_ as TradeDto, _ as OrderPosition) >> false
 
 		when:
-		exchangeOrderService.orderByTrade(buildTradeDto())
+		StepVerifier.create(exchangeOrderService.orderByTrade(buildTradeDto()))
+				.verifyComplete()
 
 		then:
 		0 * exchangeServiceFactory.getService(_ as Exchange)
-		0 * apiKeyService.getApiKeyById(_ as String)
-		0 * orderCacheService.evictReadyOrderCount(_ as Exchange, _ as String)
-		0 * transactionalOperator.transactional(_ as Mono)
+		0 * apiKeyService.getApiKeysByIds(_)
+		0 * orderFactoryManager.getOrdersFactory(_)
+	}
+
+	def "Should request only claimed orders with trade dto"() {
+		given:
+		def apiKeyId = ObjectId.get()
+		def exchangeService = Mock(ExchangeService)
+		def ordersFactory = Mock(OrderFactory)
+		def claimedOrder = buildOrder(apiKeyId)
+
+		orderBookService.hasTriggeredOrders(_ as TradeDto, OrderPosition.PURCHASE) >> true
+		1 * orderFactoryManager.getOrdersFactory(OrderPosition.PURCHASE) >> ordersFactory
+		1 * ordersFactory.getAndUpdateOrdersToInProgress(_ as TradeDto) >> Flux.just(claimedOrder)
+		1 * apiKeyService.getApiKeysByIds([apiKeyId] as Set) >> Mono.just([(apiKeyId): Stub(ApiKey)])
+
+		when:
+		StepVerifier.create(exchangeOrderService.orderByTrade(buildTradeDto()))
+				.verifyComplete()
+
+		then:
+		1 * exchangeServiceFactory.getService(_ as Exchange) >> exchangeService
+		1 * exchangeService.requestOrder(_ as ApiKey, claimedOrder) >> Mono.just(ClientResponse.create(HttpStatus.CREATED).build())
+		meterRegistry.get("moebius.trade.order.latency").tags("exchange", "UPBIT", "symbol", "KRW-BTC").timer().count() == 1
 	}
 
-	def "Should request order with trade dto"() {
+	def "Should not request orders when no order is claimed"() {
 		given:
-		1 * orderCacheService.getReadyOrderCountByExchangeAndSymbol(_ as Exchange, _ as String) >> Mono.just(1L)
+		def ordersFactory = Mock(OrderFactory)
+
+		orderBookService.hasTriggeredOrders(_ as TradeDto, OrderPosition.SALE) >> true
+		1 * orderFactoryManager.getOrdersFactory(OrderPosition.SALE) >> ordersFactory
+		1 * ordersFactory.getAndUpdateOrdersToInProgress(_ as TradeDto) >> Flux.empty()
 
 		when:
-		exchangeOrderService.orderByTrade(buildTradeDto())
+		StepVerifier.create(exchangeOrderService.orderByTrade(buildTradeDto()))
+				.verifyComplete()
 
 		then:
-		1 * exchangeServiceFactory.getService(_ as Exchange) >> Stub(ExchangeService)
-		1 * transactionalOperator.transactional(_ as Mono) >> Mono.just(1L)
+		0 * apiKeyService.getApiKeysByIds(_)
 	}
 
 	def "Should request to cancel order if needed"() {
@@ -91,39 +148,113 @@ class ExchangeOrderServiceTest extends Specification {
 		1 * exchangeService.cancelOrder(_ as ApiKey, _ as String) >> Mono.just(ClientResponse.create(HttpStatus.OK).build())
 	}
 
-	def "Should request order"() {
+	def "Should request orders with api keys loaded at once"() {
 		given:
-		def exchangeService = Mock(ExchangeService) {
-			requestOrder(_ as ApiKey, _ as Order) >> Mono.just(ClientResponse.create(HttpStatus.OK).build())
-		}
+		def apiKeyId = ObjectId.get()
+		def exchangeService = Mock(ExchangeService)
+		def orders = [buildOrder(apiKeyId), buildOrder(apiKeyId), buildOrder(ObjectId.get())]
+
+		1 * apiKeyService.getApiKeysByIds({ it.size() == 2 }) >> Mono.just([(apiKeyId): Stub(ApiKey)])
+		2 * exchangeService.requestOrder(_ as ApiKey, _ as Order) >> Mono.just(ClientResponse.create(HttpStatus.OK).build())
+
+		when:
+		StepVerifier.create(exchangeOrderService.requestOrders(exchangeService, orders))
+				.expectNextCount(2)
+				.verifyComplete()
+
+		then:
+		2 * orderStatusPollingService.addOrder(_ as Order)
+		1 * orderRepository.releaseClaimedOrder(orders[2], OrderStatus.STOPPED) >> Mono.just(true)
+		0 * orderBookService.addOrder(_)
+	}
+
+	def "Should release failed order to the order book without cancelling the other orders"() {
+		given:
+		def apiKeyId = ObjectId.get()
+		def exchangeService = Mock(ExchangeService)
+		def failedOrder = buildOrder(apiKeyId)
+		def requestedOrder = buildOrder(apiKeyId)
 
-		1 * apiKeyService.getApiKeyById(_ as String) >> Mono.just(Stub(ApiKey))
+		1 * apiKeyService.getApiKeysByIds(_) >> Mono.just([(apiKeyId): Stub(ApiKey)])
+		1 * exchangeService.requestOrder(_ as ApiKey, failedOrder) >> Mono.error(new IllegalStateException())
+		1 * exchangeService.requestOrder(_ as ApiKey, requestedOrder) >> Mono.just(ClientResponse.create(HttpStatus.OK).build())
 
-		expect:
-		StepVerifier.create(exchangeOrderService.requestOrder(exchangeService, Stub(Order)))
-				.assertNext({
-					it -> assert it.statusCode() == HttpStatus.OK
-				})
+		when:
+		StepVerifier.create(exchangeOrderService.requestOrders(exchangeService, [failedOrder, requestedOrder]))
+				.expectNextCount(1)
 				.verifyComplete()
+
+		then:
+		1 * orderRepository.releaseClaimedOrder(failedOrder, OrderStatus.READY) >> Mono.just(true)
+		1 * orderBookService.addOrder({ it.is(failedOrder) && it.getOrderStatus() == OrderStatus.READY })
+		1 * orderStatusPollingService.addOrder(requestedOrder)
+		0 * orderStatusPollingService.addOrder(failedOrder)
 	}
 
-	def "Should evict cache only if count is not 0"() {
+	def "Should release or stop order by the rejected response"() {
 		given:
-		def count = COUNT
+		def apiKeyId = ObjectId.get()
+		def exchangeService = Stub(ExchangeService) {
+			requestOrder(_ as ApiKey, _ as Order) >> Mono.just(ClientResponse.create(STATUS_CODE).build())
+		}
+		def order = buildOrder(apiKeyId)
+		apiKeyService.getApiKeysByIds(_) >> Mono.just([(apiKeyId): Stub(ApiKey)])
 
-		EVICT_COUNT * orderCacheService.evictReadyOrderCount(_ as Exchange, _ as String)
+		when:
+		StepVerifier.create(exchangeOrderService.requestOrders(exchangeService, [order]))
+				.expectNextCount(1)
+				.verifyComplete()
 
-		expect:
-		StepVerifier.create(exchangeOrderService.evictIfCountNotZero(Stub(TradeDto), count))
-				.assertNext({
-					it -> assert it == RESULT
-				})
+		then:
+		1 * orderRepository.releaseClaimedOrder(order, ORDER_STATUS) >> Mono.just(true)
+		(ORDER_STATUS == OrderStatus.READY ? 1 : 0) * orderBookService.addOrder(order)
+		0 * orderStatusPollingService.addOrder(_)
 
 		where:
-		COUNT | EVICT_COUNT || RESULT
-		0     | 0           || 0
-		1     | 1           || 1
-		2     | 1           || 2
+		STATUS_CODE                      || ORDER_STATUS
+		HttpStatus.TOO_MANY_REQUESTS     || OrderStatus.READY
+		HttpStatus.SERVICE_UNAVAILABLE   || OrderStatus.READY
+		HttpStatus.BAD_REQUEST           || OrderStatus.STOPPED
+	}
+
+	def "Should not add order claimed again since to the order book"() {
+		given:
+		def apiKeyId = ObjectId.get()
+		def exchangeService = Stub(ExchangeService) {
+			requestOrder(_ as ApiKey, _ as Order) >> Mono.error(new IllegalStateException())
+		}
+		def order = buildOrder(apiKeyId)
+		apiKeyService.getApiKeysByIds(_) >> Mono.just([(apiKeyId): Stub(ApiKey)])
+
+		when:
+		StepVerifier.create(exchangeOrderService.requestOrders(exchangeService, [order]))
+				.verifyComplete()
+
+		then:
+		1 * orderRepository.releaseClaimedOrder(order, OrderStatus.READY) >> Mono.just(false)
+		0 * orderBookService.addOrder(_)
+	}
+
+	def "Should release every claimed order when api keys fail to be loaded"() {
+		given:
+		def orders = [buildOrder(ObjectId.get()), buildOrder(ObjectId.get())]
+		1 * apiKeyService.getApiKeysByIds(_) >> Mono.error(new IllegalStateException())
+
+		when:
+		StepVerifier.create(exchangeOrderService.requestOrders(Stub(ExchangeService), orders))
+				.verifyComplete()
+
+		then:
+		2 * orderRepository.releaseClaimedOrder(_ as Order, OrderStatus.READY) >> Mono.just(true)
+		2 * orderBookService.addOrder(_ as Order)
+	}
+
+	Order buildOrder(ObjectId apiKeyId) {
+		Order order = new Order()
+		order.setId(ObjectId.get())
+		order.setApiKeyId(apiKeyId)
+
+		return order
 	}
 
 	TradeDto buildTradeDto() {
@@ -132,6 +263,7 @@ class ExchangeOrderServiceTest extends Specification {
 		tradeDto.setSymbol("KRW-BTC")
 		tradeDto.setTradeType(TradeType.ASK)
 		tradeDto.setCreatedAt(LocalDateTime.now())
+		tradeDto.setReceivedTime(System.currentTimeMillis())
 
 		return tradeDto
 	}
@@ -0,0 +1,118 @@
+package com.moebius.backend.service.order
+
+import com.moebius.backend.domain.commons.Exchange
+import com.moebius.backend.domain.orders.Order
+import com.moebius.backend.domain.orders.OrderPosition
+import com.moebius.backend.domain.orders.OrderRepository
+import com.moebius.backend.domain.orders.OrderStatus
+import com.moebius.backend.dto.order.OrderDto
+import com.moebius.backend.dto.trade.TradeDto
+import org.bson.types.ObjectId
+import reactor.core.publisher.Flux
+import reactor.test.StepVerifier
+import spock.lang.Specification
+import spock.lang.Subject
+
+class OrderBookServiceTest extends Specification {
+	def orderRepository = Mock(OrderRepository)
+
+	@Subject
+	def orderBookService = new OrderBookService(orderRepository)
+
+	def "Should load ready orders to order books"() {
+		given:
+		1 * orderRepository.findAllByOrderStatusFromPrimary(OrderStatus.READY) >> Flux.just(
+				buildOrder(OrderPosition.PURCHASE, OrderStatus.READY, 100D),
+				buildOrder(OrderPosition.SALE, OrderStatus.READY, 200D))
+
+		expect:
+		StepVerifier.create(orderBookService.loadReadyOrders())
+				.expectNext(2L)
+				.verifyComplete()
+		orderBookService.hasTriggeredOrders(buildTradeDto(100D), OrderPosition.PURCHASE)
+		orderBookService.hasTriggeredOrders(buildTradeDto(200D), OrderPosition.SALE)
+	}
+
+	def "Should fall back to mongo until order books are loaded"() {
+		expect:
+		orderBookService.hasTriggeredOrders(buildTradeDto(100D), OrderPosition.PURCHASE)
+	}
+
+	def "Should keep falling back to mongo when order books fail to be loaded"() {
+		given:
+		1 * orderRepository.findAllByOrderStatusFromPrimary(OrderStatus.READY) >> Flux.error(new IllegalStateException())
+
+		expect:
+		StepVerifier.create(orderBookService.loadReadyOrders())
+				.verifyError(IllegalStateException)
+		orderBookService.hasTriggeredOrders(buildTradeDto(100D), OrderPosition.PURCHASE)
+	}
+
+	def "Should not add order which is not ready"() {
+		given:
+		orderRepository.findAllByOrderStatusFromPrimary(OrderStatus.READY) >> Flux.empty()
+		orderBookService.loadReadyOrders().block()
+
+		when:
+		orderBookService.addOrder(buildOrder(OrderPosition.PURCHASE, OrderStatus.IN_PROGRESS, 100D))
+
+		then:
+		!orderBookService.hasTriggeredOrders(buildTradeDto(100D), OrderPosition.PURCHASE)
+	}
+
+	def "Should check triggered orders by trade"() {
+		given:
+		orderRepository.findAllByOrderStatusFromPrimary(OrderStatus.READY) >> Flux.empty()
+		orderBookService.loadReadyOrders().block()
+		orderBookService.addOrder(buildOrder(OrderPosition.PURCHASE, OrderStatus.READY, 100D))
+
+		expect:
+		orderBookService.hasTriggeredOrders(buildTradeDto(PRICE), ORDER_POSITION) == RESULT
+
+		where:
+		ORDER_POSITION         | PRICE || RESULT
+		OrderPosition.PURCHASE | 90D   || true
+		OrderPosition.PURCHASE | 110D  || false
+		OrderPosition.SALE     | 90D   || false
+	}
+
+	def "Should remove order by order dto"() {
+		given:
+		def order = buildOrder(OrderPosition.PURCHASE, OrderStatus.READY, 100D)
+		def orderDto = new OrderDto()
+		orderDto.setId(order.getId().toHexString())
+		orderDto.setExchange(Exchange.UPBIT)
+		orderDto.setSymbol("KRW-BTC")
+		orderDto.setOrderPosition(OrderPosition.PURCHASE)
+		orderRepository.findAllByOrderStatusFromPrimary(OrderStatus.READY) >> Flux.empty()
+		orderBookService.loadReadyOrders().block()
+		orderBookService.addOrder(order)
+
+		when:
+		orderBookService.removeOrder(orderDto)
+
+		then:
+		!orderBookService.hasTriggeredOrders(buildTradeDto(90D), OrderPosition.PURCHASE)
+	}
+
+	Order buildOrder(OrderPosition orderPosition, OrderStatus orderStatus, double price) {
+		Order order = new Order()
+		order.setId(new ObjectId())
+		order.setExchange(Exchange.UPBIT)
+		order.setSymbol("KRW-BTC")
+		order.setOrderPosition(orderPosition)
+		order.setOrderStatus(orderStatus)
+		order.setPrice(price)
+
+		return order
+	}
+
+	TradeDto buildTradeDto(double price) {
+		TradeDto tradeDto = new TradeDto()
+		tradeDto.setExchange(Exchange.UPBIT)
+		tradeDto.setSymbol("KRW-BTC")
+		tradeDto.setPrice(price)
+
+		return tradeDto
+	}
+}
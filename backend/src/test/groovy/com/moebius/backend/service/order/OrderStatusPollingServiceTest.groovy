@@ -0,0 +1,154 @@
+package com.moebius.backend.service.order
+
+import com.moebius.backend.assembler.order.OrderAssembler
+import com.moebius.backend.configuration.OrderStatusPollingProperties
+import com.moebius.backend.domain.apikeys.ApiKey
+import com.moebius.backend.domain.commons.Exchange
+import com.moebius.backend.domain.orders.Order
+import com.moebius.backend.domain.orders.OrderRepository
+import com.moebius.backend.domain.orders.OrderStatus
+import com.moebius.backend.dto.order.OrderStatusDto
+import com.moebius.backend.service.exchange.ExchangeService
+import com.moebius.backend.service.exchange.ExchangeServiceFactory
+import com.moebius.backend.service.member.ApiKeyService
+import org.bson.types.ObjectId
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import reactor.test.StepVerifier
+import spock.lang.Specification
+import spock.lang.Subject
+
+class OrderStatusPollingServiceTest extends Specification {
+	def orderRepository = Mock(OrderRepository)
+	def orderAssembler = Mock(OrderAssembler)
+	def apiKeyService = Mock(ApiKeyService)
+	def exchangeServiceFactory = Mock(ExchangeServiceFactory)
+	def exchangeService = Mock(ExchangeService)
+	def apiKeyId = ObjectId.get()
+	def later = System.currentTimeMillis() + 60 * 1000
+
+	@Subject
+	def orderStatusPollingService = new OrderStatusPollingService(orderRepository, orderAssembler, apiKeyService, exchangeServiceFactory,
+			new OrderStatusPollingProperties())
+
+	def "Should load in progress orders to poll"() {
+		given:
+		1 * orderRepository.findAllByOrderStatus(OrderStatus.IN_PROGRESS) >> Flux.just(buildOrder(OrderStatus.IN_PROGRESS), buildOrder(OrderStatus.IN_PROGRESS))
+
+		expect:
+		StepVerifier.create(orderStatusPollingService.loadInProgressOrders())
+				.expectNext(2L)
+				.verifyComplete()
+		orderStatusPollingService.getPolledOrderCount() == 2
+	}
+
+	def "Should add only in progress orders once"() {
+		given:
+		def order = buildOrder(OrderStatus.IN_PROGRESS)
+
+		when:
+		orderStatusPollingService.addOrder(order)
+		orderStatusPollingService.addOrder(order)
+		orderStatusPollingService.addOrder(buildOrder(OrderStatus.READY))
+		orderStatusPollingService.addOrder(buildOrder(OrderStatus.DONE))
+
+		then:
+		orderStatusPollingService.getPolledOrderCount() == 1
+	}
+
+	def "Should not poll before orders are due"() {
+		given:
+		orderStatusPollingService.addOrder(buildOrder(OrderStatus.IN_PROGRESS))
+
+		when:
+		StepVerifier.create(orderStatusPollingService.pollOrderStatuses())
+				.expectNext(0L)
+				.verifyComplete()
+
+		then:
+		0 * apiKeyService.getApiKeysByIds(_)
+		orderStatusPollingService.getPolledOrderCount() == 1
+	}
+
+	def "Should update done orders polled in a batch and keep polling the others"() {
+		given:
+		def doneOrder = buildOrder(OrderStatus.IN_PROGRESS)
+		def waitingOrder = buildOrder(OrderStatus.IN_PROGRESS)
+		orderStatusPollingService.addOrder(doneOrder)
+		orderStatusPollingService.addOrder(waitingOrder)
+
+		when:
+		StepVerifier.create(orderStatusPollingService.pollOrderStatuses(later))
+				.expectNext(1L)
+				.verifyComplete()
+
+		then:
+		1 * apiKeyService.getApiKeysByIds([apiKeyId] as Set) >> Mono.just([(apiKeyId): Stub(ApiKey)])
+		1 * exchangeServiceFactory.getService(Exchange.UPBIT) >> exchangeService
+		1 * exchangeService.getDoneOrderStatuses(_ as ApiKey, { it.size() == 2 }) >> Flux.just(OrderStatusDto.builder()
+				.id(doneOrder.getId().toHexString())
+				.orderStatus(OrderStatus.DONE)
+				.build())
+		1 * orderRepository.findAllById([doneOrder.getId()]) >> Flux.just(doneOrder)
+		1 * orderAssembler.assembleOrderStatus(doneOrder, OrderStatus.DONE) >> doneOrder
+		1 * orderRepository.saveAll([doneOrder]) >> Flux.just(doneOrder)
+		orderStatusPollingService.getPolledOrderCount() == 1
+	}
+
+	def "Should keep polling orders if exchange fails"() {
+		given:
+		orderStatusPollingService.addOrder(buildOrder(OrderStatus.IN_PROGRESS))
+
+		when:
+		StepVerifier.create(orderStatusPollingService.pollOrderStatuses(later))
+				.expectNext(0L)
+				.verifyComplete()
+
+		then:
+		1 * apiKeyService.getApiKeysByIds(_) >> Mono.just([(apiKeyId): Stub(ApiKey)])
+		1 * exchangeServiceFactory.getService(Exchange.UPBIT) >> exchangeService
+		1 * exchangeService.getDoneOrderStatuses(_ as ApiKey, _ as List) >> Flux.error(new IllegalStateException())
+		0 * orderRepository.saveAll(_)
+		orderStatusPollingService.getPolledOrderCount() == 1
+	}
+
+	def "Should stop polling orders of deleted api key"() {
+		given:
+		orderStatusPollingService.addOrder(buildOrder(OrderStatus.IN_PROGRESS))
+
+		when:
+		StepVerifier.create(orderStatusPollingService.pollOrderStatuses(later))
+				.expectNext(0L)
+				.verifyComplete()
+
+		then:
+		1 * apiKeyService.getApiKeysByIds(_) >> Mono.just([:])
+		0 * exchangeService.getDoneOrderStatuses(_, _)
+		orderStatusPollingService.getPolledOrderCount() == 0
+	}
+
+	def "Should not poll removed orders"() {
+		given:
+		def order = buildOrder(OrderStatus.IN_PROGRESS)
+		orderStatusPollingService.addOrder(order)
+		orderStatusPollingService.removeOrder(order.getId())
+
+		when:
+		StepVerifier.create(orderStatusPollingService.pollOrderStatuses(later))
+				.expectNext(0L)
+				.verifyComplete()
+
+		then:
+		0 * apiKeyService.getApiKeysByIds(_)
+	}
+
+	Order buildOrder(OrderStatus orderStatus) {
+		Order order = new Order()
+		order.setId(ObjectId.get())
+		order.setApiKeyId(apiKeyId)
+		order.setExchange(Exchange.UPBIT)
+		order.setOrderStatus(orderStatus)
+
+		return order
+	}
+}
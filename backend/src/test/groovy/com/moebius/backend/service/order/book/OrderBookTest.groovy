@@ -0,0 +1,88 @@
+package com.moebius.backend.service.order.book
+
+import com.moebius.backend.domain.orders.Order
+import com.moebius.backend.domain.orders.OrderPosition
+import org.bson.types.ObjectId
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class OrderBookTest extends Specification {
+	@Unroll
+	def "Should check triggered by trade price"() {
+		given:
+		def orderBook = new OrderBook(ORDER_POSITION)
+		orderBook.add(buildOrder(ORDER_POSITION, 2D))
+
+		expect:
+		orderBook.isTriggered(PRICE) == RESULT
+
+		where:
+		ORDER_POSITION          | PRICE || RESULT
+		OrderPosition.PURCHASE  | 1D    || true
+		OrderPosition.PURCHASE  | 2D    || true
+		OrderPosition.PURCHASE  | 3D    || false
+		OrderPosition.SALE      | 1D    || false
+		OrderPosition.SALE      | 2D    || true
+		OrderPosition.SALE      | 3D    || true
+		OrderPosition.STOPLOSS  | 1D    || true
+		OrderPosition.STOPLOSS  | 2D    || true
+		OrderPosition.STOPLOSS  | 3D    || false
+	}
+
+	def "Should not be triggered when empty"() {
+		expect:
+		!new OrderBook(OrderPosition.PURCHASE).isTriggered(1D)
+	}
+
+	def "Should remove order"() {
+		given:
+		def orderBook = new OrderBook(OrderPosition.PURCHASE)
+		def order = buildOrder(OrderPosition.PURCHASE, 100D)
+		orderBook.add(order)
+
+		expect:
+		orderBook.remove(order.getId())
+		!orderBook.remove(order.getId())
+		!orderBook.isTriggered(1D)
+	}
+
+	def "Should move trigger price when best order is removed"() {
+		given:
+		def orderBook = new OrderBook(OrderPosition.PURCHASE)
+		def bestOrder = buildOrder(OrderPosition.PURCHASE, 200D)
+		orderBook.add(bestOrder)
+		orderBook.add(buildOrder(OrderPosition.PURCHASE, 100D))
+
+		when:
+		orderBook.remove(bestOrder.getId())
+
+		then:
+		orderBook.isTriggered(100D)
+		!orderBook.isTriggered(150D)
+	}
+
+	def "Should retain only given orders added before time"() {
+		given:
+		def orderBook = new OrderBook(OrderPosition.PURCHASE)
+		def retainedOrder = buildOrder(OrderPosition.PURCHASE, 100D)
+		def removedOrder = buildOrder(OrderPosition.PURCHASE, 200D)
+		orderBook.add(retainedOrder)
+		orderBook.add(removedOrder)
+
+		when:
+		orderBook.retainAll([retainedOrder.getId()] as Set, System.currentTimeMillis() + 1000)
+
+		then:
+		orderBook.isTriggered(100D)
+		!orderBook.isTriggered(150D)
+	}
+
+	Order buildOrder(OrderPosition orderPosition, double price) {
+		Order order = new Order()
+		order.setId(new ObjectId())
+		order.setOrderPosition(orderPosition)
+		order.setPrice(price)
+
+		return order
+	}
+}
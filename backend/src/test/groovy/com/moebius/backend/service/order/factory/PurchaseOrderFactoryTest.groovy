@@ -5,6 +5,7 @@ import com.moebius.backend.domain.orders.Order
 import com.moebius.backend.domain.orders.OrderPosition
 import com.moebius.backend.domain.orders.OrderRepository
 import com.moebius.backend.dto.trade.TradeDto
+import com.moebius.backend.service.order.OrderBookService
 import reactor.core.publisher.Flux
 import reactor.test.StepVerifier
 import spock.lang.Specification
@@ -12,9 +13,10 @@ import spock.lang.Subject
 
 class PurchaseOrderFactoryTest extends Specification {
 	def orderRepository = Mock(OrderRepository)
+	def orderBookService = Mock(OrderBookService)
 
 	@Subject
-	def purchaseOrderFactory = new PurchaseOrderFactory(orderRepository)
+	def purchaseOrderFactory = new PurchaseOrderFactory(orderRepository, orderBookService)
 
 	def "Should get position"() {
 		expect:
@@ -25,11 +27,18 @@ class PurchaseOrderFactoryTest extends Specification {
 		given:
 		def firstOrder = Stub(Order)
 		def secondOrder = Stub(Order)
+		def tradeDto = Stub(TradeDto) {
+			getExchange() >> Exchange.UPBIT
+			getSymbol() >> "KRW-BTC"
+			getPrice() >> 100D
+		}
 
-		1 * orderRepository.findAndUpdateAllByBidCondition(_ as Exchange, _ as String, _ as OrderPosition, _ as Double) >> Flux.just(firstOrder, secondOrder)
+		1 * orderRepository.claimTriggeredOrders(Exchange.UPBIT, "KRW-BTC", OrderPosition.PURCHASE, 100D) >> Flux.just(firstOrder, secondOrder)
+		1 * orderBookService.removeOrder(firstOrder)
+		1 * orderBookService.removeOrder(secondOrder)
 
 		expect:
-		StepVerifier.create(purchaseOrderFactory.getAndUpdateOrdersToInProgress(Stub(TradeDto)))
+		StepVerifier.create(purchaseOrderFactory.getAndUpdateOrdersToInProgress(tradeDto))
 				.expectNext(firstOrder, secondOrder)
 				.verifyComplete()
 	}
@@ -5,6 +5,7 @@ import com.moebius.backend.domain.orders.Order
 import com.moebius.backend.domain.orders.OrderPosition
 import com.moebius.backend.domain.orders.OrderRepository
 import com.moebius.backend.dto.trade.TradeDto
+import com.moebius.backend.service.order.OrderBookService
 import reactor.core.publisher.Flux
 import reactor.test.StepVerifier
 import spock.lang.Specification
@@ -12,9 +13,10 @@ import spock.lang.Subject
 
 class SaleOrderFactoryTest extends Specification {
 	def orderRepository = Mock(OrderRepository)
+	def orderBookService = Mock(OrderBookService)
 
 	@Subject
-	def saleOrderFactory = new SaleOrderFactory(orderRepository)
+	def saleOrderFactory = new SaleOrderFactory(orderRepository, orderBookService)
 
 	def "Should get position"() {
 		expect:
@@ -25,11 +27,18 @@ class SaleOrderFactoryTest extends Specification {
 		given:
 		def firstOrder = Stub(Order)
 		def secondOrder = Stub(Order)
+		def tradeDto = Stub(TradeDto) {
+			getExchange() >> Exchange.UPBIT
+			getSymbol() >> "KRW-BTC"
+			getPrice() >> 100D
+		}
 
-		1 * orderRepository.findAndUpdateAllByAskCondition(_ as Exchange, _ as String, _ as OrderPosition, _ as Double) >> Flux.just(firstOrder, secondOrder)
+		1 * orderRepository.claimTriggeredOrders(Exchange.UPBIT, "KRW-BTC", OrderPosition.SALE, 100D) >> Flux.just(firstOrder, secondOrder)
+		1 * orderBookService.removeOrder(firstOrder)
+		1 * orderBookService.removeOrder(secondOrder)
 
 		expect:
-		StepVerifier.create(saleOrderFactory.getAndUpdateOrdersToInProgress(Stub(TradeDto)))
+		StepVerifier.create(saleOrderFactory.getAndUpdateOrdersToInProgress(tradeDto))
 				.expectNext(firstOrder, secondOrder)
 				.verifyComplete()
 	}
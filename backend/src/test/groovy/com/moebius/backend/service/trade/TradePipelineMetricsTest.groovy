@@ -0,0 +1,62 @@
+package com.moebius.backend.service.trade
+
+import com.moebius.backend.domain.commons.Exchange
+import com.moebius.backend.dto.trade.TradeDto
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import reactor.core.publisher.Mono
+import reactor.test.StepVerifier
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.concurrent.TimeUnit
+
+class TradePipelineMetricsTest extends Specification {
+	def meterRegistry = new SimpleMeterRegistry()
+
+	@Subject
+	def tradePipelineMetrics = new TradePipelineMetrics(meterRegistry)
+
+	def "Should time stage whether it succeeds or not"() {
+		when:
+		StepVerifier.create(tradePipelineMetrics.time("market", Mono.just(1))).expectNext(1).verifyComplete()
+		StepVerifier.create(tradePipelineMetrics.time("market", Mono.error(new IllegalStateException()))).verifyError(IllegalStateException)
+
+		then:
+		meterRegistry.get("moebius.trade.stage").tag("stage", "market").timer().count() == 2
+	}
+
+	def "Should record latency from receiving trade to submitting order"() {
+		given:
+		def tradeDto = buildTradeDto()
+		tradeDto.setReceivedTime(System.currentTimeMillis() - 100)
+
+		when:
+		tradePipelineMetrics.recordOrderSubmitted(tradeDto)
+
+		then:
+		def timer = meterRegistry.get("moebius.trade.order.latency").tags("exchange", "UPBIT", "symbol", "KRW-BTC").timer()
+		timer.count() == 1
+		timer.totalTime(TimeUnit.MILLISECONDS) >= 100
+	}
+
+	def "Should update trade rate of symbol"() {
+		given:
+		def tradeDto = buildTradeDto()
+		3.times { tradePipelineMetrics.recordReceived(tradeDto, System.currentTimeMillis()) }
+
+		when:
+		tradePipelineMetrics.updateTradeRates()
+
+		then:
+		meterRegistry.get("moebius.trade.rate").tags("exchange", "UPBIT", "symbol", "KRW-BTC").gauge().value() > 0
+		meterRegistry.get("moebius.trade.stage").tag("stage", "receive").timer().count() == 3
+	}
+
+	TradeDto buildTradeDto() {
+		TradeDto tradeDto = new TradeDto()
+		tradeDto.setExchange(Exchange.UPBIT)
+		tradeDto.setSymbol("KRW-BTC")
+
+		return tradeDto
+	}
+}
@@ -2,24 +2,30 @@ package com.moebius.backend.service.trade
 
 import com.moebius.backend.assembler.SlackAssembler
 import com.moebius.backend.assembler.TradeAssembler
+import com.moebius.backend.configuration.TradePipelineProperties
 import com.moebius.backend.domain.commons.Exchange
 import com.moebius.backend.dto.trade.AggregatedTradeHistoriesDto
 import com.moebius.backend.dto.trade.AggregatedTradeHistoryDto
+import com.moebius.backend.dto.trade.ConflatedTradeDto
 import com.moebius.backend.dto.trade.TradeDto
 import com.moebius.backend.dto.trade.TradeHistoryDto
 import com.moebius.backend.service.message.TradeSlackMessageSender
 import com.moebius.backend.service.order.InternalOrderService
 import com.moebius.backend.service.slack.TradeSlackSender
+import com.moebius.backend.service.trade.aggregation.TradeAggregationService
 import com.moebius.backend.service.trade.validator.DefaultTradeValidator
 import com.moebius.backend.service.trade.validator.aggregated.SuddenTurnValidator
 import org.springframework.web.reactive.function.client.WebClient
 import org.springframework.web.util.UriComponentsBuilder
 import reactor.core.publisher.Flux
 import reactor.core.publisher.Mono
+import reactor.test.StepVerifier
 import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.Subject
 
+import java.time.Duration
+
 class TradeServiceTest extends Specification {
 	def tradeStrategies = [Stub(DefaultTradeValidator) {
 		isValid(_ as TradeDto, _ as List) >> true
@@ -34,12 +40,15 @@ class TradeServiceTest extends Specification {
 	def tradeHistoryService = Mock(TradeHistoryService)
 	def tradeSlackSender = Spy(TradeSlackSender, constructorArgs: [Stub(WebClient), Stub(SlackAssembler), Stub(TradeSlackMessageSender)]) as TradeSlackSender
 	def tradeAssembler = Mock(TradeAssembler)
+	def tradeAggregationService = Mock(TradeAggregationService)
+	def tradePipelineProperties = new TradePipelineProperties()
 
 	@Shared
 	def uri = UriComponentsBuilder.newInstance().build().toUri()
 
 	@Subject
-	def tradeService = new TradeService(tradeStrategies, aggregatedTradeStrategies, internalOrderService, tradeHistoryService, tradeSlackSender, tradeAssembler)
+	def tradeService = new TradeService(tradeStrategies, aggregatedTradeStrategies, internalOrderService, tradeHistoryService, tradeSlackSender, tradeAssembler, tradeAggregationService,
+			tradePipelineProperties)
 
 	def "Should request to send slack message if valid trade and valid histories"() {
 		given:
@@ -49,24 +58,97 @@ class TradeServiceTest extends Specification {
 		}
 
 		when:
-		tradeService.notifyIfValidTrade(getTradeDto(10000D, 10D))
+		tradeService.notifyIfValidTrade(getTradeDto(10000D, 10D)).subscribe()
 
 		then:
 		0 * tradeHistoryService.getTradeHistoriesUri(_ as TradeDto, _) >> uri
 		0 * tradeHistoryService.getTradeHistories(_ as URI) >> Flux.just(Stub(TradeHistoryDto))
+		1 * tradeAggregationService.aggregate(_ as TradeDto)
+		1 * tradeAggregationService.getAggregatedTradeHistories(_ as TradeDto, 1, 6) >> aggregatedTradeHistoriesDto
 		1 * tradeHistoryService.getAggregatedTradeHistoriesUri(_ as TradeDto, _, _) >> uri
-		1 * tradeHistoryService.getAggregatedTradeHistories(_ as URI) >> Mono.just(aggregatedTradeHistoriesDto)
+		0 * tradeHistoryService.getAggregatedTradeHistories(_ as URI)
 	}
 
 	def "Should not request to send slack message if invalid trade"() {
 		when:
-		tradeService.notifyIfValidTrade(getTradeDto(1000D, 1D))
+		StepVerifier.create(tradeService.notifyIfValidTrade(getTradeDto(1000D, 1D)))
+				.verifyComplete()
 
 		then:
 		0 * tradeHistoryService.getTradeHistoriesUri(_ as TradeDto, _) >> uri
 		0 * tradeHistoryService.getTradeHistories(_ as URI) >> Flux.just(Stub(TradeHistoryDto))
 		0 * tradeHistoryService.getAggregatedTradeHistoriesUri(_ as TradeDto, _, _) >> uri
 		0 * tradeHistoryService.getAggregatedTradeHistories(_ as URI) >> Mono.just(Stub(AggregatedTradeHistoriesDto))
+		1 * tradeAggregationService.aggregate(_ as TradeDto)
+		0 * tradeAggregationService.getAggregatedTradeHistories(_, _, _)
+	}
+
+	def "Should not validate again during alert cooldown"() {
+		given:
+		tradeHistoryService.getAggregatedTradeHistoriesUri(_ as TradeDto, _, _) >> uri
+		tradeSlackSender.sendMessage(_) >> Mono.empty()
+
+		when:
+		StepVerifier.create(tradeService.notifyIfValidTrade(getTradeDto(10000D, 10D)))
+				.verifyComplete()
+		StepVerifier.create(tradeService.notifyIfValidTrade(getTradeDto(10000D, 10D)))
+				.verifyComplete()
+
+		then:
+		2 * tradeAggregationService.aggregate(_ as TradeDto)
+		1 * tradeAggregationService.getAggregatedTradeHistories(_ as TradeDto, 1, 6) >> Stub(AggregatedTradeHistoriesDto)
+	}
+
+	def "Should share in-flight validation of the same symbol"() {
+		given:
+		tradePipelineProperties.setAlertCooldown(Duration.ZERO)
+		tradeHistoryService.getAggregatedTradeHistoriesUri(_ as TradeDto, _, _) >> uri
+
+		when:
+		tradeService.notifyIfValidTrade(getTradeDto(10000D, 10D)).subscribe()
+		tradeService.notifyIfValidTrade(getTradeDto(10000D, 10D)).subscribe()
+
+		then:
+		1 * tradeAggregationService.getAggregatedTradeHistories(_ as TradeDto, 1, 6) >> Stub(AggregatedTradeHistoriesDto)
+		1 * tradeSlackSender.sendMessage(_) >> Mono.never()
+	}
+
+	def "Should validate conflated trades by the trade of the largest amount"() {
+		given:
+		def conflatedTradeDto = new ConflatedTradeDto()
+		conflatedTradeDto.add(getTradeDto(1000D, 1D))
+		conflatedTradeDto.add(getTradeDto(10000D, 10D))
+		conflatedTradeDto.add(getTradeDto(1000D, 2D))
+		tradeHistoryService.getAggregatedTradeHistoriesUri(_ as TradeDto, _, _) >> uri
+		tradeSlackSender.sendMessage(_) >> Mono.empty()
+
+		when:
+		StepVerifier.create(tradeService.notifyIfValidTrades(conflatedTradeDto))
+				.verifyComplete()
+
+		then:
+		1 * tradeAggregationService.aggregate(conflatedTradeDto)
+		0 * tradeAggregationService.aggregate(_ as TradeDto)
+		1 * tradeAggregationService.getAggregatedTradeHistories({ it.getPrice() == 10000D }, 1, 6) >> Stub(AggregatedTradeHistoriesDto)
+	}
+
+	def "Should only aggregate stale trades"() {
+		given:
+		def staleTradeDto = getTradeDto(10000D, 10D)
+		staleTradeDto.setReceivedTime(System.currentTimeMillis() - tradePipelineProperties.getBatch().getCatchUpLag().toMillis())
+		def conflatedTradeDto = new ConflatedTradeDto()
+		conflatedTradeDto.add(staleTradeDto)
+
+		when:
+		StepVerifier.create(tradeService.notifyIfValidTrade(staleTradeDto))
+				.verifyComplete()
+		StepVerifier.create(tradeService.notifyIfValidTrades(conflatedTradeDto))
+				.verifyComplete()
+
+		then:
+		1 * tradeAggregationService.aggregate(staleTradeDto)
+		1 * tradeAggregationService.aggregate(conflatedTradeDto)
+		0 * tradeAggregationService.getAggregatedTradeHistories(*_)
 	}
 
 	TradeDto getTradeDto(double price, double volume) {
@@ -0,0 +1,176 @@
+package com.moebius.backend.service.trade.aggregation
+
+import com.moebius.backend.domain.commons.Exchange
+import com.moebius.backend.domain.commons.TradeType
+import com.moebius.backend.dto.trade.ConflatedTradeDto
+import com.moebius.backend.dto.trade.TradeDto
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Instant
+import java.time.ZoneId
+import java.util.concurrent.TimeUnit
+
+class TradeAggregationServiceTest extends Specification {
+	def now = TimeUnit.MINUTES.toMillis(TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis())) + 30000L
+
+	@Subject
+	def tradeAggregationService = new TradeAggregationService()
+
+	def "Should aggregate trades into one minute histories"() {
+		given:
+		tradeAggregationService.aggregate(getTradeDto("KRW-BTC", TradeType.ASK, 100D, 2D, minutesAgo(2)), now)
+		tradeAggregationService.aggregate(getTradeDto("KRW-BTC", TradeType.BID, 110D, 1D, minutesAgo(2)), now)
+		tradeAggregationService.aggregate(getTradeDto("KRW-BTC", TradeType.BID, 120D, 1D, now), now)
+		tradeAggregationService.aggregate(getTradeDto("KRW-ETH", TradeType.BID, 10D, 1D, now), now)
+
+		when:
+		def histories = tradeAggregationService.getAggregatedTradeHistories(getTradeDto("KRW-BTC", TradeType.BID, 0D, 0D), 1, 5, now)
+				.getAggregatedTradeHistories()
+
+		then:
+		histories.size() == 2
+		histories[0].getTotalAskCount() == 1L
+		histories[0].getTotalAskPrice() == 200D
+		histories[0].getTotalBidCount() == 1L
+		histories[0].getTotalBidPrice() == 110D
+		histories[0].getTotalTransactionCount() == 2L
+		histories[0].getTotalTransactionPrice() == 310D
+		histories[0].getTotalTransactionVolume() == 3D
+		histories[0].getEndTime() == histories[0].getStartTime().plusMinutes(1)
+		histories[1].getTotalBidPrice() == 120D
+		histories[1].getStartTime().isAfter(histories[0].getStartTime())
+	}
+
+	def "Should exclude trades out of time range"() {
+		given:
+		tradeAggregationService.aggregate(getTradeDto("KRW-BTC", TradeType.BID, 100D, 1D, minutesAgo(5)), now)
+		tradeAggregationService.aggregate(getTradeDto("KRW-BTC", TradeType.BID, 100D, 1D, minutesAgo(4)), now)
+
+		expect:
+		tradeAggregationService.getAggregatedTradeHistories(getTradeDto("KRW-BTC", TradeType.BID, 0D, 0D), 1, 5, now)
+				.getAggregatedTradeHistories().size() == 1
+	}
+
+	def "Should reuse the bucket of expired minute"() {
+		given:
+		tradeAggregationService.aggregate(getTradeDto("KRW-BTC", TradeType.BID, 100D, 1D, minutesAgo(TradeAggregationService.MAX_TIME_RANGE)),
+				minutesAgo(TradeAggregationService.MAX_TIME_RANGE))
+		tradeAggregationService.aggregate(getTradeDto("KRW-BTC", TradeType.BID, 200D, 1D, now), now)
+
+		when:
+		def histories = tradeAggregationService.getAggregatedTradeHistories(getTradeDto("KRW-BTC", TradeType.BID, 0D, 0D), 1,
+				TradeAggregationService.MAX_TIME_RANGE, now).getAggregatedTradeHistories()
+
+		then:
+		histories.size() == 1
+		histories[0].getTotalBidPrice() == 200D
+	}
+
+	def "Should merge buckets by interval"() {
+		given:
+		(0..3).each {
+			tradeAggregationService.aggregate(getTradeDto("KRW-BTC", TradeType.BID, 100D, 1D, minutesAgo(it)), now)
+		}
+
+		when:
+		def histories = tradeAggregationService.getAggregatedTradeHistories(getTradeDto("KRW-BTC", TradeType.BID, 0D, 0D), 2, 4, now)
+				.getAggregatedTradeHistories()
+
+		then:
+		histories.size() == 2
+		histories*.getTotalBidCount() == [2L, 2L]
+	}
+
+	def "Should bucket trades by their own time"() {
+		given:
+		tradeAggregationService.aggregate(getTradeDto("KRW-BTC", TradeType.BID, 100D, 1D, minutesAgo(3)), now)
+		def createdTrade = getTradeDto("KRW-BTC", TradeType.BID, 200D, 1D)
+		createdTrade.setCreatedAt(Instant.ofEpochMilli(minutesAgo(2)).atZone(ZoneId.of("Asia/Seoul")).toLocalDateTime())
+		tradeAggregationService.aggregate(createdTrade, now)
+
+		when:
+		def histories = tradeAggregationService.getAggregatedTradeHistories(getTradeDto("KRW-BTC", TradeType.BID, 0D, 0D), 1, 5, now)
+				.getAggregatedTradeHistories()
+
+		then:
+		histories*.getTotalBidPrice() == [100D, 200D]
+		histories[0].getStartTime().plusMinutes(1) == histories[1].getStartTime()
+	}
+
+	def "Should drop trades older than the kept range"() {
+		given:
+		tradeAggregationService.aggregate(getTradeDto("KRW-BTC", TradeType.BID, 100D, 1D, minutesAgo(TradeAggregationService.MAX_TIME_RANGE + 5)), now)
+
+		expect:
+		tradeAggregationService.getAggregatedTradeHistories(getTradeDto("KRW-BTC", TradeType.BID, 0D, 0D), 1,
+				TradeAggregationService.MAX_TIME_RANGE, now).getAggregatedTradeHistories().isEmpty()
+	}
+
+	def "Should bucket trades ahead of the current time in the current minute"() {
+		given:
+		tradeAggregationService.aggregate(getTradeDto("KRW-BTC", TradeType.BID, 100D, 1D, now + TimeUnit.MINUTES.toMillis(2)), now)
+
+		expect:
+		tradeAggregationService.getAggregatedTradeHistories(getTradeDto("KRW-BTC", TradeType.BID, 0D, 0D), 1, 1, now)
+				.getAggregatedTradeHistories()*.getTotalBidPrice() == [100D]
+	}
+
+	def "Should aggregate conflated trades at once"() {
+		given:
+		def conflatedTradeDto = new ConflatedTradeDto()
+		conflatedTradeDto.add(getTradeDto("KRW-BTC", TradeType.ASK, 100D, 2D))
+		conflatedTradeDto.add(getTradeDto("KRW-BTC", TradeType.BID, 110D, 1D))
+		conflatedTradeDto.add(getTradeDto("KRW-BTC", TradeType.BID, 120D, 1D))
+
+		when:
+		tradeAggregationService.aggregate(conflatedTradeDto, now)
+		def histories = tradeAggregationService.getAggregatedTradeHistories(getTradeDto("KRW-BTC", TradeType.BID, 0D, 0D), 1, 5, now)
+				.getAggregatedTradeHistories()
+
+		then:
+		histories.size() == 1
+		histories[0].getTotalAskCount() == 1L
+		histories[0].getTotalAskPrice() == 200D
+		histories[0].getTotalBidCount() == 2L
+		histories[0].getTotalBidPrice() == 230D
+		histories[0].getTotalTransactionVolume() == 4D
+	}
+
+	def "Should aggregate conflated trades by their own minutes"() {
+		given:
+		def conflatedTradeDto = new ConflatedTradeDto()
+		conflatedTradeDto.add(getTradeDto("KRW-BTC", TradeType.BID, 100D, 1D, minutesAgo(TradeAggregationService.MAX_TIME_RANGE + 1)))
+		conflatedTradeDto.add(getTradeDto("KRW-BTC", TradeType.BID, 100D, 1D, minutesAgo(3)))
+		conflatedTradeDto.add(getTradeDto("KRW-BTC", TradeType.ASK, 100D, 2D, minutesAgo(3)))
+		conflatedTradeDto.add(getTradeDto("KRW-BTC", TradeType.BID, 200D, 1D, minutesAgo(2)))
+
+		when:
+		tradeAggregationService.aggregate(conflatedTradeDto, now)
+		def histories = tradeAggregationService.getAggregatedTradeHistories(getTradeDto("KRW-BTC", TradeType.BID, 0D, 0D), 1,
+				TradeAggregationService.MAX_TIME_RANGE, now).getAggregatedTradeHistories()
+
+		then:
+		histories.size() == 2
+		histories[0].getTotalAskPrice() == 200D
+		histories[0].getTotalBidPrice() == 100D
+		histories[1].getTotalAskCount() == 0L
+		histories[1].getTotalBidPrice() == 200D
+	}
+
+	long minutesAgo(int minutes) {
+		return now - TimeUnit.MINUTES.toMillis(minutes)
+	}
+
+	TradeDto getTradeDto(String symbol, TradeType tradeType, double price, double volume, long receivedTime = 0L) {
+		TradeDto tradeDto = new TradeDto()
+		tradeDto.setExchange(Exchange.UPBIT)
+		tradeDto.setSymbol(symbol)
+		tradeDto.setTradeType(tradeType)
+		tradeDto.setPrice(price)
+		tradeDto.setVolume(volume)
+		tradeDto.setReceivedTime(receivedTime)
+
+		return tradeDto
+	}
+}
@@ -0,0 +1,92 @@
+package com.moebius.backend.service.trade.codec
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
+import com.moebius.backend.dto.trade.AggregatedTradeHistoriesDto
+import org.springframework.core.ResolvableType
+import org.springframework.core.codec.DecodingException
+import org.springframework.core.io.buffer.DefaultDataBufferFactory
+import org.springframework.http.MediaType
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.charset.StandardCharsets
+import java.time.ZoneOffset
+import java.time.ZonedDateTime
+
+class AggregatedTradeHistoriesDecoderTest extends Specification {
+	def bufferFactory = new DefaultDataBufferFactory()
+	def targetType = ResolvableType.forClass(AggregatedTradeHistoriesDto)
+
+	@Subject
+	def decoder = new AggregatedTradeHistoriesDecoder()
+
+	def "Should decode only aggregated trade histories of json"() {
+		expect:
+		decoder.canDecode(targetType, MediaType.APPLICATION_JSON)
+		!decoder.canDecode(ResolvableType.forClass(String), MediaType.APPLICATION_JSON)
+		!decoder.canDecode(targetType, MediaType.TEXT_PLAIN)
+	}
+
+	def "Should decode aggregated trade histories"() {
+		given:
+		def json = '''{
+			"exchange": "UPBIT",
+			"aggregatedTradeHistories": [{
+				"totalAskCount": 3, "totalAskPrice": 300.5, "totalAskVolume": 1.5,
+				"totalBidCount": 2, "totalBidPrice": 200.0, "totalBidVolume": 0.5,
+				"totalTransactionCount": 5, "totalTransactionPrice": 500.5, "totalTransactionVolume": 2.0,
+				"startTime": "2020-07-10T15:26:00+09:00", "endTime": 1594362420,
+				"unknown": {"nested": [1, 2]}
+			}, {
+				"totalAskCount": 1, "startTime": null
+			}]
+		}'''
+
+		when:
+		def result = decode(json)
+
+		then:
+		result.getAggregatedTradeHistories().size() == 2
+		with(result.getAggregatedTradeHistories()[0]) {
+			getTotalAskCount() == 3
+			getTotalAskPrice() == 300.5d
+			getTotalBidVolume() == 0.5d
+			getTotalTransactionCount() == 5
+			getTotalTransactionVolume() == 2.0d
+			getStartTime() == ZonedDateTime.of(2020, 7, 10, 6, 26, 0, 0, ZoneOffset.UTC)
+			getEndTime() == ZonedDateTime.of(2020, 7, 10, 6, 27, 0, 0, ZoneOffset.UTC)
+		}
+		result.getAggregatedTradeHistories()[1].getTotalAskCount() == 1
+		result.getAggregatedTradeHistories()[1].getStartTime() == null
+	}
+
+	def "Should read times the same as jackson"() {
+		given:
+		def objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+		def json = '{"aggregatedTradeHistories": [{"startTime": ' + time + '}]}'
+
+		when:
+		def result = decode(json).getAggregatedTradeHistories()[0].getStartTime()
+
+		then:
+		result.toInstant() == objectMapper.readValue(time, ZonedDateTime).toInstant()
+		result.getZone() == ZoneOffset.UTC
+
+		where:
+		time << ['1594362420', '1594362420.123456789', '"2020-07-10T15:27:00.123+09:00"']
+	}
+
+	def "Should throw exception for malformed json"() {
+		when:
+		decode('{"aggregatedTradeHistories": [{"totalAskCount": ')
+
+		then:
+		thrown(DecodingException)
+	}
+
+	AggregatedTradeHistoriesDto decode(String json) {
+		def buffer = bufferFactory.wrap(json.getBytes(StandardCharsets.UTF_8))
+		return decoder.decode(buffer, targetType, MediaType.APPLICATION_JSON, [:])
+	}
+}
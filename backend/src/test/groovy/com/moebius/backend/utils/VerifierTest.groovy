@@ -0,0 +1,75 @@
+package com.moebius.backend.utils
+
+import com.moebius.backend.domain.commons.Exchange
+import com.moebius.backend.domain.commons.TradeType
+import com.moebius.backend.dto.trade.TradeDto
+import spock.lang.Specification
+
+import java.time.LocalDateTime
+
+class VerifierTest extends Specification {
+	def "Should pass if non-nullable fields are not null"() {
+		when:
+		Verifier.checkNullFields(buildTradeDto())
+
+		then:
+		noExceptionThrown()
+	}
+
+	def "Should pass if nullable fields are null"() {
+		given:
+		def tradeDto = buildTradeDto()
+		tradeDto.setId(null)
+		tradeDto.setChange(null)
+
+		when:
+		Verifier.checkNullFields(tradeDto)
+
+		then:
+		noExceptionThrown()
+	}
+
+	def "Should throw exception if non-nullable field is null"() {
+		given:
+		def tradeDto = buildTradeDto()
+		tradeDto.setSymbol(null)
+
+		when:
+		Verifier.checkNullFields(tradeDto)
+
+		then:
+		thrown(NullPointerException)
+	}
+
+	def "Should check the same class repeatedly"() {
+		given:
+		def tradeDto = buildTradeDto()
+
+		when:
+		Verifier.checkNullFields(tradeDto)
+		tradeDto.setExchange(null)
+		Verifier.checkNullFields(tradeDto)
+
+		then:
+		thrown(NullPointerException)
+	}
+
+	def "Should not check static fields"() {
+		when:
+		Verifier.checkNullFields(Exchange.UPBIT)
+
+		then:
+		noExceptionThrown()
+	}
+
+	TradeDto buildTradeDto() {
+		TradeDto tradeDto = new TradeDto()
+		tradeDto.setId("5e7a30eceea97a67367a4b6a")
+		tradeDto.setExchange(Exchange.UPBIT)
+		tradeDto.setSymbol("KRW-BTC")
+		tradeDto.setTradeType(TradeType.BID)
+		tradeDto.setCreatedAt(LocalDateTime.now())
+
+		return tradeDto
+	}
+}
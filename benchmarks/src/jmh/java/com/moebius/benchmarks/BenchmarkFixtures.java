@@ -0,0 +1,142 @@
+package com.moebius.benchmarks;
+
+import com.moebius.backend.domain.apikeys.ApiKey;
+import com.moebius.backend.domain.commons.EventType;
+import com.moebius.backend.domain.commons.Exchange;
+import com.moebius.backend.domain.commons.TradeType;
+import com.moebius.backend.domain.orders.Order;
+import com.moebius.backend.domain.orders.OrderPosition;
+import com.moebius.backend.domain.orders.OrderStatus;
+import com.moebius.backend.domain.orders.OrderType;
+import com.moebius.backend.dto.order.OrderDto;
+import com.moebius.backend.dto.trade.AggregatedTradeHistoriesDto;
+import com.moebius.backend.dto.trade.AggregatedTradeHistoryDto;
+import com.moebius.backend.dto.trade.TradeDto;
+import org.bson.types.ObjectId;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory fixtures shared by the benchmarks, shaped like the trades and orders of a busy KRW market.
+ */
+final class BenchmarkFixtures {
+	static final String TRADE_JSON = "{\"id\":\"5e7a30eceea97a67367a4b6a\",\"exchange\":\"UPBIT\",\"symbol\":\"KRW-BTC\","
+		+ "\"tradeType\":\"BID\",\"change\":\"RISE\",\"price\":11800000.0,\"volume\":0.25,\"prevClosingPrice\":11500000.0,"
+		+ "\"changePrice\":300000.0,\"createdAt\":\"2020-03-24T23:10:20\",\"receivedTime\":1585059020000}";
+
+	private BenchmarkFixtures() {
+	}
+
+	static TradeDto tradeDto(double price, double volume) {
+		TradeDto tradeDto = new TradeDto();
+		tradeDto.setId(ObjectId.get().toHexString());
+		tradeDto.setExchange(Exchange.UPBIT);
+		tradeDto.setSymbol("KRW-BTC");
+		tradeDto.setTradeType(TradeType.BID);
+		tradeDto.setPrice(price);
+		tradeDto.setVolume(volume);
+		tradeDto.setPrevClosingPrice(11500000D);
+		tradeDto.setChangePrice(price - 11500000D);
+		tradeDto.setCreatedAt(LocalDateTime.now());
+		tradeDto.setReceivedTime(System.currentTimeMillis());
+
+		return tradeDto;
+	}
+
+	/**
+	 * Histories which satisfy every condition of the sudden turn validator, so that no condition is short-circuited.
+	 */
+	static AggregatedTradeHistoriesDto suddenTurnHistories() {
+		ZonedDateTime now = ZonedDateTime.now();
+		List<AggregatedTradeHistoryDto> histories = IntStream.range(0, 5)
+			.mapToObj(index -> AggregatedTradeHistoryDto.builder()
+				.totalAskCount(10L)
+				.totalAskPrice(1000000D)
+				.totalAskVolume(0.1D)
+				.totalBidCount(index == 4 ? 100L : 20L)
+				.totalBidPrice(index == 4 ? 30000000D : 3000000D)
+				.totalBidVolume(index == 4 ? 2.5D : 0.25D)
+				.totalTransactionCount(index == 4 ? 110L : 30L)
+				.totalTransactionPrice(index == 4 ? 31000000D : 4000000D)
+				.totalTransactionVolume(index == 4 ? 2.6D : 0.35D)
+				.startTime(now.minusMinutes(5 - index))
+				.endTime(now.minusMinutes(4 - index))
+				.build())
+			.collect(Collectors.toList());
+
+		return AggregatedTradeHistoriesDto.builder()
+			.aggregatedTradeHistories(histories)
+			.build();
+	}
+
+	static List<OrderDto> orderDtos() {
+		List<OrderDto> orderDtos = new ArrayList<>();
+		for (int level = 1; level <= 3; level++) {
+			orderDtos.add(orderDto(OrderPosition.PURCHASE, 11000000D - level * 100000D, level));
+			orderDtos.add(orderDto(OrderPosition.SALE, 12000000D + level * 100000D, level));
+			orderDtos.add(orderDto(OrderPosition.STOPLOSS, 10000000D - level * 100000D, level));
+		}
+
+		return orderDtos;
+	}
+
+	static Order order(OrderPosition orderPosition, OrderType orderType) {
+		Order order = new Order();
+		order.setId(ObjectId.get());
+		order.setApiKeyId(ObjectId.get());
+		order.setExchange(Exchange.UPBIT);
+		order.setSymbol("KRW-BTC");
+		order.setOrderPosition(orderPosition);
+		order.setOrderStatus(OrderStatus.READY);
+		order.setOrderType(orderType);
+		order.setPrice(11800000D);
+		order.setVolume(0.25D);
+		order.setLevel(1);
+
+		return order;
+	}
+
+	static ApiKey apiKey() {
+		ApiKey apiKey = new ApiKey();
+		apiKey.setId(ObjectId.get());
+		apiKey.setExchange(Exchange.UPBIT);
+		apiKey.setAccessKey("xu6Wq8ObLl8bXKxWGiRDzuxYQ6WcAQJkiVEBKfTl");
+		apiKey.setSecretKey("rZkYWvEIqoqxcUjv1o3mj1Fw3sxIBtoDtuzCxz9d");
+
+		return apiKey;
+	}
+
+	/**
+	 * Sets a field injected by {@code @Value} in the application context.
+	 */
+	static void setField(Object target, String name, Object value) {
+		try {
+			Field field = target.getClass().getDeclaredField(name);
+			field.setAccessible(true);
+			field.set(target, value);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Cannot set " + name + " of " + target.getClass().getSimpleName(), e);
+		}
+	}
+
+	private static OrderDto orderDto(OrderPosition orderPosition, double price, int level) {
+		OrderDto orderDto = new OrderDto();
+		orderDto.setEventType(EventType.CREATE);
+		orderDto.setExchange(Exchange.UPBIT);
+		orderDto.setSymbol("KRW-BTC");
+		orderDto.setOrderPosition(orderPosition);
+		orderDto.setOrderStatus(OrderStatus.READY);
+		orderDto.setOrderType(OrderType.LIMIT);
+		orderDto.setPrice(price);
+		orderDto.setVolume(0.01D);
+		orderDto.setLevel(level);
+
+		return orderDto;
+	}
+}
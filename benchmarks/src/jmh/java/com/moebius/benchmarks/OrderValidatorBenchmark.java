@@ -0,0 +1,31 @@
+package com.moebius.benchmarks;
+
+import com.moebius.backend.dto.order.OrderDto;
+import com.moebius.backend.service.order.validator.OrderValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Validation of an order request of three levels for every order position.
+ */
+@State(Scope.Benchmark)
+public class OrderValidatorBenchmark {
+	private OrderValidator orderValidator;
+	private List<OrderDto> orderDtos;
+
+	@Setup
+	public void setUp() {
+		orderValidator = new OrderValidator();
+		orderDtos = BenchmarkFixtures.orderDtos();
+	}
+
+	@Benchmark
+	public List<OrderDto> validate() {
+		orderValidator.validate(orderDtos);
+		return orderDtos;
+	}
+}
@@ -0,0 +1,37 @@
+package com.moebius.benchmarks;
+
+import com.moebius.backend.dto.trade.AggregatedTradeHistoriesDto;
+import com.moebius.backend.dto.trade.TradeDto;
+import com.moebius.backend.service.trade.validator.aggregated.SuddenTurnValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Validation of the aggregated trade histories, done for every trade over the price threshold.
+ */
+@State(Scope.Benchmark)
+public class SuddenTurnValidatorBenchmark {
+	private SuddenTurnValidator suddenTurnValidator;
+	private TradeDto tradeDto;
+	private AggregatedTradeHistoriesDto historiesDto;
+
+	@Setup
+	public void setUp() {
+		suddenTurnValidator = new SuddenTurnValidator();
+		BenchmarkFixtures.setField(suddenTurnValidator, "subscribers", new String[] {"@knunu", "@hyeonsoo"});
+		tradeDto = BenchmarkFixtures.tradeDto(11800000D, 0.25D);
+		historiesDto = BenchmarkFixtures.suddenTurnHistories();
+	}
+
+	@Benchmark
+	public boolean isValid() {
+		return suddenTurnValidator.isValid(tradeDto, historiesDto);
+	}
+
+	@Benchmark
+	public String getSubscribers() {
+		return suddenTurnValidator.getSubscribers(tradeDto, historiesDto);
+	}
+}
@@ -0,0 +1,34 @@
+package com.moebius.benchmarks;
+
+import com.moebius.backend.assembler.TradeAssembler;
+import com.moebius.backend.dto.slack.TradeSlackDto;
+import com.moebius.backend.dto.trade.AggregatedTradeHistoriesDto;
+import com.moebius.backend.dto.trade.TradeDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Assembling of the slack message of a valid aggregated trade.
+ */
+@State(Scope.Benchmark)
+public class TradeAssemblerBenchmark {
+	private static final String REFERENCE_LINK = "http://dev-data-api.hashmainpro.com:8080/trade-histories/aggregated/UPBIT/KRW-BTC";
+
+	private TradeAssembler tradeAssembler;
+	private TradeDto tradeDto;
+	private AggregatedTradeHistoriesDto historiesDto;
+
+	@Setup
+	public void setUp() {
+		tradeAssembler = new TradeAssembler();
+		tradeDto = BenchmarkFixtures.tradeDto(11800000D, 0.25D);
+		historiesDto = BenchmarkFixtures.suddenTurnHistories();
+	}
+
+	@Benchmark
+	public TradeSlackDto assembleByAggregatedTrade() {
+		return tradeAssembler.assembleByAggregatedTrade(tradeDto, historiesDto, REFERENCE_LINK, "");
+	}
+}
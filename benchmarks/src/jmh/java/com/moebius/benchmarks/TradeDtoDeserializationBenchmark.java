@@ -0,0 +1,51 @@
+package com.moebius.benchmarks;
+
+import com.moebius.backend.dto.trade.TradeDto;
+import com.moebius.backend.service.kafka.serializer.TradeDtoDeserializer;
+import com.moebius.backend.service.kafka.serializer.TradeDtoSerializer;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+/**
+ * Deserialization of a trade record value consumed from kafka, done for every trade.
+ * Both formats the consumer reads are measured, json of records without the version header and the binary layout.
+ */
+@State(Scope.Benchmark)
+public class TradeDtoDeserializationBenchmark {
+	private static final String TOPIC = "moebius.trade.upbit";
+
+	private TradeDtoDeserializer deserializer;
+	private Headers jsonHeaders;
+	private byte[] tradeJson;
+	private Headers binaryHeaders;
+	private byte[] tradeBinary;
+
+	@Setup
+	public void setUp() {
+		deserializer = new TradeDtoDeserializer();
+		jsonHeaders = new RecordHeaders();
+		tradeJson = BenchmarkFixtures.TRADE_JSON.getBytes(StandardCharsets.UTF_8);
+
+		TradeDtoSerializer serializer = new TradeDtoSerializer();
+		serializer.configure(Collections.singletonMap(TradeDtoSerializer.FORMAT_CONFIG, TradeDtoSerializer.BINARY_FORMAT), false);
+		binaryHeaders = new RecordHeaders();
+		tradeBinary = serializer.serialize(TOPIC, binaryHeaders, deserializer.deserialize(TOPIC, jsonHeaders, tradeJson));
+	}
+
+	@Benchmark
+	public TradeDto deserializeJson() {
+		return deserializer.deserialize(TOPIC, jsonHeaders, tradeJson);
+	}
+
+	@Benchmark
+	public TradeDto deserializeBinary() {
+		return deserializer.deserialize(TOPIC, binaryHeaders, tradeBinary);
+	}
+}
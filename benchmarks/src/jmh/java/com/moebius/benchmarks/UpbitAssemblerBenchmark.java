@@ -0,0 +1,38 @@
+package com.moebius.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moebius.backend.assembler.exchange.UpbitAssembler;
+import com.moebius.backend.domain.orders.Order;
+import com.moebius.backend.domain.orders.OrderPosition;
+import com.moebius.backend.domain.orders.OrderType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Assembling of the query parameters of an upbit order, done for every triggered order.
+ */
+@State(Scope.Benchmark)
+public class UpbitAssemblerBenchmark {
+	private UpbitAssembler upbitAssembler;
+	private Order limitOrder;
+	private Order marketOrder;
+
+	@Setup
+	public void setUp() {
+		upbitAssembler = new UpbitAssembler(new ObjectMapper());
+		limitOrder = BenchmarkFixtures.order(OrderPosition.SALE, OrderType.LIMIT);
+		marketOrder = BenchmarkFixtures.order(OrderPosition.PURCHASE, OrderType.MARKET);
+	}
+
+	@Benchmark
+	public String assembleLimitOrderParameters() {
+		return upbitAssembler.assembleOrderParameters(limitOrder);
+	}
+
+	@Benchmark
+	public String assembleMarketOrderParameters() {
+		return upbitAssembler.assembleOrderParameters(marketOrder);
+	}
+}
@@ -0,0 +1,66 @@
+package com.moebius.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moebius.backend.assembler.exchange.UpbitAssembler;
+import com.moebius.backend.configuration.ReactiveCacheProperties;
+import com.moebius.backend.configuration.UpbitRateLimitProperties;
+import com.moebius.backend.domain.apikeys.ApiKey;
+import com.moebius.backend.domain.orders.Order;
+import com.moebius.backend.domain.orders.OrderPosition;
+import com.moebius.backend.domain.orders.OrderType;
+import com.moebius.backend.service.cache.ReactiveCacheFactory;
+import com.moebius.backend.service.exchange.UpbitRateLimiter;
+import com.moebius.backend.service.exchange.UpbitService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * JWT signing of the authenticated upbit requests.
+ * The requests are signed when they are subscribed, the web client answers them without any network call
+ * and the rate limiter never holds them, so the signing, the assembling and the limiter overhead are measured.
+ */
+@State(Scope.Benchmark)
+public class UpbitSigningBenchmark {
+	private UpbitService upbitService;
+	private ApiKey apiKey;
+	private Order order;
+	private String orderId;
+
+	@Setup
+	public void setUp() {
+		WebClient webClient = WebClient.builder()
+			.exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK).build()))
+			.build();
+		UpbitRateLimitProperties upbitRateLimitProperties = new UpbitRateLimitProperties();
+		upbitRateLimitProperties.setOrderRequestsPerSecond(Integer.MAX_VALUE);
+		upbitRateLimitProperties.setDefaultRequestsPerSecond(Integer.MAX_VALUE);
+		upbitService = new UpbitService(webClient, new UpbitAssembler(new ObjectMapper()), new UpbitRateLimiter(upbitRateLimitProperties),
+			new ReactiveCacheFactory(new ReactiveCacheProperties(), new SimpleMeterRegistry()));
+		BenchmarkFixtures.setField(upbitService, "publicUri", "https://api.upbit.com/");
+		BenchmarkFixtures.setField(upbitService, "ordersUri", "v1/orders");
+		BenchmarkFixtures.setField(upbitService, "orderUri", "v1/order?");
+		BenchmarkFixtures.setField(upbitService, "identifierUri", "identifier=");
+		BenchmarkFixtures.setField(upbitService, "messageDigestHashAlgorithm", "SHA-512");
+		BenchmarkFixtures.setField(upbitService, "messageDigestCharset", "UTF-8");
+		apiKey = BenchmarkFixtures.apiKey();
+		order = BenchmarkFixtures.order(OrderPosition.PURCHASE, OrderType.LIMIT);
+		orderId = order.getId().toHexString();
+	}
+
+	@Benchmark
+	public ClientResponse signOrderRequest() {
+		return upbitService.requestOrder(apiKey, order).block();
+	}
+
+	@Benchmark
+	public ClientResponse signCancelRequest() {
+		return upbitService.cancelOrder(apiKey, orderId).block();
+	}
+}
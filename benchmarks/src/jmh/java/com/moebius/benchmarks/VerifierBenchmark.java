@@ -0,0 +1,27 @@
+package com.moebius.benchmarks;
+
+import com.moebius.backend.dto.trade.TradeDto;
+import com.moebius.backend.utils.Verifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Null field check of a trade, done by every trade handler.
+ */
+@State(Scope.Benchmark)
+public class VerifierBenchmark {
+	private TradeDto tradeDto;
+
+	@Setup
+	public void setUp() {
+		tradeDto = BenchmarkFixtures.tradeDto(11800000D, 0.25D);
+	}
+
+	@Benchmark
+	public TradeDto checkNullFields() {
+		Verifier.checkNullFields(tradeDto);
+		return tradeDto;
+	}
+}